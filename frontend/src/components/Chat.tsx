@@ -23,26 +23,87 @@ import {
   Search as SearchIcon,
   Message as MessageIcon,
   ArrowBack as ArrowBackIcon,
-  MoreVert as MoreVertIcon
+  MoreVert as MoreVertIcon,
+  AttachFile as AttachFileIcon,
+  InsertDriveFile as FileIcon
 } from '@mui/icons-material';
 import { format } from 'date-fns';
-import { chatService, ChatListItem, Message } from '../services/chatService';
+import { chatService, ChatListItem, Message, newClientMessageId } from '../services/chatService';
 import { webSocketService } from '../services/websocketService';
 import { getProfilePictureSrc, userService } from '../services/api';
 
+// The server drops a typing flag after 6s without a refresh.
+const TYPING_REFRESH_MS = 3000;
+const TYPING_IDLE_MS = 4000;
+
 interface ChatProps {
   currentUserId: string;
   currentUsername: string;
 }
 
+// Fetched as a blob because the download endpoint needs the Bearer header.
+const AttachmentPreview = ({ message }: { message: Message }) => {
+  const [url, setUrl] = useState<string | null>(null);
+  const [failed, setFailed] = useState(false);
+
+  useEffect(() => {
+    if (!message.attachmentId) return;
+    let objectUrl: string | null = null;
+    let cancelled = false;
+    chatService.downloadAttachment(message.attachmentId)
+      .then(blob => {
+        if (cancelled) return;
+        objectUrl = URL.createObjectURL(blob);
+        setUrl(objectUrl);
+      })
+      .catch(() => {
+        if (!cancelled) setFailed(true);
+      });
+    return () => {
+      cancelled = true;
+      if (objectUrl) URL.revokeObjectURL(objectUrl);
+    };
+  }, [message.attachmentId]);
+
+  if (failed) {
+    return <Typography variant="caption" sx={{ opacity: 0.8 }}>Attachment unavailable</Typography>;
+  }
+  if (!url) {
+    return <CircularProgress size={20} sx={{ color: 'inherit', my: 1 }} />;
+  }
+  if (message.type === 'IMAGE') {
+    return (
+      <Box
+        component="img"
+        src={url}
+        alt={message.content}
+        sx={{ display: 'block', maxWidth: '100%', maxHeight: 320, borderRadius: 2, mb: 1 }}
+      />
+    );
+  }
+  return (
+    <Box
+      component="a"
+      href={url}
+      download={message.content}
+      sx={{ display: 'flex', alignItems: 'center', gap: 1, color: 'inherit', mb: 1 }}
+    >
+      <FileIcon fontSize="small" />
+      <Typography variant="body2">Download</Typography>
+    </Box>
+  );
+};
+
 const MessageBubble = React.memo(({ 
   message, 
   isOwnMessage, 
+  isRead,
   formatMessageTime, 
   theme 
 }: { 
   message: Message; 
   isOwnMessage: boolean; 
+  isRead: boolean;
   formatMessageTime: (timestamp: string) => string;
   theme: any;
 }) => (
@@ -84,6 +145,7 @@ const MessageBubble = React.memo(({
         }
       }}
     >
+      {message.attachmentId && <AttachmentPreview message={message} />}
       <Typography variant="body1" sx={{ 
         wordBreak: 'break-word',
         lineHeight: 1.5
@@ -101,6 +163,7 @@ const MessageBubble = React.memo(({
         }}
       >
         {formatMessageTime(message.timestamp)}
+        {isOwnMessage && isRead && ' · Seen'}
       </Typography>
     </Paper>
   </Box>
@@ -125,12 +188,21 @@ const Chat: React.FC<ChatProps> = ({ currentUserId, currentUsername }) => {
   const [autoScroll, setAutoScroll] = useState(true);
   const [otherUserData, setOtherUserData] = useState<any>(null);
   const [userDataCache, setUserDataCache] = useState<Map<string, any>>(new Map());
+  const [partnerReadSeqs, setPartnerReadSeqs] = useState<Map<string, number>>(new Map());
+  const [typingChatIds, setTypingChatIds] = useState<Set<string>>(new Set());
 
   const messagesEndRef = useRef<HTMLDivElement>(null);
   const messagesContainerRef = useRef<HTMLDivElement>(null);
   const currentMessagesRef = useRef<Message[]>([]);
+  const chatsRef = useRef<ChatListItem[]>([]);
   const intersectionObserver = useRef<IntersectionObserver | null>(null);
   const pendingRequests = useRef<Set<string>>(new Set());
+  const pendingSend = useRef<{ chatId: string; content: string; clientMessageId: string } | null>(null);
+  const pendingUpload = useRef<{ chatId: string; fileKey: string; attachmentId?: string; clientMessageId: string } | null>(null);
+  const fileInputRef = useRef<HTMLInputElement>(null);
+  const [uploadProgress, setUploadProgress] = useState<number | null>(null);
+  const ownTyping = useRef<{ chatId: string | null; sentAt: number; idleTimer: ReturnType<typeof setTimeout> | null }>(
+    { chatId: null, sentAt: 0, idleTimer: null });
 
   useEffect(() => {
     if (currentUserId) {
@@ -155,11 +227,108 @@ const Chat: React.FC<ChatProps> = ({ currentUserId, currentUsername }) => {
       connectWebSocket();
 
       return () => {
-        webSocketService.disconnect();
+        webSocketService.removeMessageListener(handleNewMessage);
       };
     }
   }, [currentUserId]);
 
+  const advancePartnerReadSeq = useCallback((chatId: string, readSeq: number) => {
+    setPartnerReadSeqs(prev => {
+      if ((prev.get(chatId) ?? 0) >= readSeq) {
+        return prev;
+      }
+      return new Map(prev).set(chatId, readSeq);
+    });
+  }, []);
+
+  useEffect(() => {
+    return webSocketService.onReadReceipt(receipt => {
+      if (receipt.userId !== currentUserId) {
+        advancePartnerReadSeq(receipt.chatId, receipt.readSeq);
+      }
+    });
+  }, [currentUserId, advancePartnerReadSeq]);
+
+  useEffect(() => {
+    const unsubscribePresence = webSocketService.onPresence(event => {
+      setChats(prev => prev.map(chat =>
+        chat.otherUser.id === event.userId ? { ...chat, online: event.online } : chat
+      ));
+      setSelectedChat(prev =>
+        prev && prev.otherUser.id === event.userId ? { ...prev, online: event.online } : prev
+      );
+    });
+    const unsubscribeTyping = webSocketService.onTyping(event => {
+      if (event.userId === currentUserId) {
+        return;
+      }
+      setTypingChatIds(prev => {
+        if (prev.has(event.chatId) === event.typing) {
+          return prev;
+        }
+        const next = new Set(prev);
+        if (event.typing) {
+          next.add(event.chatId);
+        } else {
+          next.delete(event.chatId);
+        }
+        return next;
+      });
+    });
+    return () => {
+      unsubscribePresence();
+      unsubscribeTyping();
+    };
+  }, [currentUserId]);
+
+  // Missed messages and receipts arrive through the usual listeners; only what they cannot express is handled here.
+  useEffect(() => {
+    return webSocketService.onResync(result => {
+      if (result.resetRequired || result.messages.some(message => !chatsRef.current.some(chat => chat.id === message.chatId))) {
+        setMessageCache(new Map());
+        loadChats();
+        return;
+      }
+      const deletedIds = new Set(result.deleted.filter(entry => entry.type === 'message').map(entry => entry.id));
+      if (deletedIds.size > 0) {
+        setMessages(prev => prev.filter(message => !deletedIds.has(message.id)));
+        setMessageCache(prev => new Map(Array.from(prev, ([chatId, cached]) =>
+          [chatId, cached.filter(message => !deletedIds.has(message.id))] as [string, Message[]])));
+      }
+    });
+  }, []);
+
+  const stopTyping = useCallback(() => {
+    const state = ownTyping.current;
+    if (state.idleTimer) {
+      clearTimeout(state.idleTimer);
+      state.idleTimer = null;
+    }
+    if (state.chatId) {
+      webSocketService.sendTyping(state.chatId, false);
+      state.chatId = null;
+    }
+  }, []);
+
+  const notifyTyping = useCallback((chatId: string) => {
+    const state = ownTyping.current;
+    if (state.chatId !== chatId) {
+      stopTyping();
+    }
+    const now = Date.now();
+    if (state.chatId !== chatId || now - state.sentAt >= TYPING_REFRESH_MS) {
+      webSocketService.sendTyping(chatId, true);
+      state.chatId = chatId;
+      state.sentAt = now;
+    }
+    if (state.idleTimer) {
+      clearTimeout(state.idleTimer);
+    }
+    state.idleTimer = setTimeout(stopTyping, TYPING_IDLE_MS);
+  }, [stopTyping]);
+
+  useEffect(() => stopTyping, [stopTyping]);
+
   const handleNewMessage = (message: Message) => {
     setChats(prev => {
       const updatedChats = prev.map(chat => 
@@ -213,6 +382,10 @@ const Chat: React.FC<ChatProps> = ({ currentUserId, currentUsername }) => {
     currentMessagesRef.current = messages;
   }, [messages]);
 
+  useEffect(() => {
+    chatsRef.current = chats;
+  }, [chats]);
+
   useEffect(() => {
     if (messages.length > 0 && autoScroll && isAtBottom) {
       const start = Math.max(0, messages.length - 50);
@@ -307,6 +480,7 @@ const Chat: React.FC<ChatProps> = ({ currentUserId, currentUsername }) => {
     try {
       const chatMessages = await chatService.getChatMessages(chatId, pageNumber, 20);
       const newMessages = chatMessages.content.reverse();
+      advancePartnerReadSeq(chatId, chatMessages.partnerReadSeq ?? 0);
       
       console.log(`Loading page ${pageNumber}, got ${newMessages.length} messages, last: ${chatMessages.last}`);
       
@@ -364,6 +538,7 @@ const Chat: React.FC<ChatProps> = ({ currentUserId, currentUsername }) => {
       if (!append) {
         const fallbackData = await chatService.getChatMessages(chatId, 0, 50);
         const fallbackMessages = fallbackData.content.reverse();
+        advancePartnerReadSeq(chatId, fallbackData.partnerReadSeq ?? 0);
         setMessages(fallbackMessages);
         setMessageCache(cache => new Map(cache.set(chatId, fallbackMessages)));
         setIsAtBottom(true);
@@ -382,11 +557,12 @@ const Chat: React.FC<ChatProps> = ({ currentUserId, currentUsername }) => {
         setMessagesLoading(false);
       }
     }
-  }, [messagesLoading, loadingMore, messageCache, setChats]);
+  }, [messagesLoading, loadingMore, messageCache, setChats, advancePartnerReadSeq]);
 
 
 
   const handleChatSelect = useCallback(async (chat: ChatListItem) => {
+    stopTyping();
     setSelectedChat(chat);
     setMessages([]);
     setPage(0);
@@ -419,7 +595,7 @@ const Chat: React.FC<ChatProps> = ({ currentUserId, currentUsername }) => {
         console.error('Failed to fetch user data:', error);
       }
     }
-  }, [loadMessages, userDataCache]);
+  }, [loadMessages, userDataCache, stopTyping]);
 
   const loadMoreMessages = useCallback(() => {
     if (selectedChat && hasMoreMessages && !loadingMore) {
@@ -472,38 +648,86 @@ const Chat: React.FC<ChatProps> = ({ currentUserId, currentUsername }) => {
   const handleSendMessage = async () => {
     if (!newMessage.trim() || !selectedChat) return;
 
+    const content = newMessage.trim();
+    stopTyping();
+    // Sending the same text again after a failure reuses its id, so a send that did land is not stored twice.
+    if (!pendingSend.current || pendingSend.current.chatId !== selectedChat.id || pendingSend.current.content !== content) {
+      pendingSend.current = { chatId: selectedChat.id, content, clientMessageId: newClientMessageId() };
+    }
+
     try {
-      const message = await chatService.sendMessage(selectedChat.id, newMessage.trim());
-      
-      setMessages(prev => {
-        const updated = [...prev, message];
-        setMessageCache(cache => new Map(cache.set(selectedChat.id, updated)));
-        return updated;
-      });
+      const message = await chatService.sendMessage(selectedChat.id, content, 'TEXT', undefined, pendingSend.current.clientMessageId);
+      pendingSend.current = null;
+      appendSentMessage(selectedChat.id, message);
       setNewMessage('');
-      setAutoScroll(true);
-      setIsAtBottom(true);
-      
-      setTimeout(() => {
-        if (messagesContainerRef.current) {
-          messagesContainerRef.current.scrollTop = messagesContainerRef.current.scrollHeight;
-        }
-      }, 100);
-
-      setChats(prev => prev.map(chat => 
-        chat.id === selectedChat.id 
-          ? { 
-              ...chat, 
-              lastMessage: message,
-              lastMessageTime: message.timestamp
-            }
-          : chat
-      ));
     } catch (error: any) {
       alert(`Failed to send message: ${error.response?.data || error.message || 'Unknown error'}`);
     }
   };
 
+  const appendSentMessage = (chatId: string, message: Message) => {
+    setMessages(prev => {
+      if (prev.some(m => m.id === message.id)) {
+        return prev;
+      }
+      const updated = [...prev, message];
+      setMessageCache(cache => new Map(cache.set(chatId, updated)));
+      return updated;
+    });
+    setAutoScroll(true);
+    setIsAtBottom(true);
+    
+    setTimeout(() => {
+      if (messagesContainerRef.current) {
+        messagesContainerRef.current.scrollTop = messagesContainerRef.current.scrollHeight;
+      }
+    }, 100);
+
+    setChats(prev => prev.map(chat => 
+      chat.id === chatId 
+        ? { 
+            ...chat, 
+            lastMessage: message,
+            lastMessageTime: message.timestamp
+          }
+        : chat
+    ));
+  };
+
+  // The message text, if any, is sent as the attachment's caption.
+  const handleAttachFile = async (file: File) => {
+    if (!selectedChat || uploadProgress !== null) return;
+
+    const chatId = selectedChat.id;
+    const fileKey = `${file.name}:${file.size}:${file.lastModified}`;
+    // Picking the same file again after a failure resumes its upload and reuses its message id.
+    if (!pendingUpload.current || pendingUpload.current.chatId !== chatId || pendingUpload.current.fileKey !== fileKey) {
+      pendingUpload.current = { chatId, fileKey, clientMessageId: newClientMessageId() };
+    }
+    const pending = pendingUpload.current;
+    stopTyping();
+    setUploadProgress(0);
+
+    try {
+      const attachment = await chatService.uploadAttachment(
+        chatId,
+        file,
+        (received, total) => setUploadProgress(Math.round((received * 100) / total)),
+        pending.attachmentId,
+        attachmentId => { pending.attachmentId = attachmentId; }
+      );
+      const type = file.type.startsWith('image/') ? 'IMAGE' : 'FILE';
+      const message = await chatService.sendMessage(chatId, newMessage, type, attachment.id, pending.clientMessageId);
+      pendingUpload.current = null;
+      appendSentMessage(chatId, message);
+      setNewMessage('');
+    } catch (error: any) {
+      alert(`Failed to send attachment: ${error.response?.data || error.message || 'Unknown error'}`);
+    } finally {
+      setUploadProgress(null);
+    }
+  };
+
   const handleKeyPress = (e: React.KeyboardEvent) => {
     if (e.key === 'Enter' && !e.shiftKey) {
       e.preventDefault();
@@ -538,6 +762,8 @@ const Chat: React.FC<ChatProps> = ({ currentUserId, currentUsername }) => {
     return visibleRange.start * 80;
   }, [visibleRange.start, loadingMore, messages.length]);
 
+  const selectedPartnerReadSeq = selectedChat ? partnerReadSeqs.get(selectedChat.id) ?? 0 : 0;
+
   const formatMessageTime = useCallback((timestamp: string) => {
     return format(new Date(timestamp), 'HH:mm');
   }, []);
@@ -766,7 +992,7 @@ const Chat: React.FC<ChatProps> = ({ currentUserId, currentUsername }) => {
                               mt: 0.5,
                               opacity: 0.8
                             }}>
-                              {chat.lastMessage?.content || 'No messages yet'}
+                              {typingChatIds.has(chat.id) ? 'typing…' : chat.lastMessage?.content || 'No messages yet'}
                             </Typography>
                           }
                         />
@@ -812,7 +1038,10 @@ const Chat: React.FC<ChatProps> = ({ currentUserId, currentUsername }) => {
                   transform: 'scale(1.1)'
                 }
               }}
-              onClick={() => setSelectedChat(null)}
+              onClick={() => {
+                stopTyping();
+                setSelectedChat(null);
+              }}
             >
               <ArrowBackIcon sx={{ color: 'primary.main' }} />
             </IconButton>
@@ -846,7 +1075,7 @@ const Chat: React.FC<ChatProps> = ({ currentUserId, currentUsername }) => {
                 color: 'text.secondary',
                 opacity: 0.7
               }}>
-                Online
+                {typingChatIds.has(selectedChat.id) ? 'typing…' : selectedChat.online ? 'Online' : 'Offline'}
               </Typography>
             </Box>
             <IconButton sx={{
@@ -903,6 +1132,7 @@ const Chat: React.FC<ChatProps> = ({ currentUserId, currentUsername }) => {
                     key={message.id}
                     message={message}
                     isOwnMessage={message.senderId === currentUserId}
+                    isRead={message.seq != null && message.seq <= selectedPartnerReadSeq}
                     formatMessageTime={formatMessageTime}
                     theme={theme}
                   />
@@ -924,6 +1154,7 @@ const Chat: React.FC<ChatProps> = ({ currentUserId, currentUsername }) => {
                         key={message.id}
                         message={message}
                         isOwnMessage={message.senderId === currentUserId}
+                        isRead={message.seq != null && message.seq <= selectedPartnerReadSeq}
                         formatMessageTime={formatMessageTime}
                         theme={theme}
                       />
@@ -947,7 +1178,14 @@ const Chat: React.FC<ChatProps> = ({ currentUserId, currentUsername }) => {
               maxRows={4}
               placeholder="Type a message..."
               value={newMessage}
-              onChange={(e) => setNewMessage(e.target.value)}
+              onChange={(e) => {
+                setNewMessage(e.target.value);
+                if (e.target.value.trim()) {
+                  notifyTyping(selectedChat.id);
+                } else {
+                  stopTyping();
+                }
+              }}
               onKeyPress={handleKeyPress}
               sx={{
                 '& .MuiOutlinedInput-root': {
@@ -972,6 +1210,37 @@ const Chat: React.FC<ChatProps> = ({ currentUserId, currentUsername }) => {
                 }
               }}
               InputProps={{
+                startAdornment: (
+                  <InputAdornment position="start">
+                    <input
+                      ref={fileInputRef}
+                      type="file"
+                      hidden
+                      onChange={(e) => {
+                        const file = e.target.files?.[0];
+                        e.target.value = '';
+                        if (file) {
+                          handleAttachFile(file);
+                        }
+                      }}
+                    />
+                    {uploadProgress !== null ? (
+                      <CircularProgress
+                        size={24}
+                        variant={uploadProgress > 0 ? 'determinate' : 'indeterminate'}
+                        value={uploadProgress}
+                        sx={{ color: 'primary.main' }}
+                      />
+                    ) : (
+                      <IconButton
+                        onClick={() => fileInputRef.current?.click()}
+                        sx={{ color: 'primary.main' }}
+                      >
+                        <AttachFileIcon sx={{ fontSize: 20 }} />
+                      </IconButton>
+                    )}
+                  </InputAdornment>
+                ),
                 endAdornment: (
                   <InputAdornment position="end">
                     <IconButton 
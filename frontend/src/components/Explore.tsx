@@ -2,7 +2,7 @@ import React, { useState, useEffect, useCallback } from 'react';
 import { useNavigate } from 'react-router-dom';
 import { userService, postService } from '../services/api';
 import { useAuth } from '../contexts/AuthContext';
-import { User, Post as PostType } from '../types';
+import { User, Post as PostType, PostViewerState } from '../types';
 import Post from './Post';
 import { Box, Typography, CircularProgress, Paper, TextField, InputAdornment, IconButton, List, ListItem, ListItemAvatar, Avatar, ListItemText, Button } from '@mui/material';
 import { useTheme } from '@mui/material/styles';
@@ -19,6 +19,7 @@ const Explore: React.FC = () => {
     const [searchError, setSearchError] = useState<string | null>(null);
     const [followingIds, setFollowingIds] = useState<Set<string>>(new Set());
     const [posts, setPosts] = useState<PostType[]>([]);
+    const [viewerStates, setViewerStates] = useState<Record<string, PostViewerState>>({});
     const [postsLoading, setPostsLoading] = useState(true);
     const [loadingMore, setLoadingMore] = useState(false);
     const [postsError, setPostsError] = useState<string | null>(null);
@@ -43,6 +44,8 @@ const Explore: React.FC = () => {
             const startIndex = page * POSTS_PER_PAGE;
             const endIndex = startIndex + POSTS_PER_PAGE;
             const newPosts = allPosts.slice(startIndex, endIndex);
+            const states = await postService.getViewerStates(newPosts.map(post => post.id)).catch(() => ({}));
+            setViewerStates(prev => (reset ? states : { ...prev, ...states }));
             
             if (reset) {
                 setPosts(newPosts);
@@ -457,7 +460,7 @@ const Explore: React.FC = () => {
                                         }
                                     }}
                                 >
-                                    <Post post={post} />
+                                    <Post post={post} viewerState={viewerStates[post.id]} />
                                 </Box>
                             ))}
                             
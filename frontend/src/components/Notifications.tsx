@@ -4,7 +4,7 @@ import { format } from 'date-fns';
 import { useAuth } from '../contexts/AuthContext';
 import { useTheme } from '@mui/material/styles';
 import { Avatar, Button, CircularProgress } from '@mui/material';
-import { notificationService, userService } from '../services/api';
+import { notificationService } from '../services/api';
 import {
     Favorite as LikeIcon,
     Comment as CommentIcon,
@@ -20,37 +20,39 @@ interface Notification {
     id: string;
     type: 'LIKE' | 'COMMENT' | 'FOLLOW' | 'FRIEND_COMMENT' | 'NEW_POST';
     sourceUserId: string;
+    sourceUser?: {
+        id: string;
+        username: string;
+        profilePicture: string | null;
+    };
     postId?: string;
+    post?: {
+        id: string;
+        userId: string;
+        content: string;
+    } | null;
     content: string;
     read: boolean;
+    actorCount?: number;
     createdAt: string;
 }
 
-interface NotificationWithUserData extends Notification {
-    sourceUsername?: string;
-    sourceUserProfilePicture?: {
-        type: string;
-        data: string;
-    };
-}
-
 const NOTIFICATIONS_PER_PAGE = 10;
 
 const Notifications: React.FC = () => {
-    const [notifications, setNotifications] = useState<NotificationWithUserData[]>([]);
+    const [notifications, setNotifications] = useState<Notification[]>([]);
     const [loading, setLoading] = useState(true);
     const [loadingMore, setLoadingMore] = useState(false);
     const [error, setError] = useState<string | null>(null);
     const [hasMore, setHasMore] = useState(true);
-    const [currentPage, setCurrentPage] = useState(0);
-    const [totalPages, setTotalPages] = useState(0);
+    const [nextCursor, setNextCursor] = useState<string | null>(null);
     const [hoveredNotification, setHoveredNotification] = useState<string | null>(null);
     const navigate = useNavigate();
     const { user } = useAuth();
     const theme = useTheme();
     const userId = user?.id;
 
-    const fetchNotificationsPage = useCallback(async (page: number, isLoadMore: boolean = false) => {
+    const fetchNotificationsPage = useCallback(async (cursor: string | null, isLoadMore: boolean = false) => {
         if (!userId) return;
 
         try {
@@ -59,37 +61,16 @@ const Notifications: React.FC = () => {
             
             setError(null);
             
-            const paginatedData = await notificationService.getUserNotificationsPaginated(userId, page, NOTIFICATIONS_PER_PAGE);
-            
-            const notificationsWithUserData = await Promise.all(
-                paginatedData.content.map(async (notification) => {
-                    try {
-                        const sourceUser = await userService.getUserById(notification.sourceUserId);
-                        return {
-                            ...notification,
-                            sourceUsername: sourceUser.username,
-                            sourceUserProfilePicture: sourceUser.profilePicture
-                        };
-                    } catch (error) {
-                        console.error(`Error fetching user for ID ${notification.sourceUserId}:`, error);
-                        return {
-                            ...notification,
-                            sourceUsername: notification.sourceUserId,
-                            sourceUserProfilePicture: undefined
-                        };
-                    }
-                })
-            );
+            const paginatedData = await notificationService.getUserNotifications(userId, cursor ?? undefined, NOTIFICATIONS_PER_PAGE);
 
             if (isLoadMore) {
-                setNotifications(prev => [...prev, ...notificationsWithUserData]);
+                setNotifications(prev => [...prev, ...paginatedData.content]);
             } else {
-                setNotifications(notificationsWithUserData);
+                setNotifications(paginatedData.content);
             }
             
-            setTotalPages(paginatedData.totalPages);
-            setHasMore(!paginatedData.last);
-            setCurrentPage(page);
+            setNextCursor(paginatedData.nextCursor);
+            setHasMore(paginatedData.nextCursor !== null);
             
         } catch (error: any) {
             console.error('Error fetching notifications:', error);
@@ -117,13 +98,13 @@ const Notifications: React.FC = () => {
 
     useEffect(() => {
         if (userId) {
-            fetchNotificationsPage(0);
+            fetchNotificationsPage(null);
         }
     }, [fetchNotificationsPage, userId]);
 
     const loadMore = () => {
-        if (hasMore && !loadingMore) {
-            fetchNotificationsPage(currentPage + 1, true);
+        if (hasMore && !loadingMore && nextCursor) {
+            fetchNotificationsPage(nextCursor, true);
         }
     };
 
@@ -140,7 +121,7 @@ const Notifications: React.FC = () => {
         }
     };
 
-    const handleNotificationClick = async (notification: NotificationWithUserData) => {
+    const handleNotificationClick = async (notification: Notification) => {
         if (!notification.read) {
             try {
                 await notificationService.markAsRead(notification.id);
@@ -166,8 +147,8 @@ const Notifications: React.FC = () => {
                 }
                 break;
             case 'FOLLOW':
-                if (notification.sourceUsername) {
-                    navigate(`/profile/${notification.sourceUsername}`);
+                if (notification.sourceUser?.username) {
+                    navigate(`/profile/${notification.sourceUser.username}`);
                 }
                 break;
             default:
@@ -194,12 +175,17 @@ const Notifications: React.FC = () => {
         }
     };
 
-    const getNotificationContent = (notification: NotificationWithUserData): string => {
-        const username = notification.sourceUsername || notification.sourceUserId;
+    const getNotificationContent = (notification: Notification): string => {
+        const username = notification.sourceUser?.username || notification.sourceUserId;
         
         switch (notification.type) {
-            case 'LIKE':
+            case 'LIKE': {
+                const others = (notification.actorCount || 1) - 1;
+                if (others > 0) {
+                    return `${username} and ${others} ${others === 1 ? 'other' : 'others'} liked your post`;
+                }
                 return `${username} liked your post`;
+            }
             case 'COMMENT':
                 return `${username} commented on your post`;
             case 'FOLLOW':
@@ -213,15 +199,16 @@ const Notifications: React.FC = () => {
         }
     };
 
-    const getUserAvatar = (notification: NotificationWithUserData) => {
-        const profilePicUrl = notification.sourceUserProfilePicture?.data 
-            ? `data:${notification.sourceUserProfilePicture.type};base64,${notification.sourceUserProfilePicture.data}`
+    const getUserAvatar = (notification: Notification) => {
+        const username = notification.sourceUser?.username;
+        const profilePicUrl = notification.sourceUser?.profilePicture
+            ? `http://localhost:8081${notification.sourceUser.profilePicture}`
             : undefined;
 
         return (
             <Avatar
                 src={profilePicUrl}
-                alt={notification.sourceUsername}
+                alt={username}
                 sx={{
                     width: 24,
                     height: 24,
@@ -231,12 +218,12 @@ const Notifications: React.FC = () => {
                     border: `1px solid ${theme.palette.mode === 'dark' ? '#606060' : '#d1d5db'}`,
                 }}
             >
-                {!profilePicUrl && notification.sourceUsername ? notification.sourceUsername[0].toUpperCase() : '?'}
+                {!profilePicUrl && username ? username[0].toUpperCase() : '?'}
             </Avatar>
         );
     };
 
-    const getNotificationCardStyle = (notification: NotificationWithUserData, isHovered: boolean) => ({
+    const getNotificationCardStyle = (notification: Notification, isHovered: boolean) => ({
         backgroundColor: !notification.read ? 
             (theme.palette.mode === 'dark' ? '#1e3a8a' : '#eff6ff') : 
             theme.palette.background.paper,
@@ -396,6 +383,11 @@ const Notifications: React.FC = () => {
                                             </div>
                                         )}
                                     </div>
+                                    {notification.post?.content && (
+                                        <p style={{ fontSize: '0.8125rem', color: theme.palette.text.secondary, marginTop: '4px', overflow: 'hidden', textOverflow: 'ellipsis', whiteSpace: 'nowrap' }}>
+                                            {notification.post.content}
+                                        </p>
+                                    )}
                                     <p style={{ fontSize: '0.75rem', color: theme.palette.text.secondary, marginTop: '4px' }}>
                                         {format(new Date(notification.createdAt), 'MMM d, yyyy h:mm a')}
                                     </p>
@@ -434,9 +426,6 @@ const Notifications: React.FC = () => {
                         fontSize: '0.875rem' 
                     }}>
                         Showing {notifications.length} notification{notifications.length !== 1 ? 's' : ''}
-                        {totalPages > 1 && (
-                            <span> • Page {currentPage + 1} of {totalPages}</span>
-                        )}
                     </div>
                 )}
             </div>
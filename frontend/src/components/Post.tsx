@@ -1,8 +1,8 @@
 import React, { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
 import { useAuth } from '../contexts/AuthContext';
-import { userService, likeService, commentService, roleService } from '../services/api';
-import { Post as PostType, User, Like, Comment, Role } from '../types';
+import { userService, likeService, commentService, roleService, postService } from '../services/api';
+import { Post as PostType, PostViewerState, User, Like, Comment, Role } from '../types';
 import {
     Box,
     Card,
@@ -47,6 +47,8 @@ import { useTheme } from '@mui/material/styles';
 
 interface PostProps {
     post: PostType;
+    // Lists pass the state fetched for the whole page; without it the post fetches its own.
+    viewerState?: PostViewerState;
 }
 
 const SlideTransition = React.forwardRef(function Transition(
@@ -141,13 +143,14 @@ const CommentActions: React.FC<CommentActionsProps> = ({
     );
 };
 
-const Post: React.FC<PostProps> = ({ post }) => {
+const Post: React.FC<PostProps> = ({ post, viewerState }) => {
     const navigate = useNavigate();
     const { user } = useAuth();
     const [postUser, setPostUser] = useState<User | null>(null);
     const [likes, setLikes] = useState<Like[]>([]);
     const [comments, setComments] = useState<Comment[]>([]);
     const [isLiked, setIsLiked] = useState(false);
+    const [likeCount, setLikeCount] = useState(post.likeCount ?? 0);
     const [commentDialogOpen, setCommentDialogOpen] = useState(false);
     const [newComment, setNewComment] = useState('');
     const [likesDialogOpen, setLikesDialogOpen] = useState(false);
@@ -167,9 +170,13 @@ const Post: React.FC<PostProps> = ({ post }) => {
                 const userData = await userService.getUserById(post.userId);
                 setPostUser(userData);
 
-                const likesData = await likeService.getLikesByPostId(post.id);
-                setLikes(likesData);
-                setIsLiked(likesData.some(like => like.userId === user?.id));
+                setLikeCount(post.likeCount ?? 0);
+                if (viewerState) {
+                    setIsLiked(viewerState.liked);
+                } else if (user) {
+                    const states = await postService.getViewerStates([post.id]);
+                    setIsLiked(states[post.id]?.liked ?? false);
+                }
 
                 const commentsData = await commentService.getCommentsByPostId(post.id);
                 setComments(commentsData);
@@ -179,17 +186,26 @@ const Post: React.FC<PostProps> = ({ post }) => {
         };
 
         fetchData();
-    }, [post.id, post.userId, user?.id]);
+    }, [post.id, post.userId, post.likeCount, user?.id, viewerState]);
+
+    // The likes themselves are only needed to unlike or to list who liked, so they load on demand.
+    const loadLikes = async (): Promise<Like[]> => {
+        const likesData = await likeService.getLikesByPostId(post.id);
+        setLikes(likesData);
+        return likesData;
+    };
 
     const handleLike = async () => {
         if (!user) return;
 
         try {
             if (isLiked) {
-                const like = likes.find(l => l.userId === user.id);
+                const current = await loadLikes();
+                const like = current.find(l => l.userId === user.id);
                 if (like) {
                     await likeService.removeLike(like.id);
-                    setLikes(likes.filter(l => l.id !== like.id));
+                    setLikes(current.filter(l => l.id !== like.id));
+                    setLikeCount(count => Math.max(0, count - 1));
                 }
             } else {
                 const newLike = await likeService.addLike({
@@ -197,6 +213,7 @@ const Post: React.FC<PostProps> = ({ post }) => {
                     userId: user.id,
                 });
                 setLikes([...likes, newLike]);
+                setLikeCount(count => count + 1);
             }
             setIsLiked(!isLiked);
         } catch (error) {
@@ -224,8 +241,9 @@ const Post: React.FC<PostProps> = ({ post }) => {
         setLikesDialogOpen(true);
         setLoadingLikes(true);
         try {
+            const current = await loadLikes();
             const users = await Promise.all(
-                likes.map(async (like) => {
+                current.map(async (like) => {
                     try {
                         return await userService.getUserById(like.userId);
                     } catch {
@@ -462,7 +480,7 @@ const Post: React.FC<PostProps> = ({ post }) => {
                             }}
                             onClick={handleOpenLikesDialog}
                         >
-                            {likes.length}
+                            {likeCount}
                         </Typography>
                     </Box>
                     
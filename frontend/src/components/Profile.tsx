@@ -3,7 +3,7 @@ import { useParams, useNavigate } from 'react-router-dom';
 import { useAuth } from '../contexts/AuthContext';
 import { userService, postService } from '../services/api';
 import { chatService } from '../services/chatService';
-import { User, Post as PostType } from '../types';
+import { User, Post as PostType, PostViewerState } from '../types';
 import {
     Box,
     Typography,
@@ -39,6 +39,7 @@ const Profile: React.FC = () => {
     const { user: currentUser, setUser } = useAuth();
     const [profileUser, setProfileUser] = useState<User | null>(null);
     const [posts, setPosts] = useState<PostType[]>([]);
+    const [viewerStates, setViewerStates] = useState<Record<string, PostViewerState>>({});
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState<string | null>(null);
     const [editDialogOpen, setEditDialogOpen] = useState(false);
@@ -79,6 +80,9 @@ const Profile: React.FC = () => {
                 setProfileUser(updatedUserData);
                 
                 const postsData = await postService.getPostsByUserId(userData.id);
+                if (currentUser) {
+                    setViewerStates(await postService.getViewerStates(postsData.map(post => post.id)).catch(() => ({})));
+                }
                 setPosts(postsData.sort((a, b) => new Date(b.createdAt).getTime() - new Date(a.createdAt).getTime()));
                 setError(null);
                 if (currentUser && userData.id !== currentUser.id) {
@@ -354,7 +358,7 @@ const Profile: React.FC = () => {
             ) : (
                 <Suspense fallback={<LoadingFallback />}>
                     {posts.map((post) => (
-                        <Post key={post.id} post={post} />
+                        <Post key={post.id} post={post} viewerState={viewerStates[post.id]} />
                     ))}
                 </Suspense>
             )}
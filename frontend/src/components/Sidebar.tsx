@@ -3,6 +3,7 @@ import { useNavigate, useLocation } from 'react-router-dom';
 import { useAuth } from '../contexts/AuthContext';
 import { notificationService } from '../services/api';
 import { chatService } from '../services/chatService';
+import { webSocketService } from '../services/websocketService';
 import {
     Home as HomeIcon,
     Explore as ExploreIcon,
@@ -43,11 +44,29 @@ const Sidebar: React.FC = () => {
         if (userId) {
             fetchUnreadCount();
             fetchUnreadMessagesCount();
+            const unsubscribe = webSocketService.onNotification(event => setUnreadCount(event.unreadCount));
+            // After a reconnect only the counts the missed changes touch are fetched again.
+            const unsubscribeResync = webSocketService.onResync(result => {
+                if (result.resetRequired || result.notifications.length > 0
+                    || result.readNotificationIds.length > 0 || result.allNotificationsRead) {
+                    fetchUnreadCount();
+                }
+                if (result.resetRequired || result.messages.length > 0 || result.readReceipts.length > 0) {
+                    fetchUnreadMessagesCount();
+                }
+            });
+            webSocketService.connect(userId).catch(() => {});
             const interval = setInterval(() => {
-                fetchUnreadCount();
+                if (!webSocketService.isConnected()) {
+                    fetchUnreadCount();
+                }
                 fetchUnreadMessagesCount();
             }, 30000);
-            return () => clearInterval(interval);
+            return () => {
+                unsubscribe();
+                unsubscribeResync();
+                clearInterval(interval);
+            };
         }
     }, [userId]);
 
@@ -1,7 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { Box, Typography, TextField, Avatar, Button, List, ListItem, ListItemAvatar, ListItemText, CircularProgress, InputAdornment, IconButton, Paper, Chip } from '@mui/material';
 import { postService, userService } from '../services/api';
-import { Post as PostType, User } from '../types';
+import { Post as PostType, PostViewerState, User } from '../types';
 import Post from './Post';
 import TweetBox from './TweetBox';
 import { useAuth } from '../contexts/AuthContext';
@@ -12,6 +12,7 @@ import { useTheme } from '@mui/material/styles';
 
 const Timeline: React.FC = () => {
     const [posts, setPosts] = useState<PostType[]>([]);
+    const [viewerStates, setViewerStates] = useState<Record<string, PostViewerState>>({});
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState<string | null>(null);
     const [following, setFollowing] = useState<User[]>([]);
@@ -35,8 +36,17 @@ const Timeline: React.FC = () => {
                 const data = await postService.getAllPosts();
                 const filtered = data.filter(post => allowedUserIds.has(post.userId));
                 filtered.sort((a, b) => new Date(b.createdAt).getTime() - new Date(a.createdAt).getTime());
+                // One batched lookup for the page instead of every post fetching its own likes.
+                const states = await postService.getViewerStates(filtered.map(post => post.id)).catch(err => {
+                    console.error('Error fetching post viewer state:', err);
+                    return {} as Record<string, PostViewerState>;
+                });
+                setViewerStates(states);
                 setPosts(filtered);
                 setError(null);
+                postService.recordViews(filtered.map(post => post.id)).catch(err => {
+                    console.error('Error recording post views:', err);
+                });
             } catch (err) {
                 setError('Failed to load posts');
                 console.error('Error fetching posts:', err);
@@ -389,7 +399,7 @@ const Timeline: React.FC = () => {
                                 }
                             }}
                         >
-                            <Post post={post} />
+                            <Post post={post} viewerState={viewerStates[post.id]} />
                         </Box>
                     ))}
                 </Box>
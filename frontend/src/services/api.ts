@@ -1,16 +1,32 @@
 import axios from 'axios';
-import { LoginCredentials, LoginResponse, RegisterCredentials, Post, Comment, Like, User, Role } from '../types';
+import { LoginCredentials, LoginResponse, RegisterCredentials, Post, PostViewerState, Comment, Like, User, Role } from '../types';
 
 interface Notification {
     id: string;
     type: 'LIKE' | 'COMMENT' | 'FOLLOW' | 'FRIEND_COMMENT' | 'NEW_POST';
     sourceUserId: string;
+    sourceUser?: {
+        id: string;
+        username: string;
+        profilePicture: string | null;
+    };
     postId?: string;
+    post?: {
+        id: string;
+        userId: string;
+        content: string;
+    } | null;
     content: string;
     read: boolean;
+    actorCount?: number;
     createdAt: string; 
 }
 
+interface NotificationPage {
+    content: Notification[];
+    nextCursor: string | null;
+}
+
 interface PaginatedNotifications {
     content: Notification[];
     totalElements: number;
@@ -117,6 +133,27 @@ export const postService = {
         const response = await api.post<Post>('/posts', formData);
         return response.data;
     },
+
+    // Whether the current user liked or bookmarked each post, for a whole page at once.
+    getViewerStates: async (postIds: string[]): Promise<Record<string, PostViewerState>> => {
+        const states: Record<string, PostViewerState> = {};
+        for (let i = 0; i < postIds.length; i += 100) {
+            const response = await api.post<Record<string, PostViewerState>>('/posts/viewer-state', postIds.slice(i, i + 100));
+            Object.assign(states, response.data);
+        }
+        return states;
+    },
+
+    recordViews: async (postIds: string[]): Promise<void> => {
+        for (let i = 0; i < postIds.length; i += 100) {
+            await api.post('/posts/views', postIds.slice(i, i + 100));
+        }
+    },
+
+    getUniqueViewers: async (postId: string): Promise<number> => {
+        const response = await api.get<{ uniqueViewers: number }>(`/posts/${postId}/views`);
+        return response.data.uniqueViewers;
+    },
 };
 
 export const commentService = {
@@ -207,8 +244,10 @@ export const userService = {
 };
 
 export const notificationService = {
-    getUserNotifications: async (userId: string): Promise<Notification[]> => {
-        const response = await api.get<Notification[]>(`/likes/notifications/user/${userId}`);
+    getUserNotifications: async (userId: string, cursor?: string, size: number = 20): Promise<NotificationPage> => {
+        const response = await api.get<NotificationPage>(`/likes/notifications/user/${userId}`, {
+            params: { cursor, size }
+        });
         return response.data;
     },
 
@@ -9,10 +9,12 @@ const getAuthToken = (): string | null => {
 export interface Message {
   id: string;
   chatId: string;
+  seq?: number;
   senderId: string;
   senderUsername?: string;
   content: string;
   type: 'TEXT' | 'IMAGE' | 'FILE';
+  attachmentId?: string;
   timestamp: string;
   isRead: boolean;
 }
@@ -27,8 +29,28 @@ export interface ChatListItem {
   lastMessage?: Message;
   lastMessageTime?: string;
   unreadCount: number;
+  online?: boolean;
 }
 
+export interface Attachment {
+  id: string;
+  chatId: string;
+  fileName: string;
+  contentType: string;
+  size: number;
+  chunkSize: number;
+  chunkCount: number;
+  receivedChunks: number[];
+  status: 'UPLOADING' | 'COMPLETE';
+}
+
+const toHex = (buffer: ArrayBuffer): string =>
+  Array.from(new Uint8Array(buffer)).map(b => b.toString(16).padStart(2, '0')).join('');
+
+// ObjectId-shaped id; resending a message with the same id cannot store it twice.
+export const newClientMessageId = (): string =>
+  Math.floor(Date.now() / 1000).toString(16).padStart(8, '0') + toHex(crypto.getRandomValues(new Uint8Array(8)).buffer);
+
 export interface ChatMessagesResponse {
   content: Message[];
   pageable: {
@@ -39,6 +61,7 @@ export interface ChatMessagesResponse {
   totalPages: number;
   last: boolean;
   first: boolean;
+  partnerReadSeq?: number;
 }
 
 class ChatServiceClass {
@@ -113,11 +136,15 @@ class ChatServiceClass {
      async sendMessage(
      chatId: string, 
      content: string, 
-     type: 'TEXT' | 'IMAGE' | 'FILE' = 'TEXT'
+     type: 'TEXT' | 'IMAGE' | 'FILE' = 'TEXT',
+     attachmentId?: string,
+     clientMessageId: string = newClientMessageId()
    ): Promise<Message> {
      const requestData = {
        content: content.trim(),
-       type
+       type,
+       attachmentId,
+       clientMessageId
      };
 
      const response = await axios.post(
@@ -134,6 +161,56 @@ class ChatServiceClass {
      return response.data as Message;
    }
 
+  // Uploads in chunks; pass the id of an earlier attempt (reported through onStarted) to resume it.
+  async uploadAttachment(
+    chatId: string,
+    file: File,
+    onProgress?: (received: number, total: number) => void,
+    resumeId?: string,
+    onStarted?: (attachmentId: string) => void
+  ): Promise<Attachment> {
+    const headers = { 'Authorization': `Bearer ${getAuthToken()}` };
+    const attachment: Attachment = resumeId
+      ? (await axios.get(`${API_BASE_URL}/chat/attachments/${resumeId}/status`, { headers })).data
+      : (await axios.post(
+          `${API_BASE_URL}/chat/${chatId}/attachments`,
+          { fileName: file.name, contentType: file.type, size: file.size },
+          { headers }
+        )).data;
+
+    onStarted?.(attachment.id);
+
+    const received = new Set(attachment.receivedChunks);
+    for (let index = 0; index < attachment.chunkCount; index++) {
+      if (received.has(index)) {
+        continue;
+      }
+      const chunk = await file.slice(index * attachment.chunkSize, (index + 1) * attachment.chunkSize).arrayBuffer();
+      const sha256 = toHex(await crypto.subtle.digest('SHA-256', chunk));
+      await axios.put(
+        `${API_BASE_URL}/chat/attachments/${attachment.id}/chunks/${index}`,
+        chunk,
+        { headers: { ...headers, 'Content-Type': 'application/octet-stream', 'X-Chunk-Sha256': sha256 } }
+      );
+      received.add(index);
+      onProgress?.(received.size, attachment.chunkCount);
+    }
+
+    const response = await axios.post(`${API_BASE_URL}/chat/attachments/${attachment.id}/complete`, {}, { headers });
+    return response.data as Attachment;
+  }
+
+  // Downloads need the Bearer header, so attachments are fetched as blobs rather than linked directly.
+  async downloadAttachment(attachmentId: string): Promise<Blob> {
+    const response = await axios.get(`${API_BASE_URL}/chat/attachments/${attachmentId}`, {
+      headers: {
+        'Authorization': `Bearer ${getAuthToken()}`
+      },
+      responseType: 'blob'
+    });
+    return response.data as Blob;
+  }
+
   async markAsRead(chatId: string): Promise<void> {
     await axios.put(
       `${API_BASE_URL}/chat/${chatId}/read`,
@@ -2,12 +2,68 @@ import { Stomp, CompatClient } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
 import { Message } from './chatService';
 
+export interface NotificationEvent {
+  type: 'notification' | 'unread';
+  notification?: any;
+  unreadCount: number;
+}
+
+export interface ReadReceipt {
+  type: 'read_receipt';
+  chatId: string;
+  userId: string;
+  readSeq: number;
+  readAt: string;
+}
+
+export interface PresenceEvent {
+  type: 'presence';
+  userId: string;
+  online: boolean;
+  lastSeen?: string;
+}
+
+export interface TypingEvent {
+  type: 'typing';
+  chatId: string;
+  userId: string;
+  typing: boolean;
+}
+
+export interface SyncResult {
+  token: string;
+  resetRequired: boolean;
+  messages: Message[];
+  readReceipts: ReadReceipt[];
+  notifications: any[];
+  readNotificationIds: string[];
+  allNotificationsRead: boolean;
+  deleted: { type: string; id: string; chatId: string }[];
+}
+
+const RECONNECT_DELAY_MS = 5000;
+const DELIVERED_IDS_KEPT = 1000;
+
 class WebSocketService {
   private stompClient: CompatClient | null = null;
   private connected: boolean = false;
   private connecting: boolean = false;
+  private heartbeatTimer: ReturnType<typeof setInterval> | null = null;
+  private messageListeners = new Set<(message: Message) => void>();
+  private notificationListeners = new Set<(event: NotificationEvent) => void>();
+  private readReceiptListeners = new Set<(receipt: ReadReceipt) => void>();
+  private presenceListeners = new Set<(event: PresenceEvent) => void>();
+  private typingListeners = new Set<(event: TypingEvent) => void>();
+  private resyncListeners = new Set<(result: SyncResult) => void>();
+  private syncToken: string | null = null;
+  private syncUserId: string | null = null;
+  private deliveredMessageIds = new Set<string>();
+
+  async connect(userId: string, onMessageReceived?: (message: Message) => void): Promise<void> {
+    if (onMessageReceived) {
+      this.messageListeners.add(onMessageReceived);
+    }
 
-  async connect(userId: string, onMessageReceived: (message: Message) => void): Promise<void> {
     if (this.connecting) {
       return;
     }
@@ -25,8 +81,9 @@ class WebSocketService {
 
       await this.checkBackendHealth();
 
-      const socket = new SockJS('http://localhost:8081/ws');
-      this.stompClient = Stomp.over(socket);
+      // A socket factory lets the client reconnect on its own after the connection drops.
+      this.stompClient = Stomp.over(() => new SockJS('http://localhost:8081/ws'));
+      this.stompClient.reconnectDelay = RECONNECT_DELAY_MS;
 
       this.stompClient.debug = () => {};
 
@@ -55,15 +112,48 @@ class WebSocketService {
 
                   const receivedMessage: Message = JSON.parse(message.body);
                   
-                  if (onMessageReceived) {
-                    onMessageReceived(receivedMessage);
-                  }
+                  this.deliverMessage(receivedMessage);
                 } catch (error) {
                 }
               });
             });
 
+            this.stompClient!.subscribe('/user/queue/notifications', (message) => {
+              try {
+                const event: NotificationEvent = JSON.parse(message.body);
+                this.notificationListeners.forEach(listener => listener(event));
+              } catch (error) {
+              }
+            });
+
+            this.stompClient!.subscribe('/user/queue/read-receipts', (message) => {
+              try {
+                const receipt: ReadReceipt = JSON.parse(message.body);
+                this.readReceiptListeners.forEach(listener => listener(receipt));
+              } catch (error) {
+              }
+            });
+
+            this.stompClient!.subscribe('/user/queue/presence', (message) => {
+              try {
+                const event: PresenceEvent = JSON.parse(message.body);
+                this.presenceListeners.forEach(listener => listener(event));
+              } catch (error) {
+              }
+            });
+
+            this.stompClient!.subscribe('/user/queue/typing', (message) => {
+              try {
+                const event: TypingEvent = JSON.parse(message.body);
+                this.typingListeners.forEach(listener => listener(event));
+              } catch (error) {
+              }
+            });
+
+            this.startHeartbeat();
             resolve();
+            // Runs on the first connect and again after every reconnect.
+            this.resync(userId);
           },
           (error: any) => {
             this.connected = false;
@@ -73,10 +163,16 @@ class WebSocketService {
         );
 
         this.stompClient!.onDisconnect = () => {
+          this.stopHeartbeat();
           this.connected = false;
           this.connecting = false;
         };
 
+        this.stompClient!.onWebSocketClose = () => {
+          this.stopHeartbeat();
+          this.connected = false;
+        };
+
         this.stompClient!.onStompError = (frame) => {
           this.connected = false;
           this.connecting = false;
@@ -92,6 +188,7 @@ class WebSocketService {
   }
 
   disconnect(): void {
+    this.stopHeartbeat();
     if (this.stompClient) {
       this.stompClient.disconnect();
       this.stompClient = null;
@@ -100,6 +197,111 @@ class WebSocketService {
     }
   }
 
+  removeMessageListener(listener: (message: Message) => void): void {
+    this.messageListeners.delete(listener);
+  }
+
+  onNotification(listener: (event: NotificationEvent) => void): () => void {
+    this.notificationListeners.add(listener);
+    return () => {
+      this.notificationListeners.delete(listener);
+    };
+  }
+
+  onReadReceipt(listener: (receipt: ReadReceipt) => void): () => void {
+    this.readReceiptListeners.add(listener);
+    return () => {
+      this.readReceiptListeners.delete(listener);
+    };
+  }
+
+  onResync(listener: (result: SyncResult) => void): () => void {
+    this.resyncListeners.add(listener);
+    return () => {
+      this.resyncListeners.delete(listener);
+    };
+  }
+
+  onPresence(listener: (event: PresenceEvent) => void): () => void {
+    this.presenceListeners.add(listener);
+    return () => {
+      this.presenceListeners.delete(listener);
+    };
+  }
+
+  onTyping(listener: (event: TypingEvent) => void): () => void {
+    this.typingListeners.add(listener);
+    return () => {
+      this.typingListeners.delete(listener);
+    };
+  }
+
+  sendTyping(chatId: string, typing: boolean): void {
+    if (this.stompClient && this.connected) {
+      this.stompClient.send('/app/chat.typing', {}, JSON.stringify({ chatId, typing }));
+    }
+  }
+
+  private deliverMessage(message: Message): void {
+    this.deliveredMessageIds.delete(message.id);
+    this.deliveredMessageIds.add(message.id);
+    if (this.deliveredMessageIds.size > DELIVERED_IDS_KEPT) {
+      this.deliveredMessageIds.delete(this.deliveredMessageIds.values().next().value as string);
+    }
+    this.messageListeners.forEach(listener => listener(message));
+  }
+
+  // Catches up on what changed while the socket was down instead of reloading every view. The first
+  // sync only takes a token, since the views have just loaded; a reset asks them to reload.
+  private async resync(userId: string): Promise<void> {
+    if (this.syncUserId !== userId) {
+      this.syncUserId = userId;
+      this.syncToken = null;
+    }
+    try {
+      const since = this.syncToken ? `?since=${encodeURIComponent(this.syncToken)}` : '';
+      const response = await fetch(`http://localhost:8081/sync${since}`, {
+        headers: {
+          'Authorization': `Bearer ${localStorage.getItem('token')}`
+        }
+      });
+      if (!response.ok) {
+        return;
+      }
+      const result: SyncResult = await response.json();
+      const firstSync = this.syncToken === null;
+      this.syncToken = result.token;
+      if (firstSync) {
+        return;
+      }
+      result.messages
+        .filter(message => !this.deliveredMessageIds.has(message.id))
+        .forEach(message => this.deliverMessage(message));
+      result.readReceipts.forEach(receipt => {
+        const event: ReadReceipt = { ...receipt, type: 'read_receipt' };
+        this.readReceiptListeners.forEach(listener => listener(event));
+      });
+      this.resyncListeners.forEach(listener => listener(result));
+    } catch (error) {
+    }
+  }
+
+  private startHeartbeat(): void {
+    this.stopHeartbeat();
+    this.heartbeatTimer = setInterval(() => {
+      if (this.stompClient && this.connected) {
+        this.stompClient.send('/app/presence.heartbeat', {}, '');
+      }
+    }, 30000);
+  }
+
+  private stopHeartbeat(): void {
+    if (this.heartbeatTimer) {
+      clearInterval(this.heartbeatTimer);
+      this.heartbeatTimer = null;
+    }
+  }
+
   testConnection(): void {
     if (this.stompClient && this.connected) {
       this.stompClient.send('/app/test', {}, JSON.stringify({
@@ -110,7 +312,7 @@ class WebSocketService {
     }
   }
 
-  async forceReconnect(userId: string, onMessageReceived: (message: Message) => void): Promise<void> {
+  async forceReconnect(userId: string, onMessageReceived?: (message: Message) => void): Promise<void> {
     this.disconnect();
     await new Promise(resolve => setTimeout(resolve, 1000));
     return this.connect(userId, onMessageReceived);
@@ -15,6 +15,7 @@ export interface Post {
     userId: string;
     content: string;
     image?: Media[];
+    likeCount?: number;
     createdAt: Date;
     updatedAt: Date;
 }
@@ -36,6 +37,11 @@ export interface Comment {
     createdAt: Date;
 }
 
+export interface PostViewerState {
+    liked: boolean;
+    bookmarked: boolean;
+}
+
 export interface Like {
     id: string;
     userId: string;
@@ -0,0 +1,142 @@
+package com.Jitter.Jitter.Backend.Controller;
+
+import com.Jitter.Jitter.Backend.Models.Attachment;
+import com.Jitter.Jitter.Backend.Models.User;
+import com.Jitter.Jitter.Backend.Service.AttachmentService;
+import com.Jitter.Jitter.Backend.Service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/chat")
+@CrossOrigin(origins = "http://localhost:3000")
+public class AttachmentController {
+
+    @Autowired
+    private AttachmentService attachmentService;
+
+    @Autowired
+    private UserService userService;
+
+    private String currentUserId(Principal principal) {
+        String username = principal.getName();
+        User user = userService.getByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found for username: " + username));
+        return user.getId();
+    }
+
+    @PostMapping("/{chatId}/attachments")
+    public ResponseEntity<?> createAttachment(@PathVariable String chatId,
+                                              @RequestBody Map<String, Object> attachmentData,
+                                              Principal principal) {
+        try {
+            Object size = attachmentData.get("size");
+            if (!(size instanceof Number)) {
+                return ResponseEntity.badRequest().body("Attachment size is required");
+            }
+            Attachment attachment = attachmentService.create(chatId, currentUserId(principal),
+                    (String) attachmentData.get("fileName"), (String) attachmentData.get("contentType"),
+                    ((Number) size).longValue());
+            return ResponseEntity.ok(attachment);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error creating attachment: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/attachments/{attachmentId}/status")
+    public ResponseEntity<?> getUploadStatus(@PathVariable String attachmentId, Principal principal) {
+        try {
+            return ResponseEntity.ok(attachmentService.getForUpload(attachmentId, currentUserId(principal)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error retrieving attachment: " + e.getMessage());
+        }
+    }
+
+    @PutMapping(path = "/attachments/{attachmentId}/chunks/{index}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> uploadChunk(@PathVariable String attachmentId,
+                                         @PathVariable int index,
+                                         @RequestHeader(value = "X-Chunk-Sha256", required = false) String sha256,
+                                         InputStream body,
+                                         Principal principal) {
+        try {
+            Attachment attachment = attachmentService.uploadChunk(attachmentId, currentUserId(principal), index, sha256, body);
+            return ResponseEntity.ok(Map.of(
+                    "received", attachment.getReceivedChunks().size(),
+                    "chunkCount", attachment.getChunkCount()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error uploading chunk: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/attachments/{attachmentId}/complete")
+    public ResponseEntity<?> completeAttachment(@PathVariable String attachmentId,
+                                                @RequestBody(required = false) Map<String, Object> completeData,
+                                                Principal principal) {
+        try {
+            String sha256 = completeData != null ? (String) completeData.get("sha256") : null;
+            return ResponseEntity.ok(attachmentService.complete(attachmentId, currentUserId(principal), sha256));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error completing attachment: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/attachments/{attachmentId}")
+    public ResponseEntity<?> downloadAttachment(@PathVariable String attachmentId,
+                                                @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                                                Principal principal) {
+        Attachment attachment;
+        try {
+            attachment = attachmentService.getForDownload(attachmentId, currentUserId(principal));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error retrieving attachment: " + e.getMessage());
+        }
+
+        long size = attachment.getSize();
+        long start = 0;
+        long end = size - 1;
+        HttpStatus status = HttpStatus.OK;
+        if (range != null) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(range);
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(size);
+                    end = ranges.get(0).getRangeEnd(size);
+                    status = HttpStatus.PARTIAL_CONTENT;
+                }
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                        .build();
+            }
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(attachment.getContentType()));
+        headers.setContentLength(end - start + 1);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setETag("\"" + attachment.getSha256() + "\"");
+        headers.setContentDisposition(ContentDisposition.inline()
+                .filename(attachment.getFileName(), StandardCharsets.UTF_8).build());
+        if (status == HttpStatus.PARTIAL_CONTENT) {
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+
+        long from = start;
+        long to = end;
+        StreamingResponseBody body = out -> attachmentService.write(attachment, from, to, out);
+        return new ResponseEntity<>(body, headers, status);
+    }
+}
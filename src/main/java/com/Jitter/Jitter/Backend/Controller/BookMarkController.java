@@ -2,9 +2,13 @@ package com.Jitter.Jitter.Backend.Controller;
 
 import com.Jitter.Jitter.Backend.Models.BookMark;
 import com.Jitter.Jitter.Backend.Repository.BookMarkRepository;
+import com.Jitter.Jitter.Backend.Service.BookMarkService;
+import com.Jitter.Jitter.Backend.Service.UserIdentityCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,9 +19,30 @@ public class BookMarkController {
     @Autowired
     private BookMarkRepository bookMarkRepo;
 
+    @Autowired
+    private BookMarkService bookMarkService;
+
+    @Autowired
+    private UserIdentityCache identityCache;
+
     @PostMapping("/add")
     public BookMark addBookMark(@RequestBody BookMark bookMark) {
-        return bookMarkRepo.save(bookMark);
+        return bookMarkService.add(bookMark);
+    }
+
+    @GetMapping("/me")
+    public ResponseEntity<?> getMyBookmarks(@RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "20") int size,
+                                            Principal principal) {
+        try {
+            String userId = identityCache.getUserIdByUsername(principal.getName());
+            if (userId == null) {
+                return ResponseEntity.badRequest().body("User not found for username: " + principal.getName());
+            }
+            return ResponseEntity.ok(bookMarkService.getFeed(userId, cursor, size));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error retrieving bookmarks: " + e.getMessage());
+        }
     }
 
     @GetMapping("/{id}")
@@ -32,12 +57,11 @@ public class BookMarkController {
 
     @PutMapping("/{id}")
     public BookMark updateBookMark(@PathVariable String id, @RequestBody BookMark updatedBookMark) {
-        updatedBookMark.setId(id);
-        return bookMarkRepo.save(updatedBookMark);
+        return bookMarkService.update(id, updatedBookMark);
     }
     
     @DeleteMapping("/{id}")
     public void deleteBookMark(@PathVariable String id) {
-        bookMarkRepo.deleteById(id);
+        bookMarkService.delete(id);
     }
 }
\ No newline at end of file
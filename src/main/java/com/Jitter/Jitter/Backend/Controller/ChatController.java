@@ -1,13 +1,14 @@
 package com.Jitter.Jitter.Backend.Controller;
 
+import com.Jitter.Jitter.Backend.DTO.ChatSummaryDTO;
+import com.Jitter.Jitter.Backend.DTO.MessageHistoryDTO;
+import com.Jitter.Jitter.Backend.DTO.ReadReceiptDTO;
 import com.Jitter.Jitter.Backend.Models.Chat;
 import com.Jitter.Jitter.Backend.Models.Message;
-import com.Jitter.Jitter.Backend.Models.User;
-import com.Jitter.Jitter.Backend.Repository.ChatRepository;
-import com.Jitter.Jitter.Backend.Repository.UserRepository;
+import com.Jitter.Jitter.Backend.Service.ChatMembershipCache;
 import com.Jitter.Jitter.Backend.Service.ChatService;
+import com.Jitter.Jitter.Backend.Service.UserDeliveryService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
@@ -18,7 +19,6 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/chat")
@@ -32,10 +32,10 @@ public class ChatController {
     private SimpMessagingTemplate messagingTemplate;
     
     @Autowired
-    private ChatRepository chatRepository;
+    private ChatMembershipCache chatMembershipCache;
     
     @Autowired
-    private UserRepository userRepository;
+    private UserDeliveryService userDeliveryService;
 
     private String getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -76,7 +76,7 @@ public class ChatController {
                 return ResponseEntity.badRequest().body("Current user ID is required (authentication issue)");
             }
             
-            List<Map<String, Object>> chats = chatService.getUserChats(currentUserId);
+            List<ChatSummaryDTO> chats = chatService.getUserChats(currentUserId);
             return ResponseEntity.ok(chats);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error retrieving chats: " + e.getMessage());
@@ -86,6 +86,8 @@ public class ChatController {
     @GetMapping("/{chatId}/messages")
     public ResponseEntity<?> getChatMessages(
             @PathVariable String chatId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Long after,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "50") int size) {
         try {
@@ -99,13 +101,33 @@ public class ChatController {
                 return ResponseEntity.badRequest().body("Chat ID is required");
             }
             
-            Page<Message> messages = chatService.getChatMessages(chatId, currentUserId, page, size);
+            MessageHistoryDTO messages = chatService.getChatMessages(chatId, currentUserId, before, after, page, size);
             return ResponseEntity.ok(messages);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error retrieving messages: " + e.getMessage());
         }
     }
 
+    @GetMapping("/{chatId}/search")
+    public ResponseEntity<?> searchMessages(
+            @PathVariable String chatId,
+            @RequestParam String q,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            String currentUserId = getCurrentUserId();
+            
+            if (q == null || q.trim().isEmpty()) {
+                return ResponseEntity.badRequest().body("Search query is required");
+            }
+            
+            MessageHistoryDTO results = chatService.searchMessages(chatId, currentUserId, q, before, size);
+            return ResponseEntity.ok(results);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error searching messages: " + e.getMessage());
+        }
+    }
+
     @PostMapping("/{chatId}/send")
     public ResponseEntity<?> sendMessage(
             @PathVariable String chatId,
@@ -126,7 +148,9 @@ public class ChatController {
             }
             
             String content = (String) messageData.get("content");
-            if (content == null || content.trim().isEmpty()) {
+            String attachmentId = (String) messageData.get("attachmentId");
+            String clientMessageId = (String) messageData.get("clientMessageId");
+            if ((content == null || content.trim().isEmpty()) && attachmentId == null) {
                 return ResponseEntity.badRequest().body("Message content is required");
             }
             
@@ -139,36 +163,12 @@ public class ChatController {
                 return ResponseEntity.badRequest().body("Invalid message type: " + typeStr);
             }
 
-            Message message = chatService.sendMessage(chatId, currentUserId, content, type);
+            Message message = chatService.sendMessage(chatId, currentUserId, content, type, attachmentId, clientMessageId);
 
             try {
-                Optional<Chat> chatOpt = chatRepository.findById(chatId);
-                
-                if (chatOpt.isPresent()) {
-                    Chat chat = chatOpt.get();
-                    
-                    chat.getParticipantIds().forEach(participantId -> {
-                        if (!participantId.equals(currentUserId)) {
-                            try {
-                                messagingTemplate.convertAndSendToUser(
-                                    participantId,
-                                    "/queue/messages",
-                                    message
-                                );
-                                
-                                Optional<User> userOpt = userRepository.findById(participantId);
-                                if (userOpt.isPresent()) {
-                                    String username = userOpt.get().getUsername();
-                                    messagingTemplate.convertAndSendToUser(
-                                        username,
-                                        "/queue/messages",
-                                        message
-                                    );
-                                }
-                            } catch (Exception e) {
-                            }
-                        }
-                    });
+                List<String> participantIds = chatMembershipCache.getParticipants(chatId);
+                if (participantIds != null) {
+                    userDeliveryService.deliver(otherParticipants(participantIds, message.getSenderId()), "/queue/messages", message);
                 }
             } catch (Exception e) {
             }
@@ -183,13 +183,42 @@ public class ChatController {
     public ResponseEntity<?> markAsRead(@PathVariable String chatId) {
         try {
             String currentUserId = getCurrentUserId();
-            chatService.markMessagesAsRead(chatId, currentUserId);
+            ReadReceiptDTO receipt = chatService.markMessagesAsRead(chatId, currentUserId);
+            userDeliveryService.deliver(otherParticipants(receipt.getParticipantIds(), receipt.getUserId()), "/queue/read-receipts", receipt);
             return ResponseEntity.ok("Messages marked as read");
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error marking messages as read: " + e.getMessage());
         }
     }
 
+    @PutMapping("/message/{messageId}")
+    public ResponseEntity<?> editMessage(
+            @PathVariable String messageId,
+            @RequestBody Map<String, Object> messageData) {
+        try {
+            String currentUserId = getCurrentUserId();
+            
+            String content = messageData != null ? (String) messageData.get("content") : null;
+            if (content == null || content.trim().isEmpty()) {
+                return ResponseEntity.badRequest().body("Message content is required");
+            }
+            
+            Message message = chatService.editMessage(messageId, currentUserId, content);
+
+            try {
+                List<String> participantIds = chatMembershipCache.getParticipants(message.getChatId());
+                if (participantIds != null) {
+                    userDeliveryService.deliver(otherParticipants(participantIds, message.getSenderId()), "/queue/messages", message);
+                }
+            } catch (Exception e) {
+            }
+
+            return ResponseEntity.ok(message);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error editing message: " + e.getMessage());
+        }
+    }
+
     @DeleteMapping("/message/{messageId}")
     public ResponseEntity<?> deleteMessage(@PathVariable String messageId) {
         try {
@@ -223,23 +252,17 @@ public class ChatController {
             String chatId = (String) messageData.get("chatId");
             String content = (String) messageData.get("content");
             
-            Optional<Chat> chatOpt = chatRepository.findById(chatId);
-            if (chatOpt.isPresent()) {
-                Chat chat = chatOpt.get();
-                
-                chat.getParticipantIds().forEach(participantId -> {
-                    if (!participantId.equals(senderId)) {
-                        messagingTemplate.convertAndSendToUser(participantId, "/queue/messages", messageData);
-                        
-                        Optional<User> userOpt = userRepository.findById(participantId);
-                        if (userOpt.isPresent()) {
-                            String username = userOpt.get().getUsername();
-                            messagingTemplate.convertAndSendToUser(username, "/queue/messages", messageData);
-                        }
-                    }
-                });
+            List<String> participantIds = chatMembershipCache.getParticipants(chatId);
+            if (participantIds != null && participantIds.contains(senderId)) {
+                userDeliveryService.deliver(otherParticipants(participantIds, senderId), "/queue/messages", messageData);
             }
         } catch (Exception e) {
         }
     }
-} 
\ No newline at end of file
+
+    private List<String> otherParticipants(List<String> participantIds, String userId) {
+        return participantIds.stream()
+            .filter(participantId -> !participantId.equals(userId))
+            .toList();
+    }
+}
@@ -5,14 +5,14 @@ import com.Jitter.Jitter.Backend.Models.Post;
 import com.Jitter.Jitter.Backend.Models.Follow;
 import com.Jitter.Jitter.Backend.DTO.CommentDTO;
 import com.Jitter.Jitter.Backend.Models.User;
-import com.Jitter.Jitter.Backend.Models.Role;
 import com.Jitter.Jitter.Backend.Repository.CommentRepository;
 import com.Jitter.Jitter.Backend.Repository.PostRepository;
-import com.Jitter.Jitter.Backend.Repository.RoleRepository;
 import com.Jitter.Jitter.Backend.Service.CommentService;
 import com.Jitter.Jitter.Backend.Service.NotificationService;
 import com.Jitter.Jitter.Backend.Service.FollowService;
 import com.Jitter.Jitter.Backend.Service.UserService;
+import com.Jitter.Jitter.Backend.Security.AuthorizationEngine;
+import com.Jitter.Jitter.Backend.Security.Privilege;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -46,7 +46,7 @@ public class CommentController {
     private FollowService followService;
 
     @Autowired
-    private RoleRepository roleRepository;
+    private AuthorizationEngine authorizationEngine;
 
     @PostMapping("/add")
     public CommentDTO addComment(@RequestBody Comment comment, Principal principal) {
@@ -128,8 +128,7 @@ public class CommentController {
         if (existingComment.getUserId().equals(currentUser.getId())) {
             canEdit = true;
         } else {
-            List<Role> roles = roleRepository.findByUserId(currentUser.getId());
-            canEdit = roles.stream().anyMatch(role -> "ADMIN".equals(role.getType()));
+            canEdit = authorizationEngine.hasPrivilege(currentUser.getId(), Privilege.MODERATE_COMMENTS);
         }
 
         if (!canEdit) {
@@ -164,8 +163,7 @@ public class CommentController {
             if (postOpt.isPresent() && postOpt.get().getUserId().equals(currentUser.getId())) {
                 canDelete = true;
             } else {
-                List<Role> roles = roleRepository.findByUserId(currentUser.getId());
-                canDelete = roles.stream().anyMatch(role -> "ADMIN".equals(role.getType()));
+                canDelete = authorizationEngine.hasPrivilege(currentUser.getId(), Privilege.MODERATE_COMMENTS);
             }
         }
 
@@ -1,16 +1,22 @@
 package com.Jitter.Jitter.Backend.Controller;
 
+import com.Jitter.Jitter.Backend.DTO.NotificationPageDTO;
 import com.Jitter.Jitter.Backend.Models.Like;
 import com.Jitter.Jitter.Backend.Models.Notification;
 import com.Jitter.Jitter.Backend.Repository.LikeRepository;
+import com.Jitter.Jitter.Backend.Service.LikeService;
 import com.Jitter.Jitter.Backend.Service.NotificationService;
-import com.Jitter.Jitter.Backend.Repository.PostRepository;
-import com.Jitter.Jitter.Backend.Models.Post;
+import com.Jitter.Jitter.Backend.Service.PostLikeCounter;
+import com.Jitter.Jitter.Backend.Service.UserIdentityCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -24,16 +30,17 @@ public class LikeController {
     private NotificationService notificationService;
 
     @Autowired
-    private PostRepository postRepository;
+    private LikeService likeService;
+
+    @Autowired
+    private PostLikeCounter likeCounter;
+
+    @Autowired
+    private UserIdentityCache identityCache;
 
     @PostMapping("/add")
     public Like addLike(@RequestBody Like like) {
-        Like savedLike = likeRepo.save(like);
-        Post post = postRepository.findById(like.getPostId()).orElse(null);
-        if (post != null && !post.getUserId().equals(like.getUserId())) {
-            notificationService.createNotification(post.getUserId(), "LIKE", like.getUserId(), post.getId(), null, null);
-        }
-        return savedLike;
+        return likeService.like(like);
     }
 
     @GetMapping("/{id}")
@@ -51,15 +58,24 @@ public class LikeController {
         return likeRepo.findByPostId(postId);
     }
 
+    @GetMapping("/post/{postId}/count")
+    public long getLikeCount(@PathVariable String postId) {
+        return likeService.getCount(postId);
+    }
+
+    @PostMapping("/counts")
+    public Map<String, Long> getLikeCounts(@RequestBody List<String> postIds) {
+        return likeCounter.getCounts(postIds);
+    }
+
     @PutMapping("/{id}")
     public Like updateLike(@PathVariable String id, @RequestBody Like updatedLike) {
-        updatedLike.setId(id);
-        return likeRepo.save(updatedLike);
+        return likeService.update(id, updatedLike);
     }
 
     @DeleteMapping("/{id}")
     public void deleteLike(@PathVariable String id) {
-        likeRepo.deleteById(id);
+        likeService.unlike(id);
     }
 
     @GetMapping("/notifications/test")
@@ -68,8 +84,11 @@ public class LikeController {
     }
 
     @GetMapping("/notifications/user/{userId}")
-    public List<Notification> getUserNotifications(@PathVariable String userId) {
-        return notificationService.getUserNotifications(userId);
+    public NotificationPageDTO getUserNotifications(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return notificationService.getUserNotifications(userId, cursor, size);
     }
 
     @GetMapping("/notifications/user/{userId}/paginated")
@@ -81,8 +100,11 @@ public class LikeController {
     }
 
     @GetMapping("/notifications/unread/count/{userId}")
-    public Long getUnreadNotificationCount(@PathVariable String userId) {
-        return notificationService.getUnreadNotificationCount(userId);
+    public ResponseEntity<?> getUnreadNotificationCount(@PathVariable String userId, Principal principal) {
+        if (!userId.equals(identityCache.getUserIdByUsername(principal.getName()))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You can only read your own unread count");
+        }
+        return ResponseEntity.ok(notificationService.getUnreadNotificationCount(userId));
     }
 
     @PutMapping("/notifications/read/{notificationId}")
@@ -2,6 +2,9 @@ package com.Jitter.Jitter.Backend.Controller;
 
 import com.Jitter.Jitter.Backend.Models.Permission;
 import com.Jitter.Jitter.Backend.Repository.PermissionRepository;
+import com.Jitter.Jitter.Backend.Security.AuthorizationEngine;
+import com.Jitter.Jitter.Backend.Security.Privilege;
+import com.Jitter.Jitter.Backend.Security.RequiresPrivilege;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,9 +18,15 @@ public class PermissionController {
     @Autowired
     private PermissionRepository permissionRepository;
 
+    @Autowired
+    private AuthorizationEngine authorizationEngine;
+
     @PostMapping("/add")
+    @RequiresPrivilege(Privilege.MANAGE_PERMISSIONS)
     public Permission addPermission(@RequestBody Permission permission) {
-        return permissionRepository.save(permission);
+        Permission saved = permissionRepository.save(permission);
+        authorizationEngine.invalidate(saved.getUserId());
+        return saved;
     }
 
     @GetMapping("/{id}")
@@ -31,13 +40,20 @@ public class PermissionController {
     }
 
     @PutMapping("/{id}")
+    @RequiresPrivilege(Privilege.MANAGE_PERMISSIONS)
     public Permission updatePermission(@PathVariable String id, @RequestBody Permission updatedPermission) {
+        permissionRepository.findById(id).ifPresent(existing -> authorizationEngine.invalidate(existing.getUserId()));
         updatedPermission.setId(id);
-        return permissionRepository.save(updatedPermission);
+        Permission saved = permissionRepository.save(updatedPermission);
+        authorizationEngine.invalidate(saved.getUserId());
+        return saved;
     }
 
     @DeleteMapping("/{id}")
+    @RequiresPrivilege(Privilege.MANAGE_PERMISSIONS)
     public void deletePermission(@PathVariable String id) {
+        Optional<Permission> existing = permissionRepository.findById(id);
         permissionRepository.deleteById(id);
+        existing.ifPresent(permission -> authorizationEngine.invalidate(permission.getUserId()));
     }
 }
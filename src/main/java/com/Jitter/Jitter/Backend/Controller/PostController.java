@@ -7,6 +7,9 @@ import com.Jitter.Jitter.Backend.Service.PostService;
 import com.Jitter.Jitter.Backend.Service.UserService;
 import com.Jitter.Jitter.Backend.Service.NotificationService;
 import com.Jitter.Jitter.Backend.Service.FollowService;
+import com.Jitter.Jitter.Backend.Service.PostMembershipCache;
+import com.Jitter.Jitter.Backend.Service.PostViewCounter;
+import com.Jitter.Jitter.Backend.Service.UserIdentityCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
@@ -20,6 +23,7 @@ import java.io.IOException;
 import java.security.Principal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/posts")
@@ -29,14 +33,24 @@ public class PostController {
     private final UserService userService;
     private final NotificationService notificationService;
     private final FollowService followService;
+    private final PostMembershipCache membershipCache;
+    private final UserIdentityCache identityCache;
+    private final PostViewCounter viewCounter;
+
+    private static final int MAX_BATCH_POSTS = 100;
 
     @Autowired
     public PostController(PostService postService, UserService userService, 
-                         NotificationService notificationService, FollowService followService) {
+                         NotificationService notificationService, FollowService followService,
+                         PostMembershipCache membershipCache, UserIdentityCache identityCache,
+                         PostViewCounter viewCounter) {
         this.postService = postService;
         this.userService = userService;
         this.notificationService = notificationService;
         this.followService = followService;
+        this.membershipCache = membershipCache;
+        this.identityCache = identityCache;
+        this.viewCounter = viewCounter;
     }
 
     @GetMapping
@@ -56,6 +70,36 @@ public class PostController {
         return postService.getByUserId(userId);
     }
 
+    @PostMapping("/viewer-state")
+    public ResponseEntity<?> getViewerState(@RequestBody List<String> postIds, Principal principal) {
+        if (postIds.size() > MAX_BATCH_POSTS) {
+            return ResponseEntity.badRequest().body("At most " + MAX_BATCH_POSTS + " posts per request");
+        }
+        String userId = identityCache.getUserIdByUsername(principal.getName());
+        if (userId == null) {
+            return ResponseEntity.badRequest().body("User not found for username: " + principal.getName());
+        }
+        return ResponseEntity.ok(membershipCache.getStates(userId, postIds));
+    }
+
+    @PostMapping("/views")
+    public ResponseEntity<?> recordViews(@RequestBody List<String> postIds, Principal principal) {
+        if (postIds.size() > MAX_BATCH_POSTS) {
+            return ResponseEntity.badRequest().body("At most " + MAX_BATCH_POSTS + " posts per request");
+        }
+        String userId = identityCache.getUserIdByUsername(principal.getName());
+        if (userId == null) {
+            return ResponseEntity.badRequest().body("User not found for username: " + principal.getName());
+        }
+        viewCounter.record(userId, postIds);
+        return ResponseEntity.accepted().build();
+    }
+
+    @GetMapping("/{id}/views")
+    public Map<String, Long> getUniqueViewers(@PathVariable String id) {
+        return Map.of("uniqueViewers", viewCounter.getUniqueViewers(id));
+    }
+
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<Post> createPost(
             @RequestPart("post") String postJson,
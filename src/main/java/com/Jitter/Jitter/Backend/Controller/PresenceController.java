@@ -0,0 +1,52 @@
+package com.Jitter.Jitter.Backend.Controller;
+
+import com.Jitter.Jitter.Backend.Security.UserSessionRegistry;
+import com.Jitter.Jitter.Backend.Service.PresenceService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/presence")
+@CrossOrigin(origins = "http://localhost:3000")
+public class PresenceController {
+
+    private static final int MAX_BULK_USERS = 200;
+
+    @Autowired
+    private PresenceService presenceService;
+
+    @Autowired
+    private UserSessionRegistry sessionRegistry;
+
+    @GetMapping
+    public ResponseEntity<?> getPresence(@RequestParam List<String> userIds) {
+        try {
+            if (userIds.size() > MAX_BULK_USERS) {
+                return ResponseEntity.badRequest().body("At most " + MAX_BULK_USERS + " users can be queried at once");
+            }
+            return ResponseEntity.ok(presenceService.getPresence(userIds));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error retrieving presence: " + e.getMessage());
+        }
+    }
+
+    @MessageMapping("/presence.heartbeat")
+    public void heartbeat(SimpMessageHeaderAccessor headerAccessor) {
+        presenceService.heartbeat(sessionRegistry.getUserId(headerAccessor.getSessionId()));
+    }
+
+    @MessageMapping("/chat.typing")
+    public void typing(@Payload Map<String, Object> typingData, SimpMessageHeaderAccessor headerAccessor) {
+        String userId = sessionRegistry.getUserId(headerAccessor.getSessionId());
+        String chatId = (String) typingData.get("chatId");
+        boolean typing = !Boolean.FALSE.equals(typingData.get("typing"));
+        presenceService.typing(userId, chatId, typing);
+    }
+}
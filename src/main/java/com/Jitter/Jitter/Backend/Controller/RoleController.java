@@ -2,6 +2,9 @@ package com.Jitter.Jitter.Backend.Controller;
 
 import com.Jitter.Jitter.Backend.Models.Role;
 import com.Jitter.Jitter.Backend.Repository.RoleRepository;
+import com.Jitter.Jitter.Backend.Security.AuthorizationEngine;
+import com.Jitter.Jitter.Backend.Security.Privilege;
+import com.Jitter.Jitter.Backend.Security.RequiresPrivilege;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,9 +18,15 @@ public class RoleController {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private AuthorizationEngine authorizationEngine;
+
     @PostMapping("/add")
+    @RequiresPrivilege(Privilege.MANAGE_ROLES)
     public Role addRole(@RequestBody Role role) {
-        return roleRepository.save(role);
+        Role saved = roleRepository.save(role);
+        authorizationEngine.invalidate(saved.getUserId());
+        return saved;
     }
 
     @GetMapping("/{id}")
@@ -36,13 +45,20 @@ public class RoleController {
     }
 
     @PutMapping("/{id}")
+    @RequiresPrivilege(Privilege.MANAGE_ROLES)
     public Role updateRole(@PathVariable String id, @RequestBody Role updatedRole) {
+        roleRepository.findById(id).ifPresent(existing -> authorizationEngine.invalidate(existing.getUserId()));
         updatedRole.setId(id);
-        return roleRepository.save(updatedRole);
+        Role saved = roleRepository.save(updatedRole);
+        authorizationEngine.invalidate(saved.getUserId());
+        return saved;
     }
 
     @DeleteMapping("/{id}")
+    @RequiresPrivilege(Privilege.MANAGE_ROLES)
     public void deleteRole(@PathVariable String id) {
+        Optional<Role> existing = roleRepository.findById(id);
         roleRepository.deleteById(id);
+        existing.ifPresent(role -> authorizationEngine.invalidate(role.getUserId()));
     }
 }
@@ -0,0 +1,34 @@
+package com.Jitter.Jitter.Backend.Controller;
+
+import com.Jitter.Jitter.Backend.Models.User;
+import com.Jitter.Jitter.Backend.Service.SyncService;
+import com.Jitter.Jitter.Backend.Service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+
+@RestController
+@RequestMapping("/sync")
+@CrossOrigin(origins = "http://localhost:3000")
+public class SyncController {
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private UserService userService;
+
+    @GetMapping
+    public ResponseEntity<?> sync(@RequestParam(required = false) String since, Principal principal) {
+        try {
+            String username = principal.getName();
+            User user = userService.getByUsername(username)
+                    .orElseThrow(() -> new RuntimeException("User not found for username: " + username));
+            return ResponseEntity.ok(syncService.sync(user.getId(), since));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error syncing: " + e.getMessage());
+        }
+    }
+}
@@ -2,10 +2,13 @@ package com.Jitter.Jitter.Backend.Controller;
 
 import com.Jitter.Jitter.Backend.DTO.LoginDTO;
 import com.Jitter.Jitter.Backend.DTO.LoginResponseDTO;
+import com.Jitter.Jitter.Backend.Exceptions.LoginRejectedException;
 import com.Jitter.Jitter.Backend.Models.Role;
 import com.Jitter.Jitter.Backend.Models.User;
 import com.Jitter.Jitter.Backend.Repository.RoleRepository;
 import com.Jitter.Jitter.Backend.Security.JWTGenerator;
+import com.Jitter.Jitter.Backend.Security.LoginRateLimiter;
+import com.Jitter.Jitter.Backend.Security.PasswordHashingExecutor;
 import com.Jitter.Jitter.Backend.Service.UserService;
 import org.springframework.security.core.Authentication;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,12 +16,11 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import jakarta.servlet.http.HttpServletRequest;
 import java.io.IOException;
 import java.util.List;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -37,9 +39,9 @@ public class UserController {
     @Autowired
     private RoleRepository roleRepository;
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingExecutor passwordHashingExecutor;
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private LoginRateLimiter loginRateLimiter;
     @Autowired
     private JWTGenerator jwtGenerator;
     @Autowired
@@ -78,7 +80,9 @@ public class UserController {
     @PostMapping(path = "/register", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<?> createUser(
             @RequestPart("user") String userJson,
-            @RequestPart(value = "profilePicture", required = false) MultipartFile profilePicture) {
+            @RequestPart(value = "profilePicture", required = false) MultipartFile profilePicture,
+            HttpServletRequest request) {
+        loginRateLimiter.checkIp(request.getRemoteAddr());
         try {
             User user = objectMapper.readValue(userJson, User.class);
             
@@ -95,13 +99,15 @@ public class UserController {
                     .body("Email is required");
             }
 
-            user.setPassword(passwordEncoder.encode(user.getPassword()));
+            user.setPassword(passwordHashingExecutor.encode(user.getPassword()));
             User savedUser = userService.createUser(user, profilePicture);
             Role role = new Role();
             role.setType("USER");
             role.setUserId(savedUser.getId());
             roleRepository.save(role);
             return ResponseEntity.status(HttpStatus.CREATED).body(savedUser);
+        } catch (LoginRejectedException e) {
+            throw e;
         } catch (RuntimeException e) {
             if (e.getMessage().equals("Username already exists")) {
                 return ResponseEntity.status(HttpStatus.CONFLICT)
@@ -120,8 +126,9 @@ public class UserController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginDTO loginDTO) {
-        Authentication authentication = authenticationManager.authenticate(
+    public ResponseEntity<?> login(@RequestBody LoginDTO loginDTO, HttpServletRequest request) {
+        loginRateLimiter.checkLogin(loginDTO.getUsername(), request.getRemoteAddr());
+        Authentication authentication = passwordHashingExecutor.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         loginDTO.getUsername(),
                         loginDTO.getPassword()));
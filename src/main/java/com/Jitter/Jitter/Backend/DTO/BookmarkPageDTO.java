@@ -0,0 +1,15 @@
+package com.Jitter.Jitter.Backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookmarkPageDTO {
+    private List<BookmarkedPostDTO> content;
+    private String nextCursor;
+}
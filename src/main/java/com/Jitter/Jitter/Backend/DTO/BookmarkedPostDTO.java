@@ -0,0 +1,16 @@
+package com.Jitter.Jitter.Backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookmarkedPostDTO {
+    private String bookmarkId;
+    private Date bookmarkedAt;
+    private PostSummaryDTO post;
+}
@@ -0,0 +1,20 @@
+package com.Jitter.Jitter.Backend.DTO;
+
+import com.Jitter.Jitter.Backend.Models.Message;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatSummaryDTO {
+    private String id;
+    private UserSummaryDTO otherUser;
+    private Message lastMessage;
+    private LocalDateTime lastMessageTime;
+    private long unreadCount;
+    private boolean online;
+}
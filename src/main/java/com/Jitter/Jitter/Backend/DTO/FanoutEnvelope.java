@@ -0,0 +1,17 @@
+package com.Jitter.Jitter.Backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FanoutEnvelope {
+    private String nodeId;
+    private List<String> userIds;
+    private String destination;
+    private String payload;
+}
@@ -0,0 +1,21 @@
+package com.Jitter.Jitter.Backend.DTO;
+
+import com.Jitter.Jitter.Backend.Models.Message;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageHistoryDTO {
+    private List<Message> content;
+    private boolean first;
+    private boolean last;
+    private Long oldestSeq;
+    private Long newestSeq;
+    private long latestSeq;
+    private long partnerReadSeq;
+}
@@ -0,0 +1,47 @@
+package com.Jitter.Jitter.Backend.DTO;
+
+import com.Jitter.Jitter.Backend.Models.Notification;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationDTO {
+    private String id;
+    private String userId;
+    private String type;
+    private String sourceUserId;
+    private UserSummaryDTO sourceUser;
+    private String postId;
+    private PostSnippetDTO post;
+    private String commentId;
+    private String content;
+    private boolean read;
+    private int actorCount;
+    private List<String> recentActorIds;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", timezone = "UTC")
+    private Date createdAt;
+
+    public NotificationDTO(Notification notification, UserSummaryDTO sourceUser, PostSnippetDTO post) {
+        this.id = notification.getId();
+        this.userId = notification.getUserId();
+        this.type = notification.getType();
+        this.sourceUserId = notification.getSourceUserId();
+        this.sourceUser = sourceUser;
+        this.postId = notification.getPostId();
+        this.post = post;
+        this.commentId = notification.getCommentId();
+        this.content = notification.getContent();
+        this.read = notification.isRead();
+        this.actorCount = notification.getActorCount();
+        this.recentActorIds = notification.getRecentActorIds();
+        this.createdAt = notification.getCreatedAt();
+    }
+}
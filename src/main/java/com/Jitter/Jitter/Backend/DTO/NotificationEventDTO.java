@@ -0,0 +1,23 @@
+package com.Jitter.Jitter.Backend.DTO;
+
+import com.Jitter.Jitter.Backend.Models.Notification;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationEventDTO {
+    private String type;
+    private Notification notification;
+    private long unreadCount;
+
+    public static NotificationEventDTO created(Notification notification, long unreadCount) {
+        return new NotificationEventDTO("notification", notification, unreadCount);
+    }
+
+    public static NotificationEventDTO unread(long unreadCount) {
+        return new NotificationEventDTO("unread", null, unreadCount);
+    }
+}
@@ -0,0 +1,26 @@
+package com.Jitter.Jitter.Backend.DTO;
+
+import com.Jitter.Jitter.Backend.Models.Post;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostSnippetDTO {
+    private static final int MAX_LENGTH = 140;
+
+    private String id;
+    private String userId;
+    private String content;
+
+    public PostSnippetDTO(Post post) {
+        this.id = post.getId();
+        this.userId = post.getUserId();
+        String text = post.getContent();
+        this.content = text != null && text.length() > MAX_LENGTH
+                ? text.substring(0, MAX_LENGTH) + "…"
+                : text;
+    }
+}
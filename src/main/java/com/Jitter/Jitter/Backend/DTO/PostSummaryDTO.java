@@ -0,0 +1,29 @@
+package com.Jitter.Jitter.Backend.DTO;
+
+import com.Jitter.Jitter.Backend.Models.Post;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostSummaryDTO {
+    private String id;
+    private UserSummaryDTO author;
+    private String content;
+    private int imageCount;
+    private long likeCount;
+    private Date createdAt;
+
+    public PostSummaryDTO(Post post, UserSummaryDTO author) {
+        this.id = post.getId();
+        this.author = author;
+        this.content = post.getContent();
+        this.imageCount = post.getImage() != null ? post.getImage().size() : 0;
+        this.likeCount = post.getLikeCount() != null ? post.getLikeCount() : 0;
+        this.createdAt = post.getCreatedAt();
+    }
+}
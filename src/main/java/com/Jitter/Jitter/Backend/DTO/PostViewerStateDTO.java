@@ -0,0 +1,13 @@
+package com.Jitter.Jitter.Backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostViewerStateDTO {
+    private boolean liked;
+    private boolean bookmarked;
+}
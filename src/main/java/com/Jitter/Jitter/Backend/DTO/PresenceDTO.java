@@ -0,0 +1,23 @@
+package com.Jitter.Jitter.Backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresenceDTO {
+    private String type = "presence";
+    private String userId;
+    private boolean online;
+    private LocalDateTime lastSeen;
+
+    public PresenceDTO(String userId, boolean online, LocalDateTime lastSeen) {
+        this.userId = userId;
+        this.online = online;
+        this.lastSeen = lastSeen;
+    }
+}
@@ -0,0 +1,28 @@
+package com.Jitter.Jitter.Backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReadReceiptDTO {
+    private String type = "read_receipt";
+    private String chatId;
+    private String userId;
+    private long readSeq;
+    private LocalDateTime readAt;
+    private List<String> participantIds;
+
+    public ReadReceiptDTO(String chatId, String userId, long readSeq, LocalDateTime readAt, List<String> participantIds) {
+        this.chatId = chatId;
+        this.userId = userId;
+        this.readSeq = readSeq;
+        this.readAt = readAt;
+        this.participantIds = participantIds;
+    }
+}
@@ -0,0 +1,31 @@
+package com.Jitter.Jitter.Backend.DTO;
+
+import com.Jitter.Jitter.Backend.Models.Message;
+import com.Jitter.Jitter.Backend.Models.Notification;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncResponseDTO {
+    private String token;
+    private boolean resetRequired;
+    private List<Message> messages = new ArrayList<>();
+    private List<ReadReceiptDTO> readReceipts = new ArrayList<>();
+    private List<Notification> notifications = new ArrayList<>();
+    private List<String> readNotificationIds = new ArrayList<>();
+    private boolean allNotificationsRead;
+    private List<SyncDeletionDTO> deleted = new ArrayList<>();
+
+    public static SyncResponseDTO reset(String token) {
+        SyncResponseDTO response = new SyncResponseDTO();
+        response.setToken(token);
+        response.setResetRequired(true);
+        return response;
+    }
+}
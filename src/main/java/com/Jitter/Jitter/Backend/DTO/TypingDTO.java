@@ -0,0 +1,21 @@
+package com.Jitter.Jitter.Backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypingDTO {
+    private String type = "typing";
+    private String chatId;
+    private String userId;
+    private boolean typing;
+
+    public TypingDTO(String chatId, String userId, boolean typing) {
+        this.chatId = chatId;
+        this.userId = userId;
+        this.typing = typing;
+    }
+}
@@ -0,0 +1,27 @@
+package com.Jitter.Jitter.Backend.DTO;
+
+import com.Jitter.Jitter.Backend.Models.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummaryDTO {
+    private String id;
+    private String username;
+    private String profilePicture;
+
+    public UserSummaryDTO(User user) {
+        this.id = user.getId();
+        this.username = user.getUsername();
+        this.profilePicture = user.getProfilePicture() != null
+                ? "/users/" + user.getId() + "/profile-picture"
+                : null;
+    }
+
+    public static UserSummaryDTO unknown(String id) {
+        return new UserSummaryDTO(id, "Unknown User", null);
+    }
+}
@@ -0,0 +1,16 @@
+package com.Jitter.Jitter.Backend.Exceptions;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+@ControllerAdvice
+public class LoginRejectedExceptionHandler {
+    @ExceptionHandler(LoginRejectedException.class)
+    public ResponseEntity<String> handleLoginRejected(LoginRejectedException exc) {
+        return ResponseEntity.status(exc.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, exc.getRetryAfterSeconds())))
+                .body(exc.getMessage());
+    }
+}
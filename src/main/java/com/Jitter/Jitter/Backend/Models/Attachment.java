@@ -0,0 +1,43 @@
+package com.Jitter.Jitter.Backend.Models;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+@Data
+@Document(collection = "attachments")
+@CompoundIndex(name = "status_created", def = "{ 'status': 1, 'createdAt': 1 }")
+public class Attachment {
+    @Id
+    private String id;
+
+    private String chatId;
+    private String uploaderId;
+    // The one message this attachment was sent with; null until it is sent.
+    private String messageId;
+    private String fileName;
+    private String contentType;
+    private long size;
+    private int chunkSize;
+    private int chunkCount;
+    private Set<Integer> receivedChunks;
+    private String sha256;
+    private Status status;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+
+    public enum Status {
+        UPLOADING,
+        COMPLETE
+    }
+
+    public Attachment() {
+        this.createdAt = LocalDateTime.now();
+        this.status = Status.UPLOADING;
+        this.receivedChunks = new HashSet<>();
+    }
+}
@@ -0,0 +1,28 @@
+package com.Jitter.Jitter.Backend.Models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "attachment_chunks")
+public class AttachmentChunk {
+    @Id
+    private String id;
+
+    @Indexed
+    private String attachmentId;
+    private int index;
+    private int size;
+    private String sha256;
+    private byte[] data;
+
+    public static String idOf(String attachmentId, int index) {
+        return attachmentId + ":" + index;
+    }
+}
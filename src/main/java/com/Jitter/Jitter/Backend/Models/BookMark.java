@@ -4,9 +4,14 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.util.Date;
+
 @Document(collection = "bookmarks")
+@CompoundIndex(name = "user_post", def = "{ 'userId': 1, 'postId': 1 }", unique = true)
+@CompoundIndex(name = "user_newest", def = "{ 'userId': 1, '_id': -1 }")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,4 +22,6 @@ public class BookMark {
 
     private String userId;
     private String postId;
+
+    private Date createdAt;
 }
@@ -4,7 +4,9 @@ import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @Document(collection = "chats")
@@ -14,13 +16,25 @@ public class Chat {
     
     private List<String> participantIds; 
     private String lastMessageId;
+    private Long lastMessageSeq;
     private LocalDateTime lastMessageTime;
+    private Long lastSeq;
+    private Map<String, Long> readSeqs;
+    private Long archivedThroughSeq;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
     public Chat() {
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
+        this.lastSeq = 0L;
+        this.readSeqs = new HashMap<>();
+    }
+
+    public long unreadCountFor(String userId) {
+        long last = lastSeq != null ? lastSeq : 0L;
+        Long read = readSeqs != null ? readSeqs.get(userId) : null;
+        return Math.max(0L, last - (read != null ? read : 0L));
     }
     
     public Chat(List<String> participantIds) {
@@ -4,11 +4,13 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
 
 @Document(collection = "comments")
+@CompoundIndex(name = "post_created", def = "{ 'postId': 1, 'createdAt': 1 }")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -4,11 +4,14 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
 
 @Document(collection = "likes")
+@CompoundIndex(name = "post_user", def = "{ 'postId': 1, 'userId': 1 }", unique = true)
+@CompoundIndex(name = "user_post", def = "{ 'userId': 1, 'postId': 1 }")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
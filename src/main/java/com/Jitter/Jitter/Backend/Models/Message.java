@@ -2,19 +2,23 @@ package com.Jitter.Jitter.Backend.Models;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
 
 @Data
 @Document(collection = "messages")
+@CompoundIndex(name = "chat_seq", def = "{ 'chatId': 1, 'seq': -1 }")
 public class Message {
     @Id
     private String id;
     
     private String chatId;
+    private Long seq;
     private String senderId;
     private String senderUsername;
     private String content;
+    private String attachmentId;
     private MessageType type;
     private LocalDateTime timestamp;
     private boolean isRead;
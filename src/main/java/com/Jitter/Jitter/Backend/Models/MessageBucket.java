@@ -0,0 +1,35 @@
+package com.Jitter.Jitter.Backend.Models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Document(collection = "message_buckets")
+@CompoundIndexes({
+    @CompoundIndex(name = "chat_start_seq", def = "{ 'chatId': 1, 'startSeq': -1 }"),
+    @CompoundIndex(name = "message_id", def = "{ 'messages._id': 1 }")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageBucket {
+    @Id
+    private String id;
+    private String chatId;
+    private LocalDateTime windowStart;
+    private long startSeq;
+    private long endSeq;
+    // slots used, never decremented, so a bucket that had deletions is not reopened
+    private int count;
+    // messages still in the bucket
+    private int size;
+    private List<Message> messages = new ArrayList<>();
+}
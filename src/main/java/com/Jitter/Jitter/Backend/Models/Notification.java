@@ -4,12 +4,17 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.util.Date;
+import java.util.List;
 
 @Document(collection = "notifications")
+@CompoundIndex(name = "user_created", def = "{ 'userId': 1, 'createdAt': -1, '_id': -1 }")
+@CompoundIndex(name = "open_aggregate", def = "{ 'openKey': 1 }", unique = true, sparse = true)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,6 +30,12 @@ public class Notification {
     private String commentId;
     private String content;
     private boolean read;
+    private int actorCount;
+    private List<String> recentActorIds;
+    // Set only on the aggregate still accepting actors, so there is at most one per recipient, post and type.
+    @JsonIgnore
+    private String openKey;
+    private Date windowStart;
     
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", timezone = "UTC")
     private Date createdAt;
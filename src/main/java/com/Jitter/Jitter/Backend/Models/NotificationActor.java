@@ -0,0 +1,27 @@
+package com.Jitter.Jitter.Backend.Models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+// One actor folded into a coalesced notification; the unique index keeps a repeated action from counting twice.
+@Document(collection = "notification_actors")
+@CompoundIndex(name = "notification_actor", def = "{ 'notificationId': 1, 'actorId': 1 }", unique = true)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationActor {
+
+    @Id
+    private String id;
+
+    private String notificationId;
+    private String actorId;
+
+    private Date createdAt;
+}
@@ -19,6 +19,7 @@ public class Post {
     private String userId;
     private String content;
     private List<Media> image;
+    private Long likeCount;
     private Date createdAt;
     private Date updatedAt;
 }
\ No newline at end of file
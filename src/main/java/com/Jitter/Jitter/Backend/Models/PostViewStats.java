@@ -0,0 +1,21 @@
+package com.Jitter.Jitter.Backend.Models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+@Document(collection = "post_view_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostViewStats {
+    @Id
+    private String id;
+    private byte[] viewers;
+    private long version;
+    private Date updatedAt;
+}
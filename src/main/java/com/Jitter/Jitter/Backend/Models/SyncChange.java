@@ -0,0 +1,45 @@
+package com.Jitter.Jitter.Backend.Models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Document(collection = "sync_changes")
+@CompoundIndex(name = "user_seq", def = "{ 'userId': 1, 'seq': 1 }", unique = true)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncChange {
+    @Id
+    private String id;
+    private String userId;
+    private long seq;
+    private Type type;
+    private String chatId;
+    private String entityId;
+    private String actorId;
+    private Long readSeq;
+    private LocalDateTime at;
+
+    public SyncChange(Type type, String chatId, String entityId, String actorId, Long readSeq) {
+        this.type = type;
+        this.chatId = chatId;
+        this.entityId = entityId;
+        this.actorId = actorId;
+        this.readSeq = readSeq;
+        this.at = LocalDateTime.now();
+    }
+
+    public enum Type {
+        MESSAGE,
+        MESSAGE_DELETED,
+        READ,
+        NOTIFICATION,
+        NOTIFICATION_READ
+    }
+}
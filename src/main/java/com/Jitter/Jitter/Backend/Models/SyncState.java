@@ -0,0 +1,18 @@
+package com.Jitter.Jitter.Backend.Models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// The last sequence handed out for a user; the changes themselves are in sync_changes.
+@Document(collection = "sync_state")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncState {
+    @Id
+    private String id;
+    private long seq;
+}
@@ -0,0 +1,275 @@
+package com.Jitter.Jitter.Backend.Repository;
+
+import com.Jitter.Jitter.Backend.Models.Message;
+import com.Jitter.Jitter.Backend.Models.MessageBucket;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongPredicate;
+import java.util.stream.Stream;
+
+/**
+ * Packs each chat's messages into {@link MessageBucket} documents of at most
+ * {@code capacity} messages from one time window. A run of messages is only pushed
+ * onto the bucket whose {@code endSeq} is directly before it, so bucket sequence
+ * ranges never overlap and history reads walk whole buckets in sequence order.
+ */
+@Repository
+@ConditionalOnProperty(name = "jitter.chat.storage", havingValue = "bucket")
+public class BucketMessageStore implements MessageStore {
+
+    private static final Comparator<Message> BY_SEQ = Comparator.comparing(Message::getSeq);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final int capacity;
+    private final long windowSeconds;
+
+    public BucketMessageStore(@Value("${jitter.chat.bucket.capacity:200}") int capacity,
+                              @Value("${jitter.chat.bucket.window-hours:24}") long windowHours) {
+        this.capacity = capacity;
+        this.windowSeconds = windowHours * 3600;
+    }
+
+    @Override
+    public void insertAll(List<Message> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        Map<String, List<Message>> byChat = new LinkedHashMap<>();
+        for (Message message : messages) {
+            byChat.computeIfAbsent(message.getChatId(), id -> new ArrayList<>()).add(message);
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, MessageBucket.class);
+        for (Map.Entry<String, List<Message>> entry : byChat.entrySet()) {
+            List<Message> chatMessages = entry.getValue();
+            chatMessages.sort(BY_SEQ);
+            List<Message> run = new ArrayList<>();
+            for (Message message : chatMessages) {
+                if (!run.isEmpty()) {
+                    Message previous = run.get(run.size() - 1);
+                    if (run.size() == capacity
+                            || message.getSeq() != previous.getSeq() + 1
+                            || !windowOf(message).equals(windowOf(run.get(0)))) {
+                        appendRun(bulk, entry.getKey(), run);
+                        run = new ArrayList<>();
+                    }
+                }
+                run.add(message);
+            }
+            appendRun(bulk, entry.getKey(), run);
+        }
+        bulk.execute();
+    }
+
+    @Override
+    public Optional<Message> findById(String messageId) {
+        List<Message> messages = findAllById(List.of(messageId));
+        return messages.isEmpty() ? Optional.empty() : Optional.of(messages.get(0));
+    }
+
+    @Override
+    public List<Message> findAllById(Collection<String> messageIds) {
+        if (messageIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Object> keys = messageIds.stream().map(BucketMessageStore::toKey).toList();
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(Criteria.where("messages._id").in(keys)),
+            Aggregation.unwind("messages"),
+            Aggregation.match(Criteria.where("messages._id").in(keys)),
+            Aggregation.replaceRoot("messages"));
+        return new ArrayList<>(mongoTemplate.aggregate(aggregation, MessageBucket.class, Message.class).getMappedResults());
+    }
+
+    @Override
+    public Slice<Message> findLatest(String chatId, int page, int size) {
+        long toSkip = (long) Math.max(0, page) * size;
+        long beforeSeq = Long.MAX_VALUE;
+        if (toSkip > 0) {
+            Query sizes = Query.query(Criteria.where("chatId").is(chatId))
+                .with(Sort.by(Sort.Direction.DESC, "startSeq"));
+            sizes.fields().include("size").include("startSeq");
+            try (Stream<MessageBucket> buckets = mongoTemplate.stream(sizes, MessageBucket.class)) {
+                Iterator<MessageBucket> iterator = buckets.iterator();
+                while (iterator.hasNext()) {
+                    MessageBucket bucket = iterator.next();
+                    if (bucket.getSize() > toSkip) {
+                        break;
+                    }
+                    toSkip -= bucket.getSize();
+                    beforeSeq = bucket.getStartSeq();
+                }
+            }
+        }
+        long before = beforeSeq;
+        Query query = Query.query(Criteria.where("chatId").is(chatId).and("startSeq").lt(before))
+            .with(Sort.by(Sort.Direction.DESC, "startSeq"));
+        return collect(query, (int) toSkip, size, seq -> seq < before, true);
+    }
+
+    @Override
+    public Slice<Message> findBefore(String chatId, long seq, int limit) {
+        Query query = Query.query(Criteria.where("chatId").is(chatId).and("startSeq").lt(seq))
+            .with(Sort.by(Sort.Direction.DESC, "startSeq"));
+        return collect(query, 0, limit, candidate -> candidate < seq, true);
+    }
+
+    @Override
+    public Slice<Message> findAfter(String chatId, long seq, int limit) {
+        Query query = Query.query(Criteria.where("chatId").is(chatId).and("endSeq").gt(seq))
+            .with(Sort.by(Sort.Direction.ASC, "startSeq"));
+        return collect(query, 0, limit, candidate -> candidate > seq, false);
+    }
+
+    @Override
+    public List<Message> findBySeqs(String chatId, Collection<Long> seqs) {
+        if (seqs.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(Criteria.where("chatId").is(chatId).and("messages.seq").in(seqs)),
+            Aggregation.unwind("messages"),
+            Aggregation.match(Criteria.where("messages.seq").in(seqs)),
+            Aggregation.replaceRoot("messages"));
+        return new ArrayList<>(mongoTemplate.aggregate(aggregation, MessageBucket.class, Message.class).getMappedResults());
+    }
+
+    @Override
+    public void delete(Message message) {
+        mongoTemplate.updateFirst(messageQuery(message),
+            new Update().pull("messages", new Document("_id", toKey(message.getId()))).inc("size", -1),
+            MessageBucket.class);
+    }
+
+    @Override
+    public Message edit(Message message, String content) {
+        LocalDateTime editedAt = LocalDateTime.now();
+        UpdateResult result = mongoTemplate.updateFirst(messageQuery(message),
+            new Update().set("messages.$.content", content)
+                .set("messages.$.isEdited", true)
+                .set("messages.$.editedAt", editedAt),
+            MessageBucket.class);
+        if (result.getMatchedCount() == 0) {
+            throw new RuntimeException("Message not found");
+        }
+        message.setContent(content);
+        message.setEdited(true);
+        message.setEditedAt(editedAt);
+        return message;
+    }
+
+    @Override
+    public long count(String chatId) {
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(Criteria.where("chatId").is(chatId)),
+            Aggregation.group("chatId").sum("size").as("total"));
+        Document result = mongoTemplate.aggregate(aggregation, MessageBucket.class, Document.class).getUniqueMappedResult();
+        return result != null ? ((Number) result.get("total")).longValue() : 0L;
+    }
+
+    @Override
+    public void deleteThrough(String chatId, long seq) {
+        mongoTemplate.remove(Query.query(Criteria.where("chatId").is(chatId).and("endSeq").lte(seq)), MessageBucket.class);
+        AggregationExpression remaining = ArrayOperators.Filter.filter("messages").as("m")
+            .by(ComparisonOperators.valueOf("m.seq").greaterThanValue(seq));
+        AggregationUpdate trim = AggregationUpdate.update()
+            .set("messages").toValueOf(remaining)
+            .set("startSeq").toValue(seq + 1)
+            .set("size").toValueOf(ArrayOperators.Size.lengthOfArray("messages"));
+        mongoTemplate.updateMulti(Query.query(Criteria.where("chatId").is(chatId).and("startSeq").lte(seq)), trim, MessageBucket.class);
+    }
+
+    private void appendRun(BulkOperations bulk, String chatId, List<Message> run) {
+        if (run.isEmpty()) {
+            return;
+        }
+        Message first = run.get(0);
+        Message last = run.get(run.size() - 1);
+        Query query = Query.query(Criteria.where("chatId").is(chatId)
+            .and("windowStart").is(windowOf(first))
+            .and("endSeq").is(first.getSeq() - 1)
+            .and("count").lte(capacity - run.size()));
+        Update update = new Update()
+            .push("messages").each(run.toArray())
+            .inc("count", run.size())
+            .inc("size", run.size())
+            .min("startSeq", first.getSeq())
+            .set("endSeq", last.getSeq());
+        bulk.upsert(query, update);
+    }
+
+    private Slice<Message> collect(Query query, int skip, int limit, LongPredicate accept, boolean descending) {
+        List<Message> content = new ArrayList<>(limit + 1);
+        int toSkip = skip;
+        try (Stream<MessageBucket> buckets = mongoTemplate.stream(query, MessageBucket.class)) {
+            Iterator<MessageBucket> iterator = buckets.iterator();
+            while (iterator.hasNext() && content.size() <= limit) {
+                List<Message> messages = new ArrayList<>(iterator.next().getMessages());
+                messages.sort(descending ? BY_SEQ.reversed() : BY_SEQ);
+                for (Message message : messages) {
+                    if (!accept.test(message.getSeq())) {
+                        continue;
+                    }
+                    if (toSkip > 0) {
+                        toSkip--;
+                        continue;
+                    }
+                    content.add(message);
+                    if (content.size() > limit) {
+                        break;
+                    }
+                }
+            }
+        }
+        boolean hasNext = content.size() > limit;
+        if (hasNext) {
+            content = new ArrayList<>(content.subList(0, limit));
+        }
+        return new SliceImpl<>(content, PageRequest.of(0, Math.max(1, limit)), hasNext);
+    }
+
+    private Query messageQuery(Message message) {
+        return Query.query(Criteria.where("chatId").is(message.getChatId()).and("messages._id").is(toKey(message.getId())));
+    }
+
+    private LocalDateTime windowOf(Message message) {
+        long epochSeconds = message.getTimestamp().toEpochSecond(ZoneOffset.UTC);
+        return LocalDateTime.ofEpochSecond(epochSeconds - Math.floorMod(epochSeconds, windowSeconds), 0, ZoneOffset.UTC);
+    }
+
+    private static Object toKey(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+}
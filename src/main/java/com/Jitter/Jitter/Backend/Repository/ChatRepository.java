@@ -16,6 +16,6 @@ public interface ChatRepository extends MongoRepository<Chat, String> {
     @Query("{ 'participantIds': { $all: [?0, ?1], $size: 2 } }")
     Optional<Chat> findByParticipantIds(String userId1, String userId2);
     
-    @Query("{ 'participantIds': ?0 }")
+    @Query(value = "{ 'participantIds': ?0 }", sort = "{ 'lastMessageTime': -1 }")
     List<Chat> findByParticipantIdsContainingOrderByLastMessageTimeDesc(String userId);
 } 
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.Jitter.Jitter.Backend.Repository;
+
+import com.Jitter.Jitter.Backend.Models.Message;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@ConditionalOnProperty(name = "jitter.chat.storage", havingValue = "document", matchIfMissing = true)
+public class DocumentMessageStore implements MessageStore {
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void insertAll(List<Message> messages) {
+        mongoTemplate.insert(messages, Message.class);
+    }
+
+    @Override
+    public Optional<Message> findById(String messageId) {
+        return messageRepository.findById(messageId);
+    }
+
+    @Override
+    public List<Message> findAllById(Collection<String> messageIds) {
+        List<Message> messages = new ArrayList<>(messageIds.size());
+        messageRepository.findAllById(messageIds).forEach(messages::add);
+        return messages;
+    }
+
+    @Override
+    public Slice<Message> findLatest(String chatId, int page, int size) {
+        return messageRepository.findByChatIdOrderBySeqDesc(chatId, PageRequest.of(page, size));
+    }
+
+    @Override
+    public Slice<Message> findBefore(String chatId, long seq, int limit) {
+        return messageRepository.findByChatIdAndSeqLessThanOrderBySeqDesc(chatId, seq, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public Slice<Message> findAfter(String chatId, long seq, int limit) {
+        return messageRepository.findByChatIdAndSeqGreaterThanOrderBySeqAsc(chatId, seq, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public List<Message> findBySeqs(String chatId, Collection<Long> seqs) {
+        if (seqs.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return mongoTemplate.find(Query.query(Criteria.where("chatId").is(chatId).and("seq").in(seqs)), Message.class);
+    }
+
+    @Override
+    public void delete(Message message) {
+        messageRepository.delete(message);
+    }
+
+    @Override
+    public Message edit(Message message, String content) {
+        LocalDateTime editedAt = LocalDateTime.now();
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(message.getId())),
+            new Update().set("content", content).set("isEdited", true).set("editedAt", editedAt), Message.class);
+        message.setContent(content);
+        message.setEdited(true);
+        message.setEditedAt(editedAt);
+        return message;
+    }
+
+    @Override
+    public long count(String chatId) {
+        return mongoTemplate.count(Query.query(Criteria.where("chatId").is(chatId)), Message.class);
+    }
+
+    @Override
+    public void deleteThrough(String chatId, long seq) {
+        mongoTemplate.remove(Query.query(Criteria.where("chatId").is(chatId).and("seq").lte(seq)), Message.class);
+    }
+}
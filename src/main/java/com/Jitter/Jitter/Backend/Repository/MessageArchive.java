@@ -0,0 +1,316 @@
+package com.Jitter.Jitter.Backend.Repository;
+
+import com.Jitter.Jitter.Backend.Models.Message;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Cold chat history on disk. Every chat has an append-only segment file of
+ * deflate-compressed blocks of messages in sequence order, plus a sparse index with
+ * one fixed-size entry per block (first seq, last seq, offset, length). The chat's
+ * {@code archivedThroughSeq} is the commit point: index entries past it belong to an
+ * interrupted run, are ignored by readers and are cut off before the next append.
+ * Because that commit point is shared through Mongo, the directory must be the same
+ * volume on every node; a marker file lets {@code ChatArchiveJob} check this at startup.
+ */
+@Repository
+public class MessageArchive {
+
+    private static final int INDEX_ENTRY_BYTES = 28;
+    private static final String MARKER_FILE = "archive.marker";
+    private static final TypeReference<List<Message>> MESSAGE_LIST = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+
+    public MessageArchive(ObjectMapper objectMapper,
+                          @Value("${jitter.chat.archive.dir:chat-archive}") String directory) {
+        this.objectMapper = objectMapper;
+        this.directory = Paths.get(directory);
+    }
+
+    public Path getDirectory() {
+        return directory.toAbsolutePath();
+    }
+
+    /**
+     * The token in this directory's marker file, creating the marker if there is none.
+     * The marker is linked into place, so nodes racing on a shared volume all end up
+     * with the first one written.
+     */
+    public String volumeToken() throws IOException {
+        Path marker = directory.resolve(MARKER_FILE);
+        if (!Files.exists(marker)) {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, MARKER_FILE, ".tmp");
+            try {
+                Files.writeString(temp, UUID.randomUUID().toString());
+                Files.createLink(marker, temp);
+            } catch (FileAlreadyExistsException e) {
+                // Another node created it first.
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        return Files.readString(marker).trim();
+    }
+
+    public synchronized void append(String chatId, long archivedThroughSeq, List<Message> messages, int blockSize) throws IOException {
+        Files.createDirectories(directory);
+        List<IndexEntry> committed = readIndex(chatId, archivedThroughSeq);
+        long segmentEnd = committed.isEmpty() ? 0 : committed.get(committed.size() - 1).end();
+
+        List<IndexEntry> appended = new ArrayList<>();
+        try (FileChannel segment = FileChannel.open(segmentPath(chatId), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            segment.truncate(segmentEnd);
+            long position = segmentEnd;
+            for (int from = 0; from < messages.size(); from += blockSize) {
+                List<Message> block = messages.subList(from, Math.min(messages.size(), from + blockSize));
+                byte[] compressed = compress(objectMapper.writeValueAsBytes(block));
+                writeFully(segment, ByteBuffer.wrap(compressed), position);
+                appended.add(new IndexEntry(block.get(0).getSeq(), block.get(block.size() - 1).getSeq(), position, compressed.length));
+                position += compressed.length;
+            }
+            segment.force(true);
+        }
+
+        try (FileChannel index = FileChannel.open(indexPath(chatId), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long indexEnd = (long) committed.size() * INDEX_ENTRY_BYTES;
+            index.truncate(indexEnd);
+            ByteBuffer buffer = ByteBuffer.allocate(appended.size() * INDEX_ENTRY_BYTES);
+            for (IndexEntry entry : appended) {
+                buffer.putLong(entry.firstSeq()).putLong(entry.lastSeq()).putLong(entry.offset()).putInt(entry.length());
+            }
+            buffer.flip();
+            writeFully(index, buffer, indexEnd);
+            index.force(true);
+        }
+    }
+
+    public List<Message> readBefore(String chatId, long archivedThroughSeq, long beforeSeq, long skip, int limit) {
+        List<Message> result = new ArrayList<>();
+        if (archivedThroughSeq <= 0 || limit <= 0) {
+            return result;
+        }
+        List<IndexEntry> entries = readIndexQuietly(chatId, archivedThroughSeq);
+        long toSkip = skip;
+        try (FileChannel segment = openSegment(chatId, entries)) {
+            for (int i = entries.size() - 1; i >= 0 && result.size() < limit; i--) {
+                IndexEntry entry = entries.get(i);
+                if (entry.firstSeq() >= beforeSeq) {
+                    continue;
+                }
+                List<Message> block = readBlock(segment, entry);
+                block.sort(Comparator.comparing(Message::getSeq).reversed());
+                for (Message message : block) {
+                    if (message.getSeq() >= beforeSeq) {
+                        continue;
+                    }
+                    if (toSkip > 0) {
+                        toSkip--;
+                        continue;
+                    }
+                    result.add(message);
+                    if (result.size() == limit) {
+                        break;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archived messages", e);
+        }
+        return result;
+    }
+
+    public List<Message> readAfter(String chatId, long archivedThroughSeq, long afterSeq, int limit) {
+        List<Message> result = new ArrayList<>();
+        if (archivedThroughSeq <= afterSeq || limit <= 0) {
+            return result;
+        }
+        List<IndexEntry> entries = readIndexQuietly(chatId, archivedThroughSeq);
+        try (FileChannel segment = openSegment(chatId, entries)) {
+            for (int i = 0; i < entries.size() && result.size() < limit; i++) {
+                IndexEntry entry = entries.get(i);
+                if (entry.lastSeq() <= afterSeq) {
+                    continue;
+                }
+                List<Message> block = readBlock(segment, entry);
+                block.sort(Comparator.comparing(Message::getSeq));
+                for (Message message : block) {
+                    if (message.getSeq() <= afterSeq) {
+                        continue;
+                    }
+                    result.add(message);
+                    if (result.size() == limit) {
+                        break;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archived messages", e);
+        }
+        return result;
+    }
+
+    public List<Message> readSeqs(String chatId, long archivedThroughSeq, Collection<Long> seqs) {
+        List<Message> result = new ArrayList<>();
+        if (archivedThroughSeq <= 0 || seqs.isEmpty()) {
+            return result;
+        }
+        Set<Long> wanted = new HashSet<>(seqs);
+        List<IndexEntry> entries = readIndexQuietly(chatId, archivedThroughSeq);
+        try (FileChannel segment = openSegment(chatId, entries)) {
+            for (IndexEntry entry : entries) {
+                if (!containsAny(wanted, entry)) {
+                    continue;
+                }
+                for (Message message : readBlock(segment, entry)) {
+                    if (wanted.contains(message.getSeq())) {
+                        result.add(message);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archived messages", e);
+        }
+        return result;
+    }
+
+    private static boolean containsAny(Set<Long> seqs, IndexEntry entry) {
+        for (Long seq : seqs) {
+            if (seq >= entry.firstSeq() && seq <= entry.lastSeq()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private FileChannel openSegment(String chatId, List<IndexEntry> entries) throws IOException {
+        return entries.isEmpty() ? null : FileChannel.open(segmentPath(chatId), StandardOpenOption.READ);
+    }
+
+    private List<Message> readBlock(FileChannel segment, IndexEntry entry) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(entry.length());
+        long position = entry.offset();
+        while (buffer.hasRemaining()) {
+            int read = segment.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Archive segment is shorter than its index");
+            }
+            position += read;
+        }
+        return new ArrayList<>(objectMapper.readValue(decompress(buffer.array()), MESSAGE_LIST));
+    }
+
+    private List<IndexEntry> readIndexQuietly(String chatId, long archivedThroughSeq) {
+        try {
+            return readIndex(chatId, archivedThroughSeq);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archive index", e);
+        }
+    }
+
+    private List<IndexEntry> readIndex(String chatId, long archivedThroughSeq) throws IOException {
+        Path path = indexPath(chatId);
+        List<IndexEntry> entries = new ArrayList<>();
+        if (!Files.exists(path)) {
+            return entries;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        while (buffer.remaining() >= INDEX_ENTRY_BYTES) {
+            IndexEntry entry = new IndexEntry(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getInt());
+            if (entry.lastSeq() > archivedThroughSeq) {
+                break;
+            }
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    private Path segmentPath(String chatId) {
+        return directory.resolve(safeName(chatId) + ".seg");
+    }
+
+    private Path indexPath(String chatId) {
+        return directory.resolve(safeName(chatId) + ".idx");
+    }
+
+    private static String safeName(String chatId) {
+        if (chatId == null || !chatId.matches("[A-Za-z0-9_-]+")) {
+            throw new IllegalArgumentException("Invalid chat id");
+        }
+        return chatId;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static byte[] compress(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] decompress(byte[] data) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] chunk = new byte[8192];
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(chunk);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated archive block");
+                }
+                out.write(chunk, 0, inflated);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt archive block", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private record IndexEntry(long firstSeq, long lastSeq, long offset, int length) {
+        long end() {
+            return offset + length;
+        }
+    }
+}
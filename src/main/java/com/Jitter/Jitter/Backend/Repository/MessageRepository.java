@@ -3,6 +3,7 @@ package com.Jitter.Jitter.Backend.Repository;
 import com.Jitter.Jitter.Backend.Models.Message;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -17,9 +18,12 @@ public interface MessageRepository extends MongoRepository<Message, String> {
     
     Message findTopByChatIdOrderByTimestampDesc(String chatId);
     
-    @Query("{ 'chatId': ?0, 'senderId': { $ne: ?1 }, 'isRead': false }")
-    long countUnreadMessages(String chatId, String userId);
+    Slice<Message> findByChatIdOrderBySeqDesc(String chatId, Pageable pageable);
     
-    @Query("{ 'chatId': ?0, 'senderId': { $ne: ?1 }, 'isRead': false }")
-    List<Message> findUnreadMessagesInChat(String chatId, String userId);
+    Slice<Message> findByChatIdAndSeqLessThanOrderBySeqDesc(String chatId, long seq, Pageable pageable);
+    
+    Slice<Message> findByChatIdAndSeqGreaterThanOrderBySeqAsc(String chatId, long seq, Pageable pageable);
+    
+    @Query(value = "{ 'chatId': ?0 }", fields = "{ 'senderId': 1, 'timestamp': 1, 'isRead': 1 }", sort = "{ 'timestamp': 1, '_id': 1 }")
+    List<Message> findSequenceStubsByChatId(String chatId);
 } 
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.Jitter.Jitter.Backend.Repository;
+
+import com.Jitter.Jitter.Backend.Models.Message;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage for chat messages. History is addressed by the per-chat sequence:
+ * {@link #findLatest} and {@link #findBefore} return newest first, {@link #findAfter}
+ * oldest first. The layout is chosen with {@code jitter.chat.storage}.
+ */
+public interface MessageStore {
+
+    void insertAll(List<Message> messages);
+
+    Optional<Message> findById(String messageId);
+
+    List<Message> findAllById(Collection<String> messageIds);
+
+    Slice<Message> findLatest(String chatId, int page, int size);
+
+    Slice<Message> findBefore(String chatId, long seq, int limit);
+
+    Slice<Message> findAfter(String chatId, long seq, int limit);
+
+    List<Message> findBySeqs(String chatId, Collection<Long> seqs);
+
+    void delete(Message message);
+
+    Message edit(Message message, String content);
+
+    long count(String chatId);
+
+    void deleteThrough(String chatId, long seq);
+}
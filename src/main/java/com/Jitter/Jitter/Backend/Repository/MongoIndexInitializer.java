@@ -0,0 +1,115 @@
+package com.Jitter.Jitter.Backend.Repository;
+
+import com.Jitter.Jitter.Backend.Models.Attachment;
+import com.Jitter.Jitter.Backend.Models.AttachmentChunk;
+import com.Jitter.Jitter.Backend.Models.BookMark;
+import com.Jitter.Jitter.Backend.Models.Comment;
+import com.Jitter.Jitter.Backend.Models.Like;
+import com.Jitter.Jitter.Backend.Models.Message;
+import com.Jitter.Jitter.Backend.Models.MessageBucket;
+import com.Jitter.Jitter.Backend.Models.Notification;
+import com.Jitter.Jitter.Backend.Models.NotificationActor;
+import com.Jitter.Jitter.Backend.Models.SyncChange;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Component
+@DependsOn("likeCountMigration")
+public class MongoIndexInitializer {
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexInitializer.class);
+
+    private static final List<Class<?>> INDEXED_TYPES = List.of(
+        Message.class,
+        MessageBucket.class,
+        Attachment.class,
+        AttachmentChunk.class,
+        Notification.class,
+        NotificationActor.class,
+        Like.class,
+        BookMark.class,
+        Comment.class,
+        SyncChange.class
+    );
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoMappingContext mappingContext;
+
+    /**
+     * A unique index cannot be built over existing duplicates, and without it the
+     * services relying on DuplicateKeyException would keep creating them, so duplicates
+     * are removed first (keeping the oldest document) and a unique index that still
+     * fails stops startup. Other index failures are only logged. Duplicates whose
+     * removal has side effects, such as likes already counted in {@code likeCount},
+     * are removed by their own migration, which runs before this.
+     */
+    @PostConstruct
+    public void ensureIndexes() {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        for (Class<?> type : INDEXED_TYPES) {
+            IndexOperations indexOps = mongoTemplate.indexOps(type);
+            Set<String> existing = new HashSet<>();
+            indexOps.getIndexInfo().forEach(info -> existing.add(info.getName()));
+            resolver.resolveIndexFor(type).forEach(index -> {
+                boolean unique = index.getIndexOptions().getBoolean("unique", false);
+                try {
+                    if (unique && !existing.contains(index.getIndexOptions().getString("name"))) {
+                        removeDuplicates(type, index.getIndexKeys().keySet(), index.getIndexOptions().getBoolean("sparse", false));
+                    }
+                    indexOps.ensureIndex(index);
+                } catch (Exception e) {
+                    if (unique) {
+                        throw new IllegalStateException("Failed to create unique index " + index.getIndexKeys()
+                            + " on " + type.getSimpleName(), e);
+                    }
+                    logger.error("Failed to create index {} on {}", index.getIndexKeys(), type.getSimpleName(), e);
+                }
+            });
+        }
+    }
+
+    // A sparse index skips documents that have none of its keys, so only the others can collide.
+    private void removeDuplicates(Class<?> type, Set<String> keys, boolean sparse) {
+        Criteria indexed = new Criteria();
+        if (sparse) {
+            indexed = new Criteria().orOperator(keys.stream().map(key -> Criteria.where(key).exists(true)).toArray(Criteria[]::new));
+        }
+        Aggregation duplicates = Aggregation.newAggregation(
+            Aggregation.match(indexed),
+            Aggregation.sort(Sort.Direction.ASC, "_id"),
+            Aggregation.group(keys.toArray(String[]::new)).push("_id").as("ids").count().as("count"),
+            Aggregation.match(Criteria.where("count").gt(1)))
+            .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+        long removed = 0;
+        for (Document group : mongoTemplate.aggregate(duplicates, type, Document.class)) {
+            List<Object> ids = group.getList("ids", Object.class);
+            Query extra = Query.query(Criteria.where("_id").in(ids.subList(1, ids.size())));
+            removed += mongoTemplate.remove(extra, type).getDeletedCount();
+        }
+        if (removed > 0) {
+            logger.warn("Removed {} duplicate {} documents before building a unique index on {}", removed, type.getSimpleName(), keys);
+        }
+    }
+}
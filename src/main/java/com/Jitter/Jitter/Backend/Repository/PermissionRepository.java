@@ -2,9 +2,11 @@ package com.Jitter.Jitter.Backend.Repository;
 
 import com.Jitter.Jitter.Backend.Models.Permission;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import java.util.List;
 import java.util.Optional;
 
 public interface PermissionRepository extends MongoRepository<Permission, String> {
 
     Optional<Permission> findByType(String type);
+    List<Permission> findByUserId(String userId);
 }
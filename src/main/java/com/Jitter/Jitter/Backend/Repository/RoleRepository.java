@@ -10,4 +10,5 @@ public interface RoleRepository extends MongoRepository<Role, String> {
 
     Optional<Role> findByType(String type);
     List<Role> findByUserId(String userId);
+    boolean existsByType(String type);
 }
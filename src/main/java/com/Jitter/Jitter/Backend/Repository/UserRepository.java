@@ -2,11 +2,20 @@ package com.Jitter.Jitter.Backend.Repository;
 
 import com.Jitter.Jitter.Backend.Models.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends MongoRepository<User, String> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
+
+    @Query(value = "{ '_id': { $in: ?0 } }", fields = "{ 'username': 1, 'profilePicture.fileName': 1, 'profilePicture.type': 1 }")
+    List<User> findSummariesByIdIn(Collection<String> ids);
+
+    @Query(value = "{ 'username': { $in: ?0 } }", fields = "{ 'username': 1, 'profilePicture.fileName': 1, 'profilePicture.type': 1 }")
+    List<User> findSummariesByUsernameIn(Collection<String> usernames);
 }
\ No newline at end of file
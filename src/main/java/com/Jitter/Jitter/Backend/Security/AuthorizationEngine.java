@@ -0,0 +1,95 @@
+package com.Jitter.Jitter.Backend.Security;
+
+import com.Jitter.Jitter.Backend.Models.Permission;
+import com.Jitter.Jitter.Backend.Models.Role;
+import com.Jitter.Jitter.Backend.Repository.PermissionRepository;
+import com.Jitter.Jitter.Backend.Repository.RoleRepository;
+import com.Jitter.Jitter.Backend.Service.UserIdentityCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compiles each user's roles and permissions into a single {@link Privilege}
+ * bit mask the first time it is needed. Every later check is a bit test against
+ * the cached mask until a role or permission write on this node invalidates it.
+ * Masks expire after {@code jitter.auth.privileges.ttl-seconds}, so grants and
+ * revocations made on other nodes take effect within that time.
+ */
+@Service
+public class AuthorizationEngine {
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+
+    private final Map<String, Entry> privilegesByUserId = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final long ttlMs;
+
+    public AuthorizationEngine(@Value("${jitter.auth.privileges.ttl-seconds:30}") long ttlSeconds) {
+        this.ttlMs = ttlSeconds * 1000;
+    }
+
+    public boolean hasPrivilege(String userId, Privilege privilege) {
+        return userId != null && (privilegesOf(userId) & privilege.mask()) != 0;
+    }
+
+    public boolean hasAllPrivileges(String userId, Privilege... privileges) {
+        long required = Privilege.maskOf(privileges);
+        return userId != null && (privilegesOf(userId) & required) == required;
+    }
+
+    public boolean hasAllPrivilegesByUsername(String username, Privilege... privileges) {
+        String userId = resolveUserId(username);
+        return userId != null && hasAllPrivileges(userId, privileges);
+    }
+
+    public long privilegesOf(String userId) {
+        Entry cached = privilegesByUserId.get(userId);
+        long now = System.currentTimeMillis();
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.mask();
+        }
+        long observedGeneration = generation.get();
+        long compiled = compile(userId);
+        if (generation.get() == observedGeneration) {
+            privilegesByUserId.put(userId, new Entry(compiled, now + ttlMs));
+        }
+        return compiled;
+    }
+
+    public void invalidate(String userId) {
+        generation.incrementAndGet();
+        if (userId != null) {
+            privilegesByUserId.remove(userId);
+        }
+    }
+
+    private long compile(String userId) {
+        long mask = 0L;
+        for (Role role : roleRepository.findByUserId(userId)) {
+            mask |= Privilege.forRole(role.getType());
+        }
+        for (Permission permission : permissionRepository.findByUserId(userId)) {
+            mask |= Privilege.forPermission(permission.getType());
+        }
+        return mask;
+    }
+
+    private String resolveUserId(String username) {
+        return userIdentityCache.getUserIdByUsername(username);
+    }
+
+    private record Entry(long mask, long expiresAt) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.Jitter.Jitter.Backend.Security;
+
+import com.Jitter.Jitter.Backend.Exceptions.LoginRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class LoginRateLimiter {
+
+    private final Map<String, TokenBucket> usernameBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> ipBuckets = new ConcurrentHashMap<>();
+
+    private final int usernameCapacity;
+    private final double usernameRefillPerNano;
+    private final int ipCapacity;
+    private final double ipRefillPerNano;
+    private final Counter usernameRejections;
+    private final Counter ipRejections;
+
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${jitter.auth.throttle.username.capacity:5}") int usernameCapacity,
+                            @Value("${jitter.auth.throttle.username.refill-per-minute:5}") double usernameRefillPerMinute,
+                            @Value("${jitter.auth.throttle.ip.capacity:20}") int ipCapacity,
+                            @Value("${jitter.auth.throttle.ip.refill-per-minute:30}") double ipRefillPerMinute) {
+        this.usernameCapacity = usernameCapacity;
+        this.usernameRefillPerNano = usernameRefillPerMinute / TimeUnit.MINUTES.toNanos(1);
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerNano = ipRefillPerMinute / TimeUnit.MINUTES.toNanos(1);
+        this.usernameRejections = Counter.builder("jitter.auth.rejections")
+                .tag("reason", "username_throttled")
+                .register(meterRegistry);
+        this.ipRejections = Counter.builder("jitter.auth.rejections")
+                .tag("reason", "ip_throttled")
+                .register(meterRegistry);
+    }
+
+    public void checkLogin(String username, String ip) {
+        checkIp(ip);
+        if (username == null || username.isEmpty()) {
+            return;
+        }
+        TokenBucket bucket = usernameBuckets.computeIfAbsent(username.toLowerCase(Locale.ROOT),
+                key -> new TokenBucket(usernameCapacity, usernameRefillPerNano));
+        long waitNanos = bucket.tryConsume();
+        if (waitNanos > 0) {
+            usernameRejections.increment();
+            throw new LoginRejectedException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many login attempts for this account, please try again later",
+                    TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+        }
+    }
+
+    public void checkIp(String ip) {
+        if (ip == null || ip.isEmpty()) {
+            return;
+        }
+        TokenBucket bucket = ipBuckets.computeIfAbsent(ip, key -> new TokenBucket(ipCapacity, ipRefillPerNano));
+        long waitNanos = bucket.tryConsume();
+        if (waitNanos > 0) {
+            ipRejections.increment();
+            throw new LoginRejectedException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many requests, please try again later",
+                    TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+        }
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        usernameBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        ipBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    private static class TokenBucket {
+        private final int capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(int capacity, double refillPerNano) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerNano;
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        synchronized long tryConsume() {
+            refill(System.nanoTime());
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / refillPerNano);
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+        }
+    }
+}
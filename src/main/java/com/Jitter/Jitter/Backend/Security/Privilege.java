@@ -0,0 +1,46 @@
+package com.Jitter.Jitter.Backend.Security;
+
+import java.util.Locale;
+
+public enum Privilege {
+    MODERATE_COMMENTS,
+    MODERATE_POSTS,
+    MANAGE_USERS,
+    MANAGE_ROLES,
+    MANAGE_PERMISSIONS;
+
+    public long mask() {
+        return 1L << ordinal();
+    }
+
+    public static long maskOf(Privilege... privileges) {
+        long mask = 0L;
+        for (Privilege privilege : privileges) {
+            mask |= privilege.mask();
+        }
+        return mask;
+    }
+
+    public static long forRole(String roleType) {
+        if (roleType == null) {
+            return 0L;
+        }
+        switch (roleType.toUpperCase(Locale.ROOT)) {
+            case "ADMIN":
+                return maskOf(values());
+            default:
+                return 0L;
+        }
+    }
+
+    public static long forPermission(String permissionType) {
+        if (permissionType == null) {
+            return 0L;
+        }
+        try {
+            return valueOf(permissionType.toUpperCase(Locale.ROOT)).mask();
+        } catch (IllegalArgumentException e) {
+            return 0L;
+        }
+    }
+}
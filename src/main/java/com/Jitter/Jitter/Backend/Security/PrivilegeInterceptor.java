@@ -0,0 +1,50 @@
+package com.Jitter.Jitter.Backend.Security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+@Component
+public class PrivilegeInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private AuthorizationEngine authorizationEngine;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+
+        RequiresPrivilege requirement = handlerMethod.getMethodAnnotation(RequiresPrivilege.class);
+        if (requirement == null) {
+            requirement = handlerMethod.getBeanType().getAnnotation(RequiresPrivilege.class);
+        }
+        if (requirement == null) {
+            return true;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setContentType("application/json");
+            response.getWriter().write("{\"message\": \"Unauthorized access\", \"redirect\": \"/login\"}");
+            return false;
+        }
+
+        if (!authorizationEngine.hasAllPrivilegesByUsername(authentication.getName(), requirement.value())) {
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            response.setContentType("application/json");
+            response.getWriter().write("{\"message\": \"You don't have permission to perform this action\"}");
+            return false;
+        }
+        return true;
+    }
+}
@@ -16,6 +16,7 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
@@ -28,6 +29,9 @@ public class SecurityConfig {
     @Autowired
     private JWTAuthEntryPoint authEntryPoint;
 
+    @Autowired
+    private PrivilegeInterceptor privilegeInterceptor;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -43,6 +47,10 @@ public class SecurityConfig {
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/actuator/metrics/**").hasAuthority("ADMIN")
+                        // These resolve the caller from the principal, so anonymous requests get a 401 instead of failing.
+                        .requestMatchers("/posts/viewer-state", "/posts/views", "/bookmarks/me",
+                                "/likes/notifications/unread/count/**", "/sync").authenticated()
                         .requestMatchers("/**").permitAll()
                 )
                 .httpBasic(Customizer.withDefaults())
@@ -74,9 +82,14 @@ public class SecurityConfig {
                         .allowedOrigins("http://localhost:3000")
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS", "HEAD")
                         .allowedHeaders("*")
-                        .exposedHeaders("Content-Disposition", "Content-Type")
+                        .exposedHeaders("Content-Disposition", "Content-Type", "Retry-After")
                         .allowCredentials(true);
             }
+
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(privilegeInterceptor);
+            }
         };
     }
 }
\ No newline at end of file
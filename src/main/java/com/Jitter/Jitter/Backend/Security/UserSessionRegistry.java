@@ -0,0 +1,76 @@
+package com.Jitter.Jitter.Backend.Security;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class UserSessionRegistry {
+
+    private final Map<String, Set<String>> sessionsByUserId = new ConcurrentHashMap<>();
+    private final Map<String, String> userIdsBySession = new ConcurrentHashMap<>();
+
+    public void register(String sessionId, String userId) {
+        if (sessionId == null || userId == null) {
+            return;
+        }
+        String previous = userIdsBySession.put(sessionId, userId);
+        if (previous != null && !previous.equals(userId)) {
+            removeSession(previous, sessionId);
+        }
+        sessionsByUserId.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(sessionId);
+    }
+
+    public String unregister(String sessionId) {
+        if (sessionId == null) {
+            return null;
+        }
+        String userId = userIdsBySession.remove(sessionId);
+        if (userId != null) {
+            removeSession(userId, sessionId);
+        }
+        return userId;
+    }
+
+    public Set<String> getSessions(String userId) {
+        Set<String> sessions = sessionsByUserId.get(userId);
+        return sessions != null ? Collections.unmodifiableSet(sessions) : Collections.emptySet();
+    }
+
+    public String getUserId(String sessionId) {
+        return sessionId != null ? userIdsBySession.get(sessionId) : null;
+    }
+
+    public boolean isConnected(String userId) {
+        Set<String> sessions = sessionsByUserId.get(userId);
+        return sessions != null && !sessions.isEmpty();
+    }
+
+    public int getSessionCount() {
+        return userIdsBySession.size();
+    }
+
+    public int getUserCount() {
+        return sessionsByUserId.size();
+    }
+
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        unregister(event.getSessionId());
+    }
+
+    private void removeSession(String userId, String sessionId) {
+        sessionsByUserId.computeIfPresent(userId, (id, sessions) -> {
+            sessions.remove(sessionId);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+}
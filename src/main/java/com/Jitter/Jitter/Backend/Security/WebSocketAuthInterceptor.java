@@ -1,5 +1,6 @@
 package com.Jitter.Jitter.Backend.Security;
 
+import com.Jitter.Jitter.Backend.Service.UserIdentityCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.Nullable;
 import org.springframework.messaging.Message;
@@ -21,6 +22,12 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
     @Autowired
     private CustomeUserDetailsService userDetailsService;
 
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+
+    @Autowired
+    private UserSessionRegistry sessionRegistry;
+
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
         StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
@@ -40,6 +47,7 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
                         UsernamePasswordAuthenticationToken authentication = 
                             new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                         accessor.setUser(authentication);
+                        registerSession(accessor, userDetails.getUsername());
                     } catch (Exception e) {
                     }
                 } else {
@@ -50,6 +58,7 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
                     UsernamePasswordAuthenticationToken authentication = 
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                     accessor.setUser(authentication);
+                    registerSession(accessor, userDetails.getUsername());
                 } catch (Exception e) {
                 }
             } else {
@@ -59,4 +68,12 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
         
         return message;
     }
+
+    // A session stays bound to this id, so the mapping is checked against the database rather than the cache.
+    private void registerSession(StompHeaderAccessor accessor, String username) {
+        String userId = userIdentityCache.getVerifiedUserIdByUsername(username);
+        if (userId != null) {
+            sessionRegistry.register(accessor.getSessionId(), userId);
+        }
+    }
 } 
\ No newline at end of file
@@ -1,12 +1,15 @@
 package com.Jitter.Jitter.Backend.Security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
@@ -15,6 +18,30 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Autowired
     private WebSocketAuthInterceptor webSocketAuthInterceptor;
 
+    @Autowired
+    private WebSocketMetrics webSocketMetrics;
+
+    @Value("${jitter.ws.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${jitter.ws.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${jitter.ws.message-size-limit:65536}")
+    private int messageSizeLimit;
+
+    @Value("${jitter.ws.inbound.threads:8}")
+    private int inboundThreads;
+
+    @Value("${jitter.ws.inbound.queue-capacity:1000}")
+    private int inboundQueueCapacity;
+
+    @Value("${jitter.ws.outbound.threads:16}")
+    private int outboundThreads;
+
+    @Value("${jitter.ws.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         config.enableSimpleBroker("/topic", "/queue");
@@ -28,8 +55,36 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .withSockJS();
     }
 
+    // A session that stays over the buffer or time limit is closed with SESSION_NOT_RELIABLE
+    // instead of holding an outbound thread and queueing frames without bound.
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setMessageSizeLimit(messageSizeLimit)
+                .addDecoratorFactory(webSocketMetrics);
+    }
+
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
         registration.interceptors(webSocketAuthInterceptor);
+        registration.taskExecutor(channelExecutor("inbound", inboundThreads, inboundQueueCapacity));
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(webSocketMetrics);
+        registration.taskExecutor(channelExecutor("outbound", outboundThreads, outboundQueueCapacity));
+    }
+
+    private ThreadPoolTaskExecutor channelExecutor(String channel, int threads, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("ws-" + channel + "-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setAllowCoreThreadTimeOut(true);
+        webSocketMetrics.monitor(channel, executor);
+        return executor;
     }
-} 
\ No newline at end of file
+}
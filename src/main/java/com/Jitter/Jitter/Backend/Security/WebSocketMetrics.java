@@ -0,0 +1,99 @@
+package com.Jitter.Jitter.Backend.Security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Meters the STOMP transport: open sessions, channel executor backlog, time spent
+ * writing each outbound frame, frames that could not be queued or written, and
+ * sessions closed because they fell behind the send buffer or time limit.
+ */
+@Component
+public class WebSocketMetrics implements ExecutorChannelInterceptor, WebSocketHandlerDecoratorFactory {
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketMetrics.class);
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger openSessions = new AtomicInteger();
+    private final Counter slowConsumerEvictions;
+    private final Counter droppedFrames;
+    private final Timer sendLatency;
+    private final ThreadLocal<long[]> handleStart = ThreadLocal.withInitial(() -> new long[1]);
+
+    public WebSocketMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.slowConsumerEvictions = Counter.builder("jitter.ws.evictions").register(meterRegistry);
+        this.droppedFrames = Counter.builder("jitter.ws.dropped.frames").register(meterRegistry);
+        this.sendLatency = Timer.builder("jitter.ws.send.latency").register(meterRegistry);
+        meterRegistry.gauge("jitter.ws.sessions", openSessions);
+    }
+
+    public void monitor(String channel, ThreadPoolTaskExecutor executor) {
+        Gauge.builder("jitter.ws.channel.queue.size", executor, ThreadPoolTaskExecutor::getQueueSize)
+            .tag("channel", channel)
+            .register(meterRegistry);
+        Gauge.builder("jitter.ws.channel.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+            .tag("channel", channel)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                openSessions.incrementAndGet();
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                openSessions.decrementAndGet();
+                if (CloseStatus.SESSION_NOT_RELIABLE.equals(closeStatus)) {
+                    slowConsumerEvictions.increment();
+                    logger.warn("Closed slow WebSocket session {}", session.getId());
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, @Nullable Exception ex) {
+        if (!sent || ex != null) {
+            droppedFrames.increment();
+        }
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        handleStart.get()[0] = System.nanoTime();
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, @Nullable Exception ex) {
+        sendLatency.record(System.nanoTime() - handleStart.get()[0], TimeUnit.NANOSECONDS);
+        if (ex != null) {
+            droppedFrames.increment();
+        }
+    }
+}
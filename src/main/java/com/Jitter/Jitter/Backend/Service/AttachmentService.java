@@ -0,0 +1,243 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import com.Jitter.Jitter.Backend.Models.Attachment;
+import com.Jitter.Jitter.Backend.Models.AttachmentChunk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Chat attachments uploaded in fixed-size chunks. Each chunk is its own document keyed
+ * by attachment and index and carries its SHA-256, so a retried or resumed upload
+ * simply overwrites the same chunk. Messages only hold the attachment id; downloads
+ * stream one chunk at a time, so neither side ever holds more than a chunk in memory.
+ * A completed attachment is bound to exactly one message when it is sent, so deleting
+ * that message can delete the attachment without affecting any other message.
+ */
+@Service
+public class AttachmentService {
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentService.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ChatMembershipCache chatMembershipCache;
+
+    @Value("${jitter.chat.attachments.chunk-size:1048576}")
+    private int chunkSize;
+
+    @Value("${jitter.chat.attachments.max-size:104857600}")
+    private long maxSize;
+
+    @Value("${jitter.chat.attachments.abandoned-after-hours:24}")
+    private long abandonedAfterHours;
+
+    public Attachment create(String chatId, String userId, String fileName, String contentType, long size) {
+        if (!chatMembershipCache.isParticipant(chatId, userId)) {
+            throw new RuntimeException("User is not a participant in this chat");
+        }
+        if (size <= 0 || size > maxSize) {
+            throw new RuntimeException("Attachment size must be between 1 and " + maxSize + " bytes");
+        }
+        if (fileName == null || fileName.isBlank()) {
+            throw new RuntimeException("File name is required");
+        }
+
+        Attachment attachment = new Attachment();
+        attachment.setChatId(chatId);
+        attachment.setUploaderId(userId);
+        attachment.setFileName(fileName);
+        attachment.setContentType(contentType != null && !contentType.isBlank() ? contentType : "application/octet-stream");
+        attachment.setSize(size);
+        attachment.setChunkSize(chunkSize);
+        attachment.setChunkCount((int) ((size + chunkSize - 1) / chunkSize));
+        return mongoTemplate.insert(attachment);
+    }
+
+    public Attachment getForUpload(String attachmentId, String userId) {
+        Attachment attachment = mongoTemplate.findById(attachmentId, Attachment.class);
+        if (attachment == null || !attachment.getUploaderId().equals(userId)) {
+            throw new RuntimeException("Attachment not found");
+        }
+        return attachment;
+    }
+
+    public Attachment getForDownload(String attachmentId, String userId) {
+        Attachment attachment = mongoTemplate.findById(attachmentId, Attachment.class);
+        if (attachment == null || attachment.getStatus() != Attachment.Status.COMPLETE) {
+            throw new RuntimeException("Attachment not found");
+        }
+        if (!chatMembershipCache.isParticipant(attachment.getChatId(), userId)) {
+            throw new RuntimeException("User is not authorized to access this attachment");
+        }
+        return attachment;
+    }
+
+    /**
+     * Binds a completed attachment to the message being sent. Binding again to the same
+     * message succeeds, so a retried send with the same message id is not rejected.
+     */
+    public Attachment bind(String attachmentId, String chatId, String userId, String messageId) {
+        Query unbound = Query.query(Criteria.where("_id").is(attachmentId)
+            .and("uploaderId").is(userId)
+            .and("chatId").is(chatId)
+            .and("status").is(Attachment.Status.COMPLETE)
+            .orOperator(Criteria.where("messageId").is(null), Criteria.where("messageId").is(messageId)));
+        Attachment bound = mongoTemplate.findAndModify(unbound, new Update().set("messageId", messageId),
+            FindAndModifyOptions.options().returnNew(true), Attachment.class);
+        if (bound != null) {
+            return bound;
+        }
+
+        Attachment attachment = mongoTemplate.findById(attachmentId, Attachment.class);
+        if (attachment == null || !attachment.getUploaderId().equals(userId) || !attachment.getChatId().equals(chatId)) {
+            throw new RuntimeException("Attachment not found");
+        }
+        if (attachment.getStatus() != Attachment.Status.COMPLETE) {
+            throw new RuntimeException("Attachment upload is not complete");
+        }
+        throw new RuntimeException("Attachment is already attached to another message");
+    }
+
+    // Undoes bind() for a message that was never stored, so the upload can be sent again.
+    public void unbind(String attachmentId, String messageId) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(attachmentId).and("messageId").is(messageId)),
+            new Update().unset("messageId"), Attachment.class);
+    }
+
+    public Attachment uploadChunk(String attachmentId, String userId, int index, String sha256, InputStream body) throws IOException {
+        Attachment attachment = getForUpload(attachmentId, userId);
+        if (attachment.getStatus() != Attachment.Status.UPLOADING) {
+            throw new RuntimeException("Attachment is already complete");
+        }
+        if (index < 0 || index >= attachment.getChunkCount()) {
+            throw new RuntimeException("Chunk index out of range");
+        }
+        if (sha256 == null || sha256.isBlank()) {
+            throw new RuntimeException("Chunk checksum is required");
+        }
+
+        int expected = expectedChunkSize(attachment, index);
+        byte[] data = body.readNBytes(expected);
+        if (data.length != expected || body.read() != -1) {
+            throw new RuntimeException("Chunk " + index + " must be exactly " + expected + " bytes");
+        }
+        String actual = HexFormat.of().formatHex(digest().digest(data));
+        if (!actual.equalsIgnoreCase(sha256.trim())) {
+            throw new RuntimeException("Checksum mismatch for chunk " + index);
+        }
+
+        mongoTemplate.save(new AttachmentChunk(AttachmentChunk.idOf(attachmentId, index), attachmentId, index, data.length, actual, data));
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(attachmentId)),
+            new Update().addToSet("receivedChunks", index), Attachment.class);
+        attachment.getReceivedChunks().add(index);
+        return attachment;
+    }
+
+    public Attachment complete(String attachmentId, String userId, String sha256) {
+        Attachment attachment = getForUpload(attachmentId, userId);
+        if (attachment.getStatus() == Attachment.Status.COMPLETE) {
+            return attachment;
+        }
+        if (attachment.getReceivedChunks().size() != attachment.getChunkCount()) {
+            throw new RuntimeException("Missing " + (attachment.getChunkCount() - attachment.getReceivedChunks().size()) + " chunks");
+        }
+
+        MessageDigest digest = digest();
+        for (int index = 0; index < attachment.getChunkCount(); index++) {
+            digest.update(loadChunk(attachmentId, index).getData());
+        }
+        String actual = HexFormat.of().formatHex(digest.digest());
+        if (sha256 != null && !sha256.isBlank() && !actual.equalsIgnoreCase(sha256.trim())) {
+            throw new RuntimeException("Checksum mismatch for attachment");
+        }
+
+        LocalDateTime completedAt = LocalDateTime.now();
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(attachmentId)),
+            new Update().set("status", Attachment.Status.COMPLETE).set("sha256", actual).set("completedAt", completedAt),
+            Attachment.class);
+        attachment.setStatus(Attachment.Status.COMPLETE);
+        attachment.setSha256(actual);
+        attachment.setCompletedAt(completedAt);
+        return attachment;
+    }
+
+    public void write(Attachment attachment, long start, long end, OutputStream out) throws IOException {
+        int chunk = attachment.getChunkSize();
+        for (int index = (int) (start / chunk); index <= (int) (end / chunk); index++) {
+            byte[] data = loadChunk(attachment.getId(), index).getData();
+            long chunkStart = (long) index * chunk;
+            int from = (int) Math.max(0, start - chunkStart);
+            int to = (int) Math.min(data.length - 1, end - chunkStart);
+            out.write(data, from, to - from + 1);
+        }
+        out.flush();
+    }
+
+    public void deleteForMessage(String attachmentId, String messageId) {
+        Query bound = Query.query(Criteria.where("_id").is(attachmentId).and("messageId").is(messageId));
+        if (mongoTemplate.remove(bound, Attachment.class).getDeletedCount() > 0) {
+            mongoTemplate.remove(Query.query(Criteria.where("attachmentId").is(attachmentId)), AttachmentChunk.class);
+        }
+    }
+
+    public void delete(String attachmentId) {
+        mongoTemplate.remove(Query.query(Criteria.where("attachmentId").is(attachmentId)), AttachmentChunk.class);
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(attachmentId)), Attachment.class);
+    }
+
+    @Scheduled(fixedDelay = 3600000)
+    public void removeAbandonedUploads() {
+        try {
+            Query abandoned = Query.query(Criteria.where("status").is(Attachment.Status.UPLOADING)
+                .and("createdAt").lt(LocalDateTime.now().minusHours(abandonedAfterHours)));
+            abandoned.fields().include("_id");
+            List<Attachment> attachments = mongoTemplate.find(abandoned, Attachment.class);
+            attachments.forEach(attachment -> delete(attachment.getId()));
+            if (!attachments.isEmpty()) {
+                logger.info("Removed {} abandoned attachment uploads", attachments.size());
+            }
+        } catch (Exception e) {
+            logger.error("Failed to remove abandoned attachment uploads", e);
+        }
+    }
+
+    private AttachmentChunk loadChunk(String attachmentId, int index) {
+        AttachmentChunk chunk = mongoTemplate.findById(AttachmentChunk.idOf(attachmentId, index), AttachmentChunk.class);
+        if (chunk == null) {
+            throw new RuntimeException("Attachment chunk " + index + " is missing");
+        }
+        return chunk;
+    }
+
+    private static int expectedChunkSize(Attachment attachment, int index) {
+        long remaining = attachment.getSize() - (long) index * attachment.getChunkSize();
+        return (int) Math.min(attachment.getChunkSize(), remaining);
+    }
+
+    private static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,20 +1,64 @@
 package com.Jitter.Jitter.Backend.Service;
 
+import com.Jitter.Jitter.Backend.DTO.BookmarkPageDTO;
+import com.Jitter.Jitter.Backend.DTO.BookmarkedPostDTO;
+import com.Jitter.Jitter.Backend.DTO.PostSummaryDTO;
+import com.Jitter.Jitter.Backend.DTO.UserSummaryDTO;
 import com.Jitter.Jitter.Backend.Models.BookMark;
+import com.Jitter.Jitter.Backend.Models.Post;
 import com.Jitter.Jitter.Backend.Repository.BookMarkRepository;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class BookMarkService {
+    private static final Logger logger = LoggerFactory.getLogger(BookMarkService.class);
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int MAX_FILL_ROUNDS = 3;
 
     @Autowired
     private final BookMarkRepository bookMarkRepository;
 
-    public BookMarkService(BookMarkRepository bookMarkRepository) {
+    @Autowired
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    private final PostMembershipCache membershipCache;
+
+    @Autowired
+    private final UserSummaryCache userSummaryCache;
+
+    @Autowired
+    private final PostLikeCounter likeCounter;
+
+    private final Set<String> orphanedBookmarks = ConcurrentHashMap.newKeySet();
+
+    public BookMarkService(BookMarkRepository bookMarkRepository, MongoTemplate mongoTemplate,
+                           PostMembershipCache membershipCache, UserSummaryCache userSummaryCache,
+                           PostLikeCounter likeCounter) {
         this.bookMarkRepository = bookMarkRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.membershipCache = membershipCache;
+        this.userSummaryCache = userSummaryCache;
+        this.likeCounter = likeCounter;
     }
 
     public List<BookMark> getByUserId(String userId) {
@@ -25,11 +69,122 @@ public class BookMarkService {
         return bookMarkRepository.findByUserIdAndPostId(userId, postId);
     }
 
+    // Newest first by bookmark id; bookmarks of deleted posts are skipped and removed in the background.
+    public BookmarkPageDTO getFeed(String userId, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        ObjectId before = null;
+        if (cursor != null && !cursor.isBlank()) {
+            if (!ObjectId.isValid(cursor)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            before = new ObjectId(cursor);
+        }
+
+        List<BookmarkedPostDTO> content = new ArrayList<>();
+        boolean hasMore = false;
+        for (int round = 0; round < MAX_FILL_ROUNDS && content.size() < limit; round++) {
+            int wanted = limit - content.size();
+            Criteria criteria = Criteria.where("userId").is(userId);
+            if (before != null) {
+                criteria = criteria.and("_id").lt(before);
+            }
+            Query query = Query.query(criteria).with(Sort.by(Sort.Direction.DESC, "_id")).limit(wanted + 1);
+            List<BookMark> bookmarks = mongoTemplate.find(query, BookMark.class);
+            hasMore = bookmarks.size() > wanted;
+            if (hasMore) {
+                bookmarks = bookmarks.subList(0, wanted);
+            }
+            if (bookmarks.isEmpty()) {
+                break;
+            }
+            content.addAll(hydrate(bookmarks));
+            before = new ObjectId(bookmarks.get(bookmarks.size() - 1).getId());
+            if (!hasMore) {
+                break;
+            }
+        }
+        return new BookmarkPageDTO(content, hasMore ? before.toHexString() : null);
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void removeOrphanedBookmarks() {
+        List<String> ids = new ArrayList<>(orphanedBookmarks);
+        if (ids.isEmpty()) {
+            return;
+        }
+        orphanedBookmarks.removeAll(ids);
+        try {
+            List<BookMark> removed = mongoTemplate.findAllAndRemove(Query.query(Criteria.where("_id").in(ids)), BookMark.class);
+            removed.forEach(bookmark -> membershipCache.onBookmark(bookmark.getUserId(), bookmark.getPostId(), false));
+            logger.debug("Removed {} bookmarks of deleted posts", removed.size());
+        } catch (Exception e) {
+            logger.warn("Failed to remove {} bookmarks of deleted posts", ids.size(), e);
+            orphanedBookmarks.addAll(ids);
+        }
+    }
+
+    private List<BookmarkedPostDTO> hydrate(List<BookMark> bookmarks) {
+        Set<String> postIds = new HashSet<>();
+        bookmarks.forEach(bookmark -> postIds.add(bookmark.getPostId()));
+        Query postQuery = Query.query(Criteria.where("_id").in(postIds));
+        postQuery.fields().include("_id").include("userId").include("content").include("likeCount")
+            .include("createdAt").include("image.fileName");
+        Map<String, Post> posts = new HashMap<>();
+        mongoTemplate.find(postQuery, Post.class).forEach(post -> posts.put(post.getId(), likeCounter.withPending(post)));
+
+        Set<String> authorIds = new HashSet<>();
+        posts.values().forEach(post -> authorIds.add(post.getUserId()));
+        Map<String, UserSummaryDTO> authors = userSummaryCache.getAll(authorIds);
+
+        List<BookmarkedPostDTO> hydrated = new ArrayList<>(bookmarks.size());
+        for (BookMark bookmark : bookmarks) {
+            Post post = posts.get(bookmark.getPostId());
+            if (post == null) {
+                orphanedBookmarks.add(bookmark.getId());
+                continue;
+            }
+            UserSummaryDTO author = authors.get(post.getUserId());
+            Date bookmarkedAt = bookmark.getCreatedAt() != null
+                ? bookmark.getCreatedAt()
+                : new ObjectId(bookmark.getId()).getDate();
+            hydrated.add(new BookmarkedPostDTO(bookmark.getId(), bookmarkedAt,
+                new PostSummaryDTO(post, author != null ? author : UserSummaryDTO.unknown(post.getUserId()))));
+        }
+        return hydrated;
+    }
+
+    public BookMark add(BookMark bookmark) {
+        bookmark.setId(null);
+        if (bookmark.getCreatedAt() == null) {
+            bookmark.setCreatedAt(new Date());
+        }
+        BookMark saved;
+        try {
+            saved = bookMarkRepository.insert(bookmark);
+        } catch (DuplicateKeyException e) {
+            return bookMarkRepository.findByUserIdAndPostId(bookmark.getUserId(), bookmark.getPostId()).orElseThrow(() -> e);
+        }
+        membershipCache.onBookmark(saved.getUserId(), saved.getPostId(), true);
+        return saved;
+    }
+
+    public BookMark update(String id, BookMark updated) {
+        updated.setId(id);
+        Optional<BookMark> previous = bookMarkRepository.findById(id);
+        BookMark saved = bookMarkRepository.save(updated);
+        previous.ifPresent(bookmark -> membershipCache.invalidate(bookmark.getUserId()));
+        membershipCache.invalidate(saved.getUserId());
+        return saved;
+    }
+
     public BookMark save(BookMark bookmark) {
         return bookMarkRepository.save(bookmark);
     }
 
     public void delete(String id) {
-        bookMarkRepository.deleteById(id);
+        BookMark removed = mongoTemplate.findAndRemove(Query.query(Criteria.where("_id").is(id)), BookMark.class);
+        if (removed != null) {
+            membershipCache.onBookmark(removed.getUserId(), removed.getPostId(), false);
+        }
     }
 }
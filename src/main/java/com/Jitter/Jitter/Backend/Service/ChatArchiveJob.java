@@ -0,0 +1,197 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import com.Jitter.Jitter.Backend.Models.Chat;
+import com.Jitter.Jitter.Backend.Models.Message;
+import com.Jitter.Jitter.Backend.Repository.MessageArchive;
+import com.Jitter.Jitter.Backend.Repository.MessageStore;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Moves messages older than {@code jitter.chat.archive.min-age-days} out of the
+ * message store into {@link MessageArchive} segments. A batch is first written and
+ * synced to disk, then committed by advancing the chat's {@code archivedThroughSeq},
+ * and only then removed from the store, so a crash at any point leaves every message
+ * readable from exactly one place.
+ * <p>
+ * The commit point lives in Mongo but the segments live in
+ * {@code jitter.chat.archive.dir}, so that directory must be one volume shared by
+ * every node. At startup the token in the directory's marker file is checked against
+ * the one recorded in {@code chat_archive_state}, and a node that sees a different
+ * directory refuses to start. Runs are also serialized across nodes by a lease in the
+ * same collection, so only one node appends to the segments at a time.
+ */
+@Component
+public class ChatArchiveJob {
+    private static final Logger logger = LoggerFactory.getLogger(ChatArchiveJob.class);
+
+    private static final int BATCH_SIZE = 2000;
+    private static final String STATE_COLLECTION = "chat_archive_state";
+    private static final String VOLUME_ID = "volume";
+    private static final String LEASE_ID = "lease";
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MessageStore messageStore;
+
+    @Autowired
+    private MessageArchive messageArchive;
+
+    @Value("${jitter.chat.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${jitter.chat.archive.min-age-days:90}")
+    private long minAgeDays;
+
+    @Value("${jitter.chat.archive.block-size:256}")
+    private int blockSize;
+
+    @Value("${jitter.chat.archive.lease-minutes:30}")
+    private long leaseMinutes;
+
+    @PostConstruct
+    public void verifyVolume() throws IOException {
+        Document volume = mongoTemplate.findById(VOLUME_ID, Document.class, STATE_COLLECTION);
+        if (volume == null && !enabled) {
+            return;
+        }
+        String token = messageArchive.volumeToken();
+        if (volume == null) {
+            try {
+                mongoTemplate.insert(new Document("_id", VOLUME_ID).append("token", token), STATE_COLLECTION);
+            } catch (DuplicateKeyException e) {
+                // Another node recorded its volume first.
+            }
+            volume = mongoTemplate.findById(VOLUME_ID, Document.class, STATE_COLLECTION);
+        }
+        // Nodes reading archived history need the shared volume as much as the archiving node does.
+        if (volume == null || !token.equals(volume.getString("token"))) {
+            throw new IllegalStateException("Chat archive directory " + messageArchive.getDirectory()
+                + " is not the archive volume the other nodes use; jitter.chat.archive.dir must be shared by every node");
+        }
+    }
+
+    @Scheduled(cron = "${jitter.chat.archive.cron:0 30 3 * * *}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(minAgeDays);
+        Query candidates = Query.query(Criteria.where("createdAt").lt(cutoff));
+        candidates.fields().include("archivedThroughSeq").include("lastSeq");
+        if (!acquireLease()) {
+            logger.debug("Chat archive is running on another node, skipping");
+            return;
+        }
+        long archived = 0;
+        try (Stream<Chat> chats = mongoTemplate.stream(candidates, Chat.class)) {
+            for (Chat chat : (Iterable<Chat>) chats::iterator) {
+                if (!acquireLease()) {
+                    logger.warn("Lost the chat archive lease, stopping this run");
+                    break;
+                }
+                try {
+                    archived += archiveChat(chat, cutoff);
+                } catch (Exception e) {
+                    logger.error("Failed to archive messages of chat {}", chat.getId(), e);
+                }
+            }
+        } finally {
+            releaseLease();
+        }
+        if (archived > 0) {
+            logger.info("Archived {} messages older than {} days", archived, minAgeDays);
+        }
+    }
+
+    // Takes or renews the lease; the upsert only inserts when no lease exists yet.
+    private boolean acquireLease() {
+        Date now = new Date();
+        Query available = Query.query(Criteria.where("_id").is(LEASE_ID)
+            .orOperator(Criteria.where("expiresAt").lt(now), Criteria.where("owner").is(nodeId)));
+        Update take = new Update()
+            .set("owner", nodeId)
+            .set("expiresAt", new Date(now.getTime() + TimeUnit.MINUTES.toMillis(leaseMinutes)));
+        try {
+            mongoTemplate.upsert(available, take, STATE_COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private void releaseLease() {
+        try {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(LEASE_ID).and("owner").is(nodeId)),
+                new Update().set("expiresAt", new Date()), STATE_COLLECTION);
+        } catch (Exception e) {
+            logger.warn("Failed to release the chat archive lease, it expires in {} minutes", leaseMinutes, e);
+        }
+    }
+
+    private long archiveChat(Chat chat, LocalDateTime cutoff) throws Exception {
+        String chatId = chat.getId();
+        long archivedSeq = chat.getArchivedThroughSeq() != null ? chat.getArchivedThroughSeq() : 0L;
+        long lastSeq = chat.getLastSeq() != null ? chat.getLastSeq() : 0L;
+        if (archivedSeq > 0) {
+            // Finishes a run that committed a batch but stopped before removing it.
+            messageStore.deleteThrough(chatId, archivedSeq);
+        }
+
+        long moved = 0;
+        while (archivedSeq < lastSeq) {
+            List<Message> batch = new ArrayList<>();
+            for (Message message : messageStore.findAfter(chatId, archivedSeq, BATCH_SIZE).getContent()) {
+                if (message.getTimestamp() == null || !message.getTimestamp().isBefore(cutoff)) {
+                    break;
+                }
+                batch.add(message);
+            }
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            long throughSeq = batch.get(batch.size() - 1).getSeq();
+            messageArchive.append(chatId, archivedSeq, batch, blockSize);
+            Criteria current = archivedSeq > 0
+                ? Criteria.where("archivedThroughSeq").is(archivedSeq)
+                : new Criteria().orOperator(Criteria.where("archivedThroughSeq").exists(false), Criteria.where("archivedThroughSeq").is(0L));
+            Query commit = Query.query(Criteria.where("_id").is(chatId)).addCriteria(current);
+            if (mongoTemplate.updateFirst(commit, new Update().set("archivedThroughSeq", throughSeq), Chat.class).getModifiedCount() == 0) {
+                logger.warn("Archive of chat {} moved concurrently, skipping", chatId);
+                break;
+            }
+            messageStore.deleteThrough(chatId, throughSeq);
+            archivedSeq = throughSeq;
+            moved += batch.size();
+            if (batch.size() < BATCH_SIZE) {
+                break;
+            }
+        }
+        return moved;
+    }
+}
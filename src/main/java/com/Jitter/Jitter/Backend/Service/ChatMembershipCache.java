@@ -0,0 +1,72 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import com.Jitter.Jitter.Backend.Models.Chat;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class ChatMembershipCache {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final Map<String, List<String>> participantsByChatId;
+
+    public ChatMembershipCache(@Value("${jitter.chat.membership-cache.max-entries:10000}") int maxEntries) {
+        this.participantsByChatId = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public List<String> getParticipants(String chatId) {
+        if (chatId == null) {
+            return null;
+        }
+        synchronized (participantsByChatId) {
+            List<String> cached = participantsByChatId.get(chatId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        Query query = Query.query(Criteria.where("_id").is(chatId));
+        query.fields().include("participantIds");
+        Chat chat = mongoTemplate.findOne(query, Chat.class);
+        if (chat == null || chat.getParticipantIds() == null) {
+            return null;
+        }
+        put(chat);
+        return List.copyOf(chat.getParticipantIds());
+    }
+
+    public boolean isParticipant(String chatId, String userId) {
+        List<String> participants = getParticipants(chatId);
+        return participants != null && participants.contains(userId);
+    }
+
+    public void put(Chat chat) {
+        if (chat.getId() == null || chat.getParticipantIds() == null) {
+            return;
+        }
+        synchronized (participantsByChatId) {
+            participantsByChatId.put(chat.getId(), List.copyOf(chat.getParticipantIds()));
+        }
+    }
+
+    public void evict(String chatId) {
+        synchronized (participantsByChatId) {
+            participantsByChatId.remove(chatId);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import com.Jitter.Jitter.Backend.Models.Chat;
+import com.Jitter.Jitter.Backend.Models.Message;
+import com.Jitter.Jitter.Backend.Repository.MessageRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gives chats created before read watermarks existed a message sequence and a
+ * per-participant read position derived from the old per-message isRead flags.
+ */
+@Component
+public class ChatReadStateMigration {
+    private static final Logger logger = LoggerFactory.getLogger(ChatReadStateMigration.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @PostConstruct
+    public void migrate() {
+        try {
+            List<Chat> legacyChats = mongoTemplate.find(
+                Query.query(Criteria.where("lastSeq").exists(false)), Chat.class);
+            for (Chat chat : legacyChats) {
+                migrateChat(chat);
+            }
+            if (!legacyChats.isEmpty()) {
+                logger.info("Migrated read state for {} chats", legacyChats.size());
+            }
+        } catch (Exception e) {
+            logger.error("Chat read state migration failed", e);
+        }
+    }
+
+    private void migrateChat(Chat chat) {
+        List<Message> messages = messageRepository.findSequenceStubsByChatId(chat.getId());
+
+        Map<String, Long> unread = new HashMap<>();
+        if (!messages.isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Message.class);
+            long seq = 0;
+            for (Message message : messages) {
+                seq++;
+                bulk.updateOne(Query.query(Criteria.where("_id").is(message.getId())), new Update().set("seq", seq));
+                if (!message.isRead()) {
+                    for (String participantId : chat.getParticipantIds()) {
+                        if (!participantId.equals(message.getSenderId())) {
+                            unread.merge(participantId, 1L, Long::sum);
+                        }
+                    }
+                }
+            }
+            bulk.execute();
+        }
+
+        long lastSeq = messages.size();
+        Update update = new Update().set("lastSeq", lastSeq).unset("unreadCounts");
+        for (String participantId : chat.getParticipantIds()) {
+            update.set("readSeqs." + participantId, lastSeq - unread.getOrDefault(participantId, 0L));
+        }
+        mongoTemplate.updateFirst(
+            Query.query(Criteria.where("_id").is(chat.getId()).and("lastSeq").exists(false)), update, Chat.class);
+    }
+}
@@ -0,0 +1,403 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import com.Jitter.Jitter.Backend.Models.Chat;
+import com.Jitter.Jitter.Backend.Models.Message;
+import com.Jitter.Jitter.Backend.Repository.MessageArchive;
+import com.Jitter.Jitter.Backend.Repository.MessageStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory token index per chat, built the first time a chat is searched and kept
+ * current from the send, edit and delete paths. Postings are sorted int arrays of
+ * message sequences, so a query intersects the rarest term's postings with binary
+ * searches into the others; the last query term matches as a prefix. Edits only add
+ * tokens, so every hit is re-checked against the stored message before it is returned.
+ * Indexes are dropped when idle or, least recently searched first, when the estimated
+ * size of all indexes exceeds {@code jitter.chat.search.max-memory-mb}.
+ */
+@Service
+public class ChatSearchService {
+    private static final Logger logger = LoggerFactory.getLogger(ChatSearchService.class);
+
+    private static final int BUILD_BATCH = 1000;
+    private static final int MAX_TOKEN_LENGTH = 64;
+
+    @Autowired
+    private MessageStore messageStore;
+
+    @Autowired
+    private MessageArchive messageArchive;
+
+    private final Map<String, ChatIndex> indexes = new ConcurrentHashMap<>();
+    private final long maxBytes;
+    private final long idleMs;
+    private long totalBytes;
+
+    public ChatSearchService(@Value("${jitter.chat.search.max-memory-mb:64}") long maxMemoryMb,
+                             @Value("${jitter.chat.search.idle-minutes:30}") long idleMinutes) {
+        this.maxBytes = maxMemoryMb * 1024 * 1024;
+        this.idleMs = idleMinutes * 60 * 1000;
+    }
+
+    public List<Message> search(Chat chat, String query, Long before, int limit) {
+        List<String> terms = tokenize(query);
+        List<Message> result = new ArrayList<>();
+        if (terms.isEmpty()) {
+            return result;
+        }
+        long archivedSeq = chat.getArchivedThroughSeq() != null ? chat.getArchivedThroughSeq() : 0L;
+        ChatIndex index = indexes.computeIfAbsent(chat.getId(), ChatIndex::new);
+        index.lastAccess = System.currentTimeMillis();
+        catchUp(index, archivedSeq);
+
+        long cursor = before != null ? before : Long.MAX_VALUE;
+        while (result.size() < limit) {
+            int[] candidates;
+            synchronized (index) {
+                candidates = index.match(terms, cursor, (limit - result.size()) * 2);
+            }
+            if (candidates.length == 0) {
+                break;
+            }
+            Map<Long, Message> messages = hydrate(chat.getId(), archivedSeq, candidates);
+            for (int seq : candidates) {
+                Message message = messages.get((long) seq);
+                if (message != null && matches(message.getContent(), terms)) {
+                    result.add(message);
+                    if (result.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            cursor = candidates[candidates.length - 1];
+        }
+        return result;
+    }
+
+    public void onMessage(Message message) {
+        ChatIndex index = message.getSeq() != null ? indexes.get(message.getChatId()) : null;
+        if (index == null) {
+            return;
+        }
+        synchronized (index) {
+            // Out-of-order sends are left for the catch-up at the next search.
+            if (message.getSeq() == index.indexedThroughSeq + 1) {
+                index.add(message.getSeq(), message.getContent());
+                index.indexedThroughSeq = message.getSeq();
+                index.applyDeferredEdits();
+            }
+        }
+        account(index);
+    }
+
+    public void onEdit(Message message) {
+        ChatIndex index = message.getSeq() != null ? indexes.get(message.getChatId()) : null;
+        if (index == null) {
+            return;
+        }
+        synchronized (index) {
+            if (message.getSeq() <= index.indexedThroughSeq) {
+                index.add(message.getSeq(), message.getContent());
+            } else if (index.catchingUp) {
+                // The catch-up may already hold the old content; applied once it reaches this sequence.
+                index.deferredEdits.put(message.getSeq(), message.getContent());
+            }
+        }
+        account(index);
+    }
+
+    public void onDelete(Message message) {
+        ChatIndex index = message.getSeq() != null ? indexes.get(message.getChatId()) : null;
+        if (index == null) {
+            return;
+        }
+        synchronized (index) {
+            index.deleted.set(message.getSeq().intValue());
+        }
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleMs;
+        synchronized (this) {
+            indexes.values().removeIf(index -> {
+                if (index.lastAccess < cutoff) {
+                    totalBytes -= index.accountedBytes;
+                    return true;
+                }
+                return false;
+            });
+        }
+    }
+
+    // Batches are read without holding the index, so sends to the chat are not blocked while it is built.
+    private void catchUp(ChatIndex index, long archivedSeq) {
+        synchronized (index.catchUpLock) {
+            try {
+                while (true) {
+                    long from;
+                    synchronized (index) {
+                        index.catchingUp = true;
+                        from = index.indexedThroughSeq;
+                    }
+                    List<Message> batch = from < archivedSeq
+                        ? messageArchive.readAfter(index.chatId, archivedSeq, from, BUILD_BATCH)
+                        : List.of();
+                    if (batch.isEmpty()) {
+                        batch = messageStore.findAfter(index.chatId, Math.max(from, archivedSeq), BUILD_BATCH).getContent();
+                    }
+                    if (batch.isEmpty()) {
+                        return;
+                    }
+                    synchronized (index) {
+                        for (Message message : batch) {
+                            // Sends indexed meanwhile are already in.
+                            if (message.getSeq() > index.indexedThroughSeq) {
+                                index.add(message.getSeq(), message.getContent());
+                                index.indexedThroughSeq = message.getSeq();
+                            }
+                        }
+                        index.applyDeferredEdits();
+                    }
+                    account(index);
+                }
+            } finally {
+                synchronized (index) {
+                    index.catchingUp = false;
+                }
+                account(index);
+            }
+        }
+    }
+
+    private Map<Long, Message> hydrate(String chatId, long archivedSeq, int[] seqs) {
+        List<Long> archived = new ArrayList<>();
+        List<Long> hot = new ArrayList<>();
+        for (int seq : seqs) {
+            (seq <= archivedSeq ? archived : hot).add((long) seq);
+        }
+        Map<Long, Message> messages = new HashMap<>();
+        messageStore.findBySeqs(chatId, hot).forEach(message -> messages.put(message.getSeq(), message));
+        messageArchive.readSeqs(chatId, archivedSeq, archived).forEach(message -> messages.put(message.getSeq(), message));
+        return messages;
+    }
+
+    private synchronized void account(ChatIndex index) {
+        if (indexes.get(index.chatId) != index) {
+            return;
+        }
+        long bytes = index.bytes;
+        totalBytes += bytes - index.accountedBytes;
+        index.accountedBytes = bytes;
+        while (totalBytes > maxBytes && indexes.size() > 1) {
+            ChatIndex eldest = null;
+            for (ChatIndex candidate : indexes.values()) {
+                if (candidate != index && (eldest == null || candidate.lastAccess < eldest.lastAccess)) {
+                    eldest = candidate;
+                }
+            }
+            if (eldest == null) {
+                break;
+            }
+            indexes.remove(eldest.chatId);
+            totalBytes -= eldest.accountedBytes;
+            logger.debug("Evicted search index of chat {} ({} bytes)", eldest.chatId, eldest.accountedBytes);
+        }
+    }
+
+    private static boolean matches(String content, List<String> terms) {
+        Set<String> tokens = new LinkedHashSet<>(tokenize(content));
+        for (int i = 0; i < terms.size() - 1; i++) {
+            if (!tokens.contains(terms.get(i))) {
+                return false;
+            }
+        }
+        String prefix = terms.get(terms.size() - 1);
+        return tokens.stream().anyMatch(token -> token.startsWith(prefix));
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, Math.min(i, start + MAX_TOKEN_LENGTH)));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static final class ChatIndex {
+        private final String chatId;
+        private final TreeMap<String, Postings> terms = new TreeMap<>();
+        private final BitSet deleted = new BitSet();
+        private final Object catchUpLock = new Object();
+        private final TreeMap<Long, String> deferredEdits = new TreeMap<>();
+        private boolean catchingUp;
+        private long indexedThroughSeq;
+        private volatile long bytes;
+        private long accountedBytes;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private ChatIndex(String chatId) {
+            this.chatId = chatId;
+        }
+
+        private void add(long seq, String content) {
+            for (String token : new LinkedHashSet<>(tokenize(content))) {
+                Postings postings = terms.get(token);
+                if (postings == null) {
+                    postings = new Postings();
+                    terms.put(token, postings);
+                    bytes += 96 + 2L * token.length();
+                }
+                bytes += postings.add((int) seq);
+            }
+        }
+
+        private void applyDeferredEdits() {
+            Map<Long, String> reached = deferredEdits.headMap(indexedThroughSeq, true);
+            reached.forEach(this::add);
+            reached.clear();
+        }
+
+        // Newest first, strictly below the cursor, at most max sequences.
+        private int[] match(List<String> query, long cursor, int max) {
+            List<Postings> exact = new ArrayList<>();
+            for (int i = 0; i < query.size() - 1; i++) {
+                Postings postings = terms.get(query.get(i));
+                if (postings == null) {
+                    return new int[0];
+                }
+                exact.add(postings);
+            }
+            String prefix = query.get(query.size() - 1);
+            List<Postings> prefixed = new ArrayList<>(terms.subMap(prefix, prefix + Character.MAX_VALUE).values());
+            if (prefixed.isEmpty()) {
+                return new int[0];
+            }
+            int below = (int) Math.min(cursor, Integer.MAX_VALUE);
+
+            if (exact.isEmpty()) {
+                TreeSet<Integer> newest = new TreeSet<>();
+                for (Postings postings : prefixed) {
+                    for (int i = postings.indexBelow(below); i >= 0; i--) {
+                        int seq = postings.seqs[i];
+                        if (deleted.get(seq)) {
+                            continue;
+                        }
+                        if (newest.size() == max && seq <= newest.first()) {
+                            break;
+                        }
+                        newest.add(seq);
+                        if (newest.size() > max) {
+                            newest.pollFirst();
+                        }
+                    }
+                }
+                return newest.descendingSet().stream().mapToInt(Integer::intValue).toArray();
+            }
+
+            exact.sort((a, b) -> Integer.compare(a.size, b.size));
+            Postings driver = exact.get(0);
+            int[] result = new int[max];
+            int count = 0;
+            for (int i = driver.indexBelow(below); i >= 0 && count < max; i--) {
+                int seq = driver.seqs[i];
+                if (deleted.get(seq) || !containedInAll(exact, seq) || !containedInAny(prefixed, seq)) {
+                    continue;
+                }
+                result[count++] = seq;
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        private static boolean containedInAll(List<Postings> postings, int seq) {
+            for (int i = 1; i < postings.size(); i++) {
+                if (!postings.get(i).contains(seq)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean containedInAny(List<Postings> postings, int seq) {
+            for (Postings candidate : postings) {
+                if (candidate.contains(seq)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Postings {
+        private int[] seqs = new int[2];
+        private int size;
+
+        // Returns the number of bytes the postings grew by.
+        private long add(int seq) {
+            if (size > 0 && seqs[size - 1] >= seq) {
+                int position = Arrays.binarySearch(seqs, 0, size, seq);
+                if (position >= 0) {
+                    return 0;
+                }
+                long grown = ensureCapacity();
+                int insertAt = -position - 1;
+                System.arraycopy(seqs, insertAt, seqs, insertAt + 1, size - insertAt);
+                seqs[insertAt] = seq;
+                size++;
+                return grown;
+            }
+            long grown = ensureCapacity();
+            seqs[size++] = seq;
+            return grown;
+        }
+
+        private long ensureCapacity() {
+            if (size < seqs.length) {
+                return 0;
+            }
+            int capacity = seqs.length + (seqs.length >> 1) + 1;
+            long grown = 4L * (capacity - seqs.length);
+            seqs = Arrays.copyOf(seqs, capacity);
+            return grown;
+        }
+
+        private boolean contains(int seq) {
+            return Arrays.binarySearch(seqs, 0, size, seq) >= 0;
+        }
+
+        // Index of the largest sequence below the given one, or -1.
+        private int indexBelow(int seq) {
+            int position = Arrays.binarySearch(seqs, 0, size, seq);
+            return (position >= 0 ? position : -position - 1) - 1;
+        }
+    }
+}
@@ -1,16 +1,29 @@
 package com.Jitter.Jitter.Backend.Service;
 
+import com.Jitter.Jitter.Backend.DTO.ChatSummaryDTO;
+import com.Jitter.Jitter.Backend.DTO.MessageHistoryDTO;
+import com.Jitter.Jitter.Backend.DTO.ReadReceiptDTO;
+import com.Jitter.Jitter.Backend.DTO.UserSummaryDTO;
+import com.Jitter.Jitter.Backend.Models.Attachment;
 import com.Jitter.Jitter.Backend.Models.Chat;
 import com.Jitter.Jitter.Backend.Models.Message;
+import com.Jitter.Jitter.Backend.Models.SyncChange;
 import com.Jitter.Jitter.Backend.Models.User;
 import com.Jitter.Jitter.Backend.Repository.ChatRepository;
-import com.Jitter.Jitter.Backend.Repository.MessageRepository;
+import com.Jitter.Jitter.Backend.Repository.MessageArchive;
+import com.Jitter.Jitter.Backend.Repository.MessageStore;
 import com.Jitter.Jitter.Backend.Repository.UserRepository;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -20,41 +33,56 @@ import java.util.Base64;
 @Service
 public class ChatService {
     
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    
     @Autowired
     private ChatRepository chatRepository;
     
     @Autowired
-    private MessageRepository messageRepository;
+    private MessageStore messageStore;
     
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    
+    @Autowired
+    private ChatMembershipCache chatMembershipCache;
+    
+    @Autowired
+    private MessageIngestPipeline messageIngestPipeline;
+    
+    @Autowired
+    private PresenceService presenceService;
+    
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private MessageArchive messageArchive;
+
+    @Autowired
+    private AttachmentService attachmentService;
+
+    @Autowired
+    private ChatSearchService chatSearchService;
+
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+
+    @Value("${jitter.chat.archive.enabled:false}")
+    private boolean archiveEnabled;
+    
     public Chat createOrGetChat(String userId1, String userId2) {
-        final String actualUserId1;
-        final String actualUserId2;
-        
-        Optional<User> user1Opt = userRepository.findById(userId1);
-        if (user1Opt.isEmpty()) {
-            Optional<User> userByUsername = userRepository.findByUsername(userId1);
-            if (userByUsername.isPresent()) {
-                actualUserId1 = userByUsername.get().getId();
-            } else {
-                throw new RuntimeException("User1 not found: " + userId1);
-            }
-        } else {
-            actualUserId1 = userId1;
+        final String actualUserId1 = userIdentityCache.resolveUserId(userId1);
+        if (actualUserId1 == null) {
+            throw new RuntimeException("User1 not found: " + userId1);
         }
         
-        Optional<User> user2Opt = userRepository.findById(userId2);
-        if (user2Opt.isEmpty()) {
-            Optional<User> userByUsername = userRepository.findByUsername(userId2);
-            if (userByUsername.isPresent()) {
-                actualUserId2 = userByUsername.get().getId();
-            } else {
-                throw new RuntimeException("User2 not found: " + userId2);
-            }
-        } else {
-            actualUserId2 = userId2;
+        final String actualUserId2 = userIdentityCache.resolveUserId(userId2);
+        if (actualUserId2 == null) {
+            throw new RuntimeException("User2 not found: " + userId2);
         }
         
         Optional<Chat> existingChat = chatRepository.findByParticipantIds(actualUserId1, actualUserId2);
@@ -63,6 +91,7 @@ public class ChatService {
         }
         
         if (existingChat.isPresent()) {
+            chatMembershipCache.put(existingChat.get());
             return existingChat.get();
         }
         
@@ -75,144 +104,168 @@ public class ChatService {
         
         Chat newChat = new Chat(participants);
         Chat savedChat = chatRepository.save(newChat);
+        chatMembershipCache.put(savedChat);
+        presenceService.forgetPartners(participants);
         
         return savedChat;
     }
     
-    public List<Map<String, Object>> getUserChats(String userId) {
-        try {
-            final String actualUserId;
-            Optional<User> userOpt = userRepository.findById(userId);
-            if (userOpt.isEmpty()) {
-                Optional<User> userByUsername = userRepository.findByUsername(userId);
-                if (userByUsername.isPresent()) {
-                    actualUserId = userByUsername.get().getId();
-                } else {
-                    return new ArrayList<>();
-                }
-            } else {
-                actualUserId = userId;
+    public List<ChatSummaryDTO> getUserChats(String userId) {
+        String actualUserId = resolveUserId(userId);
+        if (actualUserId == null) {
+            return new ArrayList<>();
+        }
+
+        List<Chat> chats = chatRepository.findByParticipantIdsContainingOrderByLastMessageTimeDesc(actualUserId);
+        if (chats.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<String> otherUserIds = new HashSet<>();
+        Set<String> lastMessageIds = new HashSet<>();
+        for (Chat chat : chats) {
+            String otherUserId = otherParticipant(chat, actualUserId);
+            if (otherUserId != null) {
+                otherUserIds.add(otherUserId);
             }
-            
-            List<Chat> chats = chatRepository.findByParticipantIdsContainingOrderByLastMessageTimeDesc(actualUserId);
-            
-            return chats.stream().map(chat -> {
-                Map<String, Object> chatInfo = new HashMap<>();
-                chatInfo.put("id", chat.getId());
-                chatInfo.put("lastMessageTime", chat.getLastMessageTime());
-                
-                String otherUserId = chat.getParticipantIds().stream()
-                    .filter(id -> !id.equals(actualUserId))
-                    .findFirst()
-                    .orElse(null);
-                
-                if (otherUserId != null) {
-                    Optional<User> otherUserOpt = userRepository.findById(otherUserId);
-                    if (otherUserOpt.isEmpty()) {
-                        otherUserOpt = userRepository.findByUsername(otherUserId);
-                    }
-                    
-                    if (otherUserOpt.isPresent()) {
-                        User otherUser = otherUserOpt.get();
-                        
-                        Map<String, Object> otherUserInfo = new HashMap<>();
-                        otherUserInfo.put("id", otherUser.getId());
-                        otherUserInfo.put("username", otherUser.getUsername());
-                        
-                        if (otherUser.getProfilePicture() != null && otherUser.getProfilePicture().getData() != null && otherUser.getProfilePicture().getData().length > 0) {
-                            otherUserInfo.put("profilePicture", "/api/user/" + otherUser.getId() + "/profile-picture");
-                        } else {
-                            otherUserInfo.put("profilePicture", null);
-                        }
-                        
-                        chatInfo.put("otherUser", otherUserInfo);
-                    } else {
-                        Map<String, Object> otherUserInfo = new HashMap<>();
-                        otherUserInfo.put("id", otherUserId);
-                        otherUserInfo.put("username", "Unknown User");
-                        otherUserInfo.put("profilePicture", null);
-                        
-                        chatInfo.put("otherUser", otherUserInfo);
-                    }
-                } else {
-                    Map<String, Object> otherUserInfo = new HashMap<>();
-                    otherUserInfo.put("id", null);
-                    otherUserInfo.put("username", "Unknown User");
-                    otherUserInfo.put("profilePicture", null);
-                    
-                    chatInfo.put("otherUser", otherUserInfo);
-                }
-                
-                if (chat.getLastMessageId() != null) {
-                    try {
-                        Optional<Message> lastMessage = messageRepository.findById(chat.getLastMessageId());
-                        lastMessage.ifPresent(message -> chatInfo.put("lastMessage", message));
-                    } catch (Exception e) {
-                    }
-                }
-                
-                try {
-                    List<Message> unreadMessages = messageRepository.findUnreadMessagesInChat(chat.getId(), actualUserId);
-                    long unreadCount = unreadMessages != null ? unreadMessages.size() : 0;
-                    chatInfo.put("unreadCount", unreadCount);
-                } catch (Exception e) {
-                    chatInfo.put("unreadCount", 0L);
+            if (chat.getLastMessageId() != null) {
+                lastMessageIds.add(chat.getLastMessageId());
+            }
+        }
+
+        Map<String, UserSummaryDTO> otherUsers = new HashMap<>();
+        if (!otherUserIds.isEmpty()) {
+            for (User user : userRepository.findSummariesByIdIn(otherUserIds)) {
+                otherUsers.put(user.getId(), new UserSummaryDTO(user));
+                userIdentityCache.put(user.getId(), user.getUsername());
+            }
+            Set<String> unresolved = new HashSet<>(otherUserIds);
+            unresolved.removeAll(otherUsers.keySet());
+            if (!unresolved.isEmpty()) {
+                for (User user : userRepository.findSummariesByUsernameIn(unresolved)) {
+                    otherUsers.put(user.getUsername(), new UserSummaryDTO(user));
                 }
-                
-                return chatInfo;
-            }).collect(Collectors.toList());
-            
-        } catch (Exception e) {
-            throw e;
+            }
         }
+
+        Map<String, Message> lastMessages = new HashMap<>();
+        if (!lastMessageIds.isEmpty()) {
+            for (Message message : messageStore.findAllById(lastMessageIds)) {
+                lastMessages.put(message.getId(), message);
+            }
+        }
+
+        List<ChatSummaryDTO> summaries = new ArrayList<>(chats.size());
+        for (Chat chat : chats) {
+            String otherUserId = otherParticipant(chat, actualUserId);
+            UserSummaryDTO otherUser = otherUserId != null ? otherUsers.get(otherUserId) : null;
+            summaries.add(new ChatSummaryDTO(
+                    chat.getId(),
+                    otherUser != null ? otherUser : UserSummaryDTO.unknown(otherUserId),
+                    chat.getLastMessageId() != null ? lastMessages.get(chat.getLastMessageId()) : null,
+                    chat.getLastMessageTime(),
+                    chat.unreadCountFor(actualUserId),
+                    presenceService.isOnline(otherUserId)
+            ));
+        }
+        return summaries;
+    }
+
+    private String otherParticipant(Chat chat, String userId) {
+        return chat.getParticipantIds().stream()
+            .filter(id -> !id.equals(userId))
+            .findFirst()
+            .orElse(null);
+    }
+
+    // The lowest watermark among the other participants: messages up to it have been read by everyone else.
+    private static long partnerReadSeq(Chat chat, String userId) {
+        long readSeq = Long.MAX_VALUE;
+        for (String participantId : chat.getParticipantIds()) {
+            if (!participantId.equals(userId)) {
+                Long read = chat.getReadSeqs() != null ? chat.getReadSeqs().get(participantId) : null;
+                readSeq = Math.min(readSeq, read != null ? read : 0L);
+            }
+        }
+        return readSeq == Long.MAX_VALUE ? 0L : readSeq;
+    }
+
+    private String resolveUserId(String idOrUsername) {
+        return userIdentityCache.resolveUserId(idOrUsername);
     }
     
     public Message sendMessage(String chatId, String userId, String content, Message.MessageType type) {
-        try {
-            Optional<Chat> chatOpt = chatRepository.findById(chatId);
-            if (chatOpt.isEmpty()) {
-                throw new RuntimeException("Chat not found");
-            }
-            Chat chat = chatOpt.get();
+        return sendMessage(chatId, userId, content, type, null, null);
+    }
 
-            final String actualUserId;
-            Optional<User> userOpt = userRepository.findById(userId);
-            if (userOpt.isEmpty()) {
-                Optional<User> userByUsername = userRepository.findByUsername(userId);
-                if (userByUsername.isPresent()) {
-                    actualUserId = userByUsername.get().getId();
-                } else {
-                    throw new RuntimeException("Sender not found");
-                }
-            } else {
-                actualUserId = userId;
-            }
+    /**
+     * @param clientMessageId optional ObjectId chosen by the client; resending with the same id
+     *                        after an ambiguous failure returns the stored message instead of a copy
+     */
+    public Message sendMessage(String chatId, String userId, String content, Message.MessageType type,
+                               String attachmentId, String clientMessageId) {
+        List<String> participantIds = chatMembershipCache.getParticipants(chatId);
+        if (participantIds == null) {
+            throw new RuntimeException("Chat not found");
+        }
 
-            if (!chat.getParticipantIds().contains(actualUserId)) {
-                throw new RuntimeException("User is not a participant in this chat");
-            }
+        String actualUserId = resolveUserId(userId);
+        if (actualUserId == null) {
+            throw new RuntimeException("Sender not found");
+        }
 
-            Message message = new Message();
-            message.setChatId(chatId);
-            message.setSenderId(actualUserId);
-            message.setContent(content);
-            message.setType(type);
-            message.setTimestamp(LocalDateTime.now());
-            message.setRead(false);
+        if (!participantIds.contains(actualUserId)) {
+            throw new RuntimeException("User is not a participant in this chat");
+        }
+
+        if (clientMessageId != null && !ObjectId.isValid(clientMessageId)) {
+            throw new RuntimeException("Invalid message id");
+        }
+        String messageId = clientMessageId != null ? clientMessageId : new ObjectId().toHexString();
 
-            Message savedMessage = messageRepository.save(message);
+        if (attachmentId != null) {
+            Attachment attachment = attachmentService.bind(attachmentId, chatId, actualUserId, messageId);
+            if (content == null || content.isBlank()) {
+                content = attachment.getFileName();
+            }
+        } else if (type != Message.MessageType.TEXT) {
+            throw new RuntimeException("An attachment is required for " + type + " messages");
+        }
 
-            chat.setLastMessageId(savedMessage.getId());
-            chat.setLastMessageTime(savedMessage.getTimestamp());
-            chatRepository.save(chat);
+        Message message = new Message();
+        message.setId(messageId);
+        message.setChatId(chatId);
+        message.setSenderId(actualUserId);
+        message.setContent(content);
+        message.setAttachmentId(attachmentId);
+        message.setType(type);
+        message.setTimestamp(LocalDateTime.now());
 
-            return savedMessage;
-        } catch (Exception e) {
+        Message sent;
+        try {
+            sent = messageIngestPipeline.submit(message, clientMessageId != null);
+        } catch (RuntimeException e) {
+            // Without a client id the send cannot be retried, so free the upload unless the message did land.
+            if (attachmentId != null && clientMessageId == null && messageStore.findById(messageId).isEmpty()) {
+                attachmentService.unbind(attachmentId, messageId);
+            }
             throw e;
         }
+        chatSearchService.onMessage(sent);
+        return sent;
     }
     
-    public Page<Message> getChatMessages(String chatId, String userId, int page, int size) {
+    private static List<Message> newerThan(List<Message> messages, long archivedSeq) {
+        List<Message> result = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            if (message.getSeq() == null || message.getSeq() > archivedSeq) {
+                result.add(message);
+            }
+        }
+        return result;
+    }
+
+    public MessageHistoryDTO getChatMessages(String chatId, String userId, Long before, Long after, int page, int size) {
         try {
             Optional<Chat> chatOpt = chatRepository.findById(chatId);
             if (chatOpt.isEmpty()) {
@@ -220,40 +273,112 @@ public class ChatService {
             }
             Chat chat = chatOpt.get();
 
-            final String actualUserId;
-            Optional<User> userOpt = userRepository.findById(userId);
-            if (userOpt.isEmpty()) {
-                Optional<User> userByUsername = userRepository.findByUsername(userId);
-                if (userByUsername.isPresent()) {
-                    actualUserId = userByUsername.get().getId();
-                } else {
-                    throw new RuntimeException("User not found");
-                }
-            } else {
-                actualUserId = userId;
+            String actualUserId = resolveUserId(userId);
+            if (actualUserId == null) {
+                throw new RuntimeException("User not found");
             }
 
-            if (!chat.getParticipantIds().contains(actualUserId) && !chat.getParticipantIds().contains(userId)) {
+            if (!chat.getParticipantIds().contains(actualUserId)) {
                 throw new RuntimeException("User is not authorized to access this chat");
             }
 
-            Pageable pageable = PageRequest.of(page, size);
-            Page<Message> messages = messageRepository.findByChatIdOrderByTimestampDesc(chatId, pageable);
-            return messages;
+            int limit = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+            long latestSeq = chat.getLastSeq() != null ? chat.getLastSeq() : 0L;
+            long archivedSeq = chat.getArchivedThroughSeq() != null ? chat.getArchivedThroughSeq() : 0L;
+            List<Message> messages;
+            boolean hasMore;
+            boolean first;
+            if (after != null) {
+                messages = new ArrayList<>(messageArchive.readAfter(chatId, archivedSeq, after, limit + 1));
+                hasMore = messages.size() > limit;
+                if (!hasMore) {
+                    Slice<Message> hot = messageStore.findAfter(chatId, Math.max(after, archivedSeq), limit - messages.size() + 1);
+                    messages.addAll(hot.getContent());
+                    hasMore = hot.hasNext() || messages.size() > limit;
+                }
+                first = after <= 0;
+            } else if (before != null) {
+                Slice<Message> hot = messageStore.findBefore(chatId, before, limit + 1);
+                messages = newerThan(hot.getContent(), archivedSeq);
+                hasMore = messages.size() > limit;
+                if (!hasMore && archivedSeq > 0) {
+                    messages.addAll(messageArchive.readBefore(chatId, archivedSeq, before, 0, limit - messages.size() + 1));
+                    hasMore = messages.size() > limit;
+                }
+                first = before > latestSeq;
+            } else {
+                int pageIndex = Math.max(0, page);
+                Slice<Message> hot = messageStore.findLatest(chatId, pageIndex, limit);
+                messages = newerThan(hot.getContent(), archivedSeq);
+                hasMore = messages.size() == limit && (hot.hasNext() || archivedSeq > 0);
+                if (messages.size() < limit && archivedSeq > 0) {
+                    long skip = messages.isEmpty() ? Math.max(0L, (long) pageIndex * limit - messageStore.count(chatId)) : 0L;
+                    messages.addAll(messageArchive.readBefore(chatId, archivedSeq, Long.MAX_VALUE, skip, limit - messages.size() + 1));
+                    hasMore = messages.size() > limit;
+                }
+                first = page <= 0;
+            }
+            if (messages.size() > limit) {
+                messages = new ArrayList<>(messages.subList(0, limit));
+            }
+
+            Long oldestSeq = null;
+            Long newestSeq = null;
+            for (Message message : messages) {
+                if (message.getSeq() == null) {
+                    continue;
+                }
+                oldestSeq = oldestSeq == null ? message.getSeq() : Math.min(oldestSeq, message.getSeq());
+                newestSeq = newestSeq == null ? message.getSeq() : Math.max(newestSeq, message.getSeq());
+            }
+            return new MessageHistoryDTO(messages, first, !hasMore, oldestSeq, newestSeq, latestSeq,
+                partnerReadSeq(chat, actualUserId));
         } catch (Exception e) {
             throw e;
         }
     }
     
-    public void markMessagesAsRead(String chatId, String userId) {
+    public MessageHistoryDTO searchMessages(String chatId, String userId, String query, Long before, int size) {
+        Chat chat = chatRepository.findById(chatId).orElseThrow(() -> new RuntimeException("Chat not found"));
+
+        String actualUserId = resolveUserId(userId);
+        if (actualUserId == null) {
+            throw new RuntimeException("User not found");
+        }
+
+        if (!chat.getParticipantIds().contains(actualUserId)) {
+            throw new RuntimeException("User is not authorized to access this chat");
+        }
+
+        int limit = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+        List<Message> messages = chatSearchService.search(chat, query, before, limit);
+        Long oldestSeq = messages.isEmpty() ? null : messages.get(messages.size() - 1).getSeq();
+        Long newestSeq = messages.isEmpty() ? null : messages.get(0).getSeq();
+        long latestSeq = chat.getLastSeq() != null ? chat.getLastSeq() : 0L;
+        return new MessageHistoryDTO(messages, before == null, messages.size() < limit, oldestSeq, newestSeq, latestSeq,
+            partnerReadSeq(chat, actualUserId));
+    }
+
+    public ReadReceiptDTO markMessagesAsRead(String chatId, String userId) {
         try {
-            List<Message> unreadMessages = messageRepository.findUnreadMessagesInChat(chatId, userId);
-            for (Message message : unreadMessages) {
-                if (!message.getSenderId().equals(userId)) {
-                    message.setRead(true);
-                }
+            String actualUserId = resolveUserId(userId);
+            if (actualUserId == null) {
+                throw new RuntimeException("User not found");
+            }
+
+            AggregationUpdate update = AggregationUpdate.update()
+                .set("readSeqs." + actualUserId).toValueOf(ConditionalOperators.ifNull("lastSeq").then(0));
+            Chat chat = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(chatId).and("participantIds").is(actualUserId)), update,
+                FindAndModifyOptions.options().returnNew(true), Chat.class);
+            if (chat == null) {
+                throw new RuntimeException("Chat not found");
             }
-            messageRepository.saveAll(unreadMessages);
+
+            long readSeq = chat.getReadSeqs() != null ? chat.getReadSeqs().getOrDefault(actualUserId, 0L) : 0L;
+            syncService.record(chat.getParticipantIds(),
+                new SyncChange(SyncChange.Type.READ, chatId, null, actualUserId, readSeq));
+            return new ReadReceiptDTO(chatId, actualUserId, readSeq, LocalDateTime.now(), chat.getParticipantIds());
         } catch (Exception e) {
             throw new RuntimeException("Error marking messages as read: " + e.getMessage(), e);
         }
@@ -267,17 +392,9 @@ public class ChatService {
             }
             Chat chat = chatOpt.get();
 
-            final String actualUserId;
-            Optional<User> userOpt = userRepository.findById(userId);
-            if (userOpt.isEmpty()) {
-                Optional<User> userByUsername = userRepository.findByUsername(userId);
-                if (userByUsername.isPresent()) {
-                    actualUserId = userByUsername.get().getId();
-                } else {
-                    return Optional.empty();
-                }
-            } else {
-                actualUserId = userId;
+            String actualUserId = resolveUserId(userId);
+            if (actualUserId == null) {
+                return Optional.empty();
             }
 
             if (!chat.getParticipantIds().contains(actualUserId)) {
@@ -292,22 +409,57 @@ public class ChatService {
     
     public void deleteMessage(String messageId, String userId) {
         try {
-            Optional<Message> messageOpt = messageRepository.findById(messageId);
-            if (messageOpt.isEmpty()) {
-                throw new RuntimeException("Message not found");
+            Message message = findMutableMessage(messageId);
+            String actualUserId = resolveUserId(userId);
+            if (!message.getSenderId().equals(actualUserId)) {
+                throw new RuntimeException("You can only delete your own messages");
             }
 
-            Message message = messageOpt.get();
-            if (!message.getSenderId().equals(userId)) {
-                throw new RuntimeException("You can only delete your own messages");
+            messageStore.delete(message);
+            chatSearchService.onDelete(message);
+            if (message.getAttachmentId() != null) {
+                attachmentService.deleteForMessage(message.getAttachmentId(), message.getId());
             }
 
-            messageRepository.delete(message);
+            List<String> participantIds = chatMembershipCache.getParticipants(message.getChatId());
+            if (participantIds != null) {
+                syncService.record(participantIds,
+                    new SyncChange(SyncChange.Type.MESSAGE_DELETED, message.getChatId(), message.getId(), actualUserId, null));
+            }
         } catch (Exception e) {
             throw new RuntimeException("Error deleting message: " + e.getMessage(), e);
         }
     }
     
+    public Message editMessage(String messageId, String userId, String content) {
+        try {
+            Message message = findMutableMessage(messageId);
+            String actualUserId = resolveUserId(userId);
+            if (!message.getSenderId().equals(actualUserId)) {
+                throw new RuntimeException("You can only edit your own messages");
+            }
+
+            Message edited = messageStore.edit(message, content);
+            chatSearchService.onEdit(edited);
+
+            List<String> participantIds = chatMembershipCache.getParticipants(message.getChatId());
+            if (participantIds != null) {
+                syncService.record(participantIds,
+                    new SyncChange(SyncChange.Type.MESSAGE, message.getChatId(), message.getId(), actualUserId, null));
+            }
+            return edited;
+        } catch (Exception e) {
+            throw new RuntimeException("Error editing message: " + e.getMessage(), e);
+        }
+    }
+    
+    // Archived messages live in compressed segment files that are never rewritten, so only the store can change.
+    private Message findMutableMessage(String messageId) {
+        return messageStore.findById(messageId).orElseThrow(() -> new RuntimeException(archiveEnabled
+            ? "Message not found; messages moved to the chat archive are read-only"
+            : "Message not found"));
+    }
+
     public Chat createChat(String currentUserId, String otherUserId) {
         return createOrGetChat(currentUserId, otherUserId);
     }
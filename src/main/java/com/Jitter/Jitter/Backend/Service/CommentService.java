@@ -2,13 +2,14 @@ package com.Jitter.Jitter.Backend.Service;
 
 import com.Jitter.Jitter.Backend.Models.Comment;
 import com.Jitter.Jitter.Backend.DTO.CommentDTO;
-import com.Jitter.Jitter.Backend.Models.User;
+import com.Jitter.Jitter.Backend.DTO.UserSummaryDTO;
 import com.Jitter.Jitter.Backend.Repository.CommentRepository;
-import com.Jitter.Jitter.Backend.Repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import java.util.ArrayList;
 
 @Service
@@ -18,28 +19,30 @@ public class CommentService {
     private final CommentRepository commentRepository;
 
     @Autowired
-    private final UserRepository userRepository;
+    private final UserSummaryCache userSummaryCache;
 
-    public CommentService(CommentRepository commentRepository, UserRepository userRepository) {
+    public CommentService(CommentRepository commentRepository, UserSummaryCache userSummaryCache) {
         this.commentRepository = commentRepository;
-        this.userRepository = userRepository;
+        this.userSummaryCache = userSummaryCache;
     }
 
     public List<CommentDTO> getEnrichedByPostId(String postId) {
         List<Comment> comments = commentRepository.findByPostId(postId);
-        List<CommentDTO> enriched = new ArrayList<>();
+        Set<String> userIds = new HashSet<>();
         for (Comment comment : comments) {
-            Optional<User> userOpt = userRepository.findById(comment.getUserId());
-            String username = userOpt.map(User::getUsername).orElse("Unknown");
-            String profilePictureUrl = userOpt.isPresent() && userOpt.get().getProfilePicture() != null && userOpt.get().getProfilePicture().getData() != null
-                    ? "/users/" + userOpt.get().getId() + "/profile-picture"
-                    : null;
+            userIds.add(comment.getUserId());
+        }
+        Map<String, UserSummaryDTO> users = userSummaryCache.getAll(userIds);
+
+        List<CommentDTO> enriched = new ArrayList<>(comments.size());
+        for (Comment comment : comments) {
+            UserSummaryDTO user = users.get(comment.getUserId());
             enriched.add(new CommentDTO(
                     comment.getId(),
                     comment.getPostId(),
                     comment.getUserId(),
-                    username,
-                    profilePictureUrl,
+                    user != null ? user.getUsername() : "Unknown",
+                    user != null ? user.getProfilePicture() : null,
                     comment.getContent(),
                     comment.getCreatedAt()
             ));
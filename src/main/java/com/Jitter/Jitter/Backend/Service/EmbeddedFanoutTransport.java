@@ -0,0 +1,65 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import com.Jitter.Jitter.Backend.DTO.FanoutEnvelope;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process stand-in for a broker: every application context in the same JVM that
+ * selects this transport joins one shared hub, so several nodes can be started side
+ * by side and exchange deliveries without external infrastructure.
+ */
+@Service
+@ConditionalOnProperty(name = "jitter.fanout.transport", havingValue = "embedded")
+public class EmbeddedFanoutTransport implements FanoutTransport {
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedFanoutTransport.class);
+
+    private static final List<EmbeddedFanoutTransport> NODES = new CopyOnWriteArrayList<>();
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<Consumer<FanoutEnvelope>> listeners = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    public void join() {
+        NODES.add(this);
+    }
+
+    @PreDestroy
+    public void leave() {
+        NODES.remove(this);
+    }
+
+    @Override
+    public void publish(FanoutEnvelope envelope) {
+        envelope.setNodeId(nodeId);
+        for (EmbeddedFanoutTransport node : NODES) {
+            if (node != this) {
+                node.receive(envelope);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<FanoutEnvelope> listener) {
+        listeners.add(listener);
+    }
+
+    private void receive(FanoutEnvelope envelope) {
+        for (Consumer<FanoutEnvelope> listener : listeners) {
+            try {
+                listener.accept(envelope);
+            } catch (Exception e) {
+                logger.warn("Node {} failed to handle fan-out to {}", nodeId, envelope.getDestination(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import com.Jitter.Jitter.Backend.DTO.FanoutEnvelope;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries user deliveries between application nodes. Every node delivers its own
+ * sessions first and then publishes the envelope; other nodes receive it and
+ * deliver to whichever of the listed users are connected to them. The
+ * implementation is chosen with {@code jitter.fanout.transport}.
+ */
+public interface FanoutTransport {
+
+    void publish(FanoutEnvelope envelope);
+
+    void subscribe(Consumer<FanoutEnvelope> listener);
+}
@@ -0,0 +1,193 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * HyperLogLog sketch with 2^13 registers (about 1.15% standard error). Small sketches
+ * keep only their non-zero registers, sorted by index, and switch to a dense register
+ * array once that would be larger. Serialized sketches are a format byte followed by
+ * either 3-byte sparse entries or the 8192 registers packed at 6 bits each (6 KB).
+ * Merging takes the per-register maximum, so it is commutative and idempotent, and
+ * sketches built on different nodes can be merged in any order, any number of times.
+ * Not thread-safe.
+ */
+public final class HyperLogLog {
+
+    private static final int P = 13;
+    private static final int M = 1 << P;
+    private static final int SPARSE_MAX = 2048;
+    private static final byte SPARSE = 1;
+    private static final byte DENSE = 2;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / M);
+
+    private int[] sparse = new int[16];
+    private int sparseSize;
+    private byte[] dense;
+
+    public static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    public void offer(long hash) {
+        int index = (int) (hash >>> (64 - P));
+        int rank = Long.numberOfLeadingZeros((hash << P) | (1L << (P - 1))) + 1;
+        set(index, rank);
+    }
+
+    public void merge(HyperLogLog other) {
+        if (other.dense != null) {
+            toDense();
+            for (int i = 0; i < M; i++) {
+                if (other.dense[i] > dense[i]) {
+                    dense[i] = other.dense[i];
+                }
+            }
+        } else {
+            for (int i = 0; i < other.sparseSize; i++) {
+                set(other.sparse[i] >>> 6, other.sparse[i] & 0x3f);
+            }
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        if (dense != null) {
+            for (byte register : dense) {
+                sum += 1.0 / (1L << register);
+                if (register == 0) {
+                    zeros++;
+                }
+            }
+        } else {
+            zeros = M - sparseSize;
+            sum = zeros;
+            for (int i = 0; i < sparseSize; i++) {
+                sum += 1.0 / (1L << (sparse[i] & 0x3f));
+            }
+        }
+        double estimate = ALPHA * M * M / sum;
+        if (estimate <= 2.5 * M && zeros > 0) {
+            estimate = M * Math.log((double) M / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public byte[] toBytes() {
+        if (dense == null) {
+            byte[] bytes = new byte[1 + 3 * sparseSize];
+            bytes[0] = SPARSE;
+            for (int i = 0; i < sparseSize; i++) {
+                int entry = sparse[i];
+                bytes[1 + 3 * i] = (byte) (entry >>> 16);
+                bytes[2 + 3 * i] = (byte) (entry >>> 8);
+                bytes[3 + 3 * i] = (byte) entry;
+            }
+            return bytes;
+        }
+        byte[] bytes = new byte[1 + M * 6 / 8];
+        bytes[0] = DENSE;
+        long buffer = 0;
+        int bits = 0;
+        int out = 1;
+        for (byte register : dense) {
+            buffer = (buffer << 6) | register;
+            bits += 6;
+            while (bits >= 8) {
+                bits -= 8;
+                bytes[out++] = (byte) (buffer >>> bits);
+            }
+        }
+        return bytes;
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        HyperLogLog sketch = new HyperLogLog();
+        if (bytes == null || bytes.length == 0) {
+            return sketch;
+        }
+        if (bytes[0] == SPARSE) {
+            for (int i = 1; i + 2 < bytes.length; i += 3) {
+                int entry = (bytes[i] & 0xff) << 16 | (bytes[i + 1] & 0xff) << 8 | (bytes[i + 2] & 0xff);
+                sketch.set(entry >>> 6, entry & 0x3f);
+            }
+            return sketch;
+        }
+        if (bytes[0] != DENSE || bytes.length != 1 + M * 6 / 8) {
+            throw new IllegalArgumentException("Unrecognized sketch encoding");
+        }
+        sketch.dense = new byte[M];
+        long buffer = 0;
+        int bits = 0;
+        int register = 0;
+        for (int i = 1; i < bytes.length; i++) {
+            buffer = (buffer << 8) | (bytes[i] & 0xff);
+            bits += 8;
+            while (bits >= 6) {
+                bits -= 6;
+                sketch.dense[register++] = (byte) ((buffer >>> bits) & 0x3f);
+            }
+        }
+        sketch.sparse = null;
+        return sketch;
+    }
+
+    private void set(int index, int rank) {
+        if (dense != null) {
+            if (rank > dense[index]) {
+                dense[index] = (byte) rank;
+            }
+            return;
+        }
+        int low = 0;
+        int high = sparseSize - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midIndex = sparse[mid] >>> 6;
+            if (midIndex < index) {
+                low = mid + 1;
+            } else if (midIndex > index) {
+                high = mid - 1;
+            } else {
+                if (rank > (sparse[mid] & 0x3f)) {
+                    sparse[mid] = index << 6 | rank;
+                }
+                return;
+            }
+        }
+        if (sparseSize == SPARSE_MAX) {
+            toDense();
+            set(index, rank);
+            return;
+        }
+        if (sparseSize == sparse.length) {
+            sparse = Arrays.copyOf(sparse, Math.min(SPARSE_MAX, sparse.length * 2));
+        }
+        System.arraycopy(sparse, low, sparse, low + 1, sparseSize - low);
+        sparse[low] = index << 6 | rank;
+        sparseSize++;
+    }
+
+    private void toDense() {
+        if (dense != null) {
+            return;
+        }
+        dense = new byte[M];
+        for (int i = 0; i < sparseSize; i++) {
+            dense[sparse[i] >>> 6] = (byte) (sparse[i] & 0x3f);
+        }
+        sparse = null;
+        sparseSize = 0;
+    }
+}
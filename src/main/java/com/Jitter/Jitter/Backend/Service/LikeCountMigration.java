@@ -0,0 +1,118 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import com.Jitter.Jitter.Backend.Models.Like;
+import com.Jitter.Jitter.Backend.Models.Post;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prepares likes and like counts before the unique like index is built. Until the
+ * {@code post_user} index exists, duplicate likes of a user on a post are removed,
+ * keeping the oldest, and stored counts that included them are decremented. Then posts
+ * created before like counts were stored get a {@code likeCount} computed from their
+ * likes, one batch of posts per aggregation. Runs before the index initializer and
+ * {@link PostLikeCounter}; a failure stops startup, because the counter never creates a
+ * missing {@code likeCount} and would otherwise drop the deltas of posts left without one.
+ */
+@Component
+public class LikeCountMigration {
+    private static final Logger logger = LoggerFactory.getLogger(LikeCountMigration.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final String UNIQUE_INDEX = "post_user";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        removeDuplicateLikes();
+        backfill();
+    }
+
+    private void removeDuplicateLikes() {
+        boolean indexed = mongoTemplate.indexOps(Like.class).getIndexInfo().stream()
+            .anyMatch(info -> UNIQUE_INDEX.equals(info.getName()));
+        if (indexed) {
+            return;
+        }
+        Aggregation duplicates = Aggregation.newAggregation(
+            Aggregation.sort(Sort.Direction.ASC, "_id"),
+            Aggregation.group("postId", "userId").push("_id").as("ids").count().as("count"),
+            Aggregation.match(Criteria.where("count").gt(1)))
+            .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+        long removed = 0;
+        Map<String, Long> removedByPost = new HashMap<>();
+        for (Document group : mongoTemplate.aggregate(duplicates, Like.class, Document.class)) {
+            List<Object> ids = group.getList("ids", Object.class);
+            Query extra = Query.query(Criteria.where("_id").in(ids.subList(1, ids.size())));
+            long deleted = mongoTemplate.remove(extra, Like.class).getDeletedCount();
+            if (deleted > 0) {
+                removed += deleted;
+                removedByPost.merge(group.get("_id", Document.class).getString("postId"), deleted, Long::sum);
+            }
+        }
+        if (removed == 0) {
+            return;
+        }
+        logger.warn("Removed {} duplicate likes on {} posts", removed, removedByPost.size());
+
+        // Stored counts were incremented for every duplicate; posts without one are counted from scratch below.
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class);
+        removedByPost.forEach((postId, count) -> bulk.updateOne(
+            Query.query(Criteria.where("_id").is(postId).and("likeCount").exists(true)),
+            new Update().inc("likeCount", -count)));
+        bulk.execute();
+    }
+
+    private void backfill() {
+        int migrated = 0;
+        while (true) {
+            Query legacy = Query.query(Criteria.where("likeCount").exists(false)).limit(BATCH_SIZE);
+            legacy.fields().include("_id");
+            List<String> postIds = mongoTemplate.find(legacy, Post.class).stream().map(Post::getId).toList();
+            if (postIds.isEmpty()) {
+                break;
+            }
+            migrateBatch(postIds);
+            migrated += postIds.size();
+        }
+        if (migrated > 0) {
+            logger.info("Backfilled like counts for {} posts", migrated);
+        }
+    }
+
+    private void migrateBatch(List<String> postIds) {
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(Criteria.where("postId").in(postIds)),
+            Aggregation.group("postId").count().as("count"));
+        Map<String, Long> counts = new HashMap<>();
+        for (Document result : mongoTemplate.aggregate(aggregation, Like.class, Document.class)) {
+            counts.put(result.getString("_id"), ((Number) result.get("count")).longValue());
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class);
+        for (String postId : postIds) {
+            bulk.updateOne(Query.query(Criteria.where("_id").is(postId).and("likeCount").exists(false)),
+                new Update().set("likeCount", counts.getOrDefault(postId, 0L)));
+        }
+        bulk.execute();
+    }
+}
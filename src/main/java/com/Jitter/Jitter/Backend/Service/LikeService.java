@@ -1,9 +1,15 @@
 package com.Jitter.Jitter.Backend.Service;
 
 import com.Jitter.Jitter.Backend.Models.Like;
+import com.Jitter.Jitter.Backend.Models.Post;
 import com.Jitter.Jitter.Backend.Repository.LikeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,8 +19,25 @@ public class LikeService {
     @Autowired
     private final LikeRepository likeRepository;
 
-    public LikeService(LikeRepository likeRepository) {
+    @Autowired
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    private final PostLikeCounter likeCounter;
+
+    @Autowired
+    private final NotificationService notificationService;
+
+    @Autowired
+    private final PostMembershipCache membershipCache;
+
+    public LikeService(LikeRepository likeRepository, MongoTemplate mongoTemplate, PostLikeCounter likeCounter,
+                       NotificationService notificationService, PostMembershipCache membershipCache) {
         this.likeRepository = likeRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.likeCounter = likeCounter;
+        this.notificationService = notificationService;
+        this.membershipCache = membershipCache;
     }
 
     public List<Like> getByPostId(String postId) {
@@ -25,11 +48,61 @@ public class LikeService {
         return likeRepository.findByPostIdAndUserId(postId, userId);
     }
 
+    public long getCount(String postId) {
+        Long count = likeCounter.getCounts(List.of(postId)).get(postId);
+        return count != null ? count : 0;
+    }
+
+    public Like like(Like like) {
+        like.setId(null);
+        if (like.getCreatedAt() == null) {
+            like.setCreatedAt(new Date());
+        }
+        Like saved;
+        try {
+            saved = likeRepository.insert(like);
+        } catch (DuplicateKeyException e) {
+            // Already liked; the unique post/user index keeps the count exact.
+            return likeRepository.findByPostIdAndUserId(like.getPostId(), like.getUserId()).orElseThrow(() -> e);
+        }
+        likeCounter.add(saved.getPostId(), 1);
+        membershipCache.onLike(saved.getUserId(), saved.getPostId(), true);
+
+        Query ownerQuery = Query.query(Criteria.where("_id").is(saved.getPostId()));
+        ownerQuery.fields().include("userId");
+        Post post = mongoTemplate.findOne(ownerQuery, Post.class);
+        if (post != null && !post.getUserId().equals(saved.getUserId())) {
+            notificationService.createNotification(post.getUserId(), "LIKE", saved.getUserId(), post.getId(), null, null);
+        }
+        return saved;
+    }
+
+    public void unlike(String id) {
+        Like removed = mongoTemplate.findAndRemove(Query.query(Criteria.where("_id").is(id)), Like.class);
+        if (removed != null) {
+            likeCounter.add(removed.getPostId(), -1);
+            membershipCache.onLike(removed.getUserId(), removed.getPostId(), false);
+        }
+    }
+
+    public Like update(String id, Like updated) {
+        updated.setId(id);
+        Optional<Like> previous = likeRepository.findById(id);
+        Like saved = likeRepository.save(updated);
+        previous.ifPresent(like -> {
+            likeCounter.add(like.getPostId(), -1);
+            membershipCache.invalidate(like.getUserId());
+        });
+        likeCounter.add(saved.getPostId(), 1);
+        membershipCache.invalidate(saved.getUserId());
+        return saved;
+    }
+
     public Like save(Like like) {
         return likeRepository.save(like);
     }
 
     public void delete(String id) {
-        likeRepository.deleteById(id);
+        unlike(id);
     }
 }
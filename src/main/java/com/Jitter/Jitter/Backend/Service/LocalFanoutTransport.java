@@ -0,0 +1,20 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import com.Jitter.Jitter.Backend.DTO.FanoutEnvelope;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Consumer;
+
+@Service
+@ConditionalOnProperty(name = "jitter.fanout.transport", havingValue = "local", matchIfMissing = true)
+public class LocalFanoutTransport implements FanoutTransport {
+
+    @Override
+    public void publish(FanoutEnvelope envelope) {
+    }
+
+    @Override
+    public void subscribe(Consumer<FanoutEnvelope> listener) {
+    }
+}
@@ -0,0 +1,89 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import com.Jitter.Jitter.Backend.Models.Message;
+import com.Jitter.Jitter.Backend.Repository.MessageStore;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves messages from the per-message collection into buckets when bucket storage
+ * is enabled together with {@code jitter.chat.bucket.migrate}. Each batch skips
+ * messages that already made it into a bucket and is removed from the old
+ * collection only after it was written, so an interrupted run can simply be
+ * restarted. Runs after the read state migration has assigned sequences.
+ */
+@Component
+@DependsOn("chatReadStateMigration")
+@ConditionalOnProperty(name = "jitter.chat.storage", havingValue = "bucket")
+public class MessageBucketMigration {
+    private static final Logger logger = LoggerFactory.getLogger(MessageBucketMigration.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MessageStore messageStore;
+
+    @Value("${jitter.chat.bucket.migrate:false}")
+    private boolean enabled;
+
+    @PostConstruct
+    public void migrate() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            List<String> chatIds = mongoTemplate.findDistinct(new Query(), "chatId", Message.class, String.class);
+            long moved = 0;
+            for (String chatId : chatIds) {
+                moved += migrateChat(chatId);
+            }
+            if (moved > 0) {
+                logger.info("Moved {} messages from {} chats into buckets", moved, chatIds.size());
+            }
+        } catch (Exception e) {
+            logger.error("Message bucket migration failed", e);
+        }
+    }
+
+    private long migrateChat(String chatId) {
+        long moved = 0;
+        while (true) {
+            Query query = Query.query(Criteria.where("chatId").is(chatId).and("seq").exists(true))
+                .with(Sort.by(Sort.Direction.ASC, "seq"))
+                .limit(BATCH_SIZE);
+            List<Message> batch = mongoTemplate.find(query, Message.class);
+            if (batch.isEmpty()) {
+                return moved;
+            }
+
+            Set<String> alreadyMoved = new HashSet<>();
+            messageStore.findAllById(batch.stream().map(Message::getId).toList())
+                .forEach(message -> alreadyMoved.add(message.getId()));
+            List<Message> pending = batch.stream().filter(message -> !alreadyMoved.contains(message.getId())).toList();
+            if (!pending.isEmpty()) {
+                messageStore.insertAll(new ArrayList<>(pending));
+            }
+
+            mongoTemplate.remove(Query.query(Criteria.where("_id").in(batch.stream().map(Message::getId).toList())), Message.class);
+            moved += pending.size();
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import com.Jitter.Jitter.Backend.Models.Chat;
+import com.Jitter.Jitter.Backend.Models.Message;
+import com.Jitter.Jitter.Backend.Models.SyncChange;
+import com.Jitter.Jitter.Backend.Repository.MessageStore;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.Fields;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Collects outgoing chat messages for a few milliseconds and stores them together.
+ * Each chat in a batch gets one atomic update that reserves its sequence numbers, then
+ * the whole batch is written to the message store in one call, and only the messages
+ * that were stored move the chats' last-message fields. Senders are released only
+ * after that write has been acknowledged.
+ * <p>
+ * A sender that gives up waiting abandons its message, and the writer skips it unless
+ * it has already started storing it. Messages sent with a client-assigned id are
+ * idempotent: a retry of a message that is already stored returns the stored copy.
+ */
+@Service
+public class MessageIngestPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(MessageIngestPipeline.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final MessageStore messageStore;
+    private final ChatMembershipCache chatMembershipCache;
+    private final SyncService syncService;
+    private final BlockingQueue<PendingMessage> queue;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final long ackTimeoutMs;
+    private final DistributionSummary batchSizes;
+    private final Timer commitTimer;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public MessageIngestPipeline(MongoTemplate mongoTemplate,
+                                 MessageStore messageStore,
+                                 ChatMembershipCache chatMembershipCache,
+                                 SyncService syncService,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${jitter.chat.ingest.queue-capacity:10000}") int queueCapacity,
+                                 @Value("${jitter.chat.ingest.max-batch:128}") int maxBatchSize,
+                                 @Value("${jitter.chat.ingest.window-ms:5}") long windowMs,
+                                 @Value("${jitter.chat.ingest.ack-timeout-ms:5000}") long ackTimeoutMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.messageStore = messageStore;
+        this.chatMembershipCache = chatMembershipCache;
+        this.syncService = syncService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.ackTimeoutMs = ackTimeoutMs;
+        this.batchSizes = DistributionSummary.builder("jitter.chat.ingest.batch.size").register(meterRegistry);
+        this.commitTimer = Timer.builder("jitter.chat.ingest.commit").register(meterRegistry);
+        meterRegistry.gauge("jitter.chat.ingest.queue.size", queue, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::runWriter, "chat-ingest-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        List<PendingMessage> leftovers = new ArrayList<>();
+        queue.drainTo(leftovers);
+        leftovers.forEach(pending -> pending.future.completeExceptionally(
+            new RuntimeException("Chat service is shutting down")));
+    }
+
+    public Message submit(Message message) {
+        return submit(message, false);
+    }
+
+    /**
+     * @param clientAssignedId whether the message id came from the client, which makes
+     *                         a retry of an already stored message return that message
+     */
+    public Message submit(Message message, boolean clientAssignedId) {
+        PendingMessage pending = new PendingMessage(message, clientAssignedId);
+        if (!running || !queue.offer(pending)) {
+            throw new RuntimeException("Chat service is busy, please try again");
+        }
+
+        try {
+            try {
+                return pending.future.get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (pending.claimed.compareAndSet(false, true)) {
+                    // The writer has not picked it up yet and now never will.
+                    throw new RuntimeException("Timed out waiting for message to be stored");
+                }
+                // The writer is already storing it; report the real outcome rather than a failure that may be false.
+                return pending.future.get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+            }
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Timed out waiting for message to be stored");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while sending message", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Failed to store message", e.getCause());
+        }
+    }
+
+    private void runWriter() {
+        List<PendingMessage> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingMessage first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingMessage next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        queue.drainTo(batch, maxBatchSize - batch.size());
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commitTimer.record(() -> commit(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.error("Chat ingest batch failed", e);
+                batch.forEach(pending -> pending.future.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingMessage> batch) {
+        batchSizes.record(batch.size());
+
+        // Abandoned messages were already reported as failed; storing them would turn the client's retry into a duplicate.
+        batch.removeIf(pending -> !pending.claimed.compareAndSet(false, true));
+        List<PendingMessage> accepted = skipStored(batch);
+
+        Map<String, List<PendingMessage>> byChat = new LinkedHashMap<>();
+        for (PendingMessage pending : accepted) {
+            byChat.computeIfAbsent(pending.message.getChatId(), id -> new ArrayList<>()).add(pending);
+        }
+
+        List<PendingMessage> reserved = new ArrayList<>(batch.size());
+        for (Map.Entry<String, List<PendingMessage>> entry : byChat.entrySet()) {
+            try {
+                reserveSequences(entry.getKey(), entry.getValue());
+                reserved.addAll(entry.getValue());
+            } catch (Exception e) {
+                entry.getValue().forEach(pending -> pending.future.completeExceptionally(e));
+            }
+        }
+        if (reserved.isEmpty()) {
+            return;
+        }
+
+        List<Message> messages = new ArrayList<>(reserved.size());
+        reserved.forEach(pending -> messages.add(pending.message));
+        List<PendingMessage> stored = reserved;
+        try {
+            messageStore.insertAll(messages);
+        } catch (Exception e) {
+            logger.error("Failed to store {} chat messages", messages.size(), e);
+            stored = partiallyStored(reserved, e);
+        }
+        if (stored.isEmpty()) {
+            return;
+        }
+
+        List<Message> storedMessages = new ArrayList<>(stored.size());
+        stored.forEach(pending -> storedMessages.add(pending.message));
+        try {
+            publishLastMessages(storedMessages);
+        } catch (Exception e) {
+            // The messages are stored; the inbox catches up with the chat's next message.
+            logger.warn("Failed to move last message of {} chats", storedMessages.size(), e);
+        }
+        recordSyncChanges(storedMessages);
+        stored.forEach(pending -> pending.future.complete(pending.message));
+    }
+
+    /**
+     * Answers retries of client-assigned ids that are already stored, or already queued
+     * earlier in this batch, without storing them again. Returns the messages still to store.
+     */
+    private List<PendingMessage> skipStored(List<PendingMessage> batch) {
+        Map<String, PendingMessage> firstById = new HashMap<>();
+        List<String> retryableIds = new ArrayList<>();
+        List<PendingMessage> accepted = new ArrayList<>(batch.size());
+        for (PendingMessage pending : batch) {
+            if (!pending.clientAssignedId) {
+                accepted.add(pending);
+                continue;
+            }
+            PendingMessage first = firstById.putIfAbsent(pending.message.getId(), pending);
+            if (first == null) {
+                retryableIds.add(pending.message.getId());
+                accepted.add(pending);
+            } else {
+                first.future.whenComplete((message, error) -> complete(pending, message, error));
+            }
+        }
+        if (retryableIds.isEmpty()) {
+            return accepted;
+        }
+
+        Map<String, Message> existing = new HashMap<>();
+        try {
+            messageStore.findAllById(retryableIds).forEach(message -> existing.put(message.getId(), message));
+        } catch (Exception e) {
+            accepted.stream().filter(pending -> pending.clientAssignedId)
+                .forEach(pending -> pending.future.completeExceptionally(e));
+            accepted.removeIf(pending -> pending.clientAssignedId);
+            return accepted;
+        }
+        accepted.removeIf(pending -> {
+            Message stored = existing.get(pending.message.getId());
+            if (stored == null) {
+                return false;
+            }
+            if (stored.getChatId().equals(pending.message.getChatId())
+                    && stored.getSenderId().equals(pending.message.getSenderId())) {
+                pending.future.complete(stored);
+            } else {
+                pending.future.completeExceptionally(new RuntimeException("Message id is already in use"));
+            }
+            return true;
+        });
+        return accepted;
+    }
+
+    private static void complete(PendingMessage pending, Message message, Throwable error) {
+        if (error != null) {
+            pending.future.completeExceptionally(error);
+        } else {
+            pending.future.complete(message);
+        }
+    }
+
+    // A failed write may still have stored a prefix of the batch; those senders get their message, the rest an error.
+    private List<PendingMessage> partiallyStored(List<PendingMessage> reserved, Exception cause) {
+        Set<String> storedIds = new HashSet<>();
+        try {
+            List<String> ids = reserved.stream().map(pending -> pending.message.getId()).toList();
+            messageStore.findAllById(ids).forEach(message -> storedIds.add(message.getId()));
+        } catch (Exception e) {
+            logger.warn("Could not check which of {} chat messages were stored", reserved.size(), e);
+        }
+        List<PendingMessage> stored = new ArrayList<>();
+        for (PendingMessage pending : reserved) {
+            if (storedIds.contains(pending.message.getId())) {
+                stored.add(pending);
+            } else {
+                pending.future.completeExceptionally(new RuntimeException("Failed to store message", cause));
+            }
+        }
+        return stored;
+    }
+
+    // Conditional on the sequence, so a batch stored after a newer one from another node cannot move it back.
+    private void publishLastMessages(List<Message> messages) {
+        Map<String, Message> lastByChat = new LinkedHashMap<>();
+        for (Message message : messages) {
+            lastByChat.merge(message.getChatId(), message,
+                (current, candidate) -> candidate.getSeq() > current.getSeq() ? candidate : current);
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Chat.class);
+        for (Message last : lastByChat.values()) {
+            Date lastTime = Date.from(last.getTimestamp().atZone(ZoneId.systemDefault()).toInstant());
+            bulk.updateOne(
+                Query.query(Criteria.where("_id").is(last.getChatId()).and("lastMessageSeq").not().gte(last.getSeq())),
+                new Update()
+                    .set("lastMessageId", last.getId())
+                    .set("lastMessageSeq", last.getSeq())
+                    .set("lastMessageTime", lastTime)
+                    .set("updatedAt", lastTime));
+        }
+        bulk.execute();
+    }
+
+    private void recordSyncChanges(List<Message> messages) {
+        Map<String, List<SyncChange>> changesByUser = new HashMap<>();
+        for (Message message : messages) {
+            List<String> participantIds = chatMembershipCache.getParticipants(message.getChatId());
+            if (participantIds == null) {
+                continue;
+            }
+            SyncChange change = new SyncChange(SyncChange.Type.MESSAGE, message.getChatId(), message.getId(), message.getSenderId(), null);
+            for (String participantId : participantIds) {
+                changesByUser.computeIfAbsent(participantId, id -> new ArrayList<>()).add(change);
+            }
+        }
+        syncService.recordAll(changesByUser);
+    }
+
+    // A block whose insert then fails leaves a gap in the sequence, which history reads already tolerate for deletions.
+    private void reserveSequences(String chatId, List<PendingMessage> messages) {
+        int count = messages.size();
+
+        Map<String, Integer> lastIndexBySender = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            lastIndexBySender.put(messages.get(i).message.getSenderId(), i);
+        }
+
+        AggregationUpdate update = AggregationUpdate.update()
+            .set("lastSeq").toValueOf(ArithmeticOperators.valueOf(ConditionalOperators.ifNull("lastSeq").then(0)).add(count));
+        for (Map.Entry<String, Integer> entry : lastIndexBySender.entrySet()) {
+            int offset = count - 1 - entry.getValue();
+            update.set("readSeqs." + entry.getKey()).toValueOf(offset == 0
+                ? Fields.field("lastSeq")
+                : ArithmeticOperators.valueOf("lastSeq").subtract(offset));
+        }
+
+        Query query = Query.query(Criteria.where("_id").is(chatId));
+        query.fields().include("lastSeq");
+        Chat chat = mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Chat.class);
+        if (chat == null || chat.getLastSeq() == null) {
+            throw new RuntimeException("Chat not found");
+        }
+
+        long seq = chat.getLastSeq() - count + 1;
+        for (PendingMessage pending : messages) {
+            pending.message.setSeq(seq++);
+        }
+    }
+
+    private static class PendingMessage {
+        private final Message message;
+        private final boolean clientAssignedId;
+        private final CompletableFuture<Message> future = new CompletableFuture<>();
+        // Set by whichever comes first: the writer taking the message, or the sender abandoning it.
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        PendingMessage(Message message, boolean clientAssignedId) {
+            this.message = message;
+            this.clientAssignedId = clientAssignedId;
+        }
+    }
+}
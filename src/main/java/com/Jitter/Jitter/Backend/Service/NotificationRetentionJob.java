@@ -0,0 +1,136 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import com.Jitter.Jitter.Backend.Models.Notification;
+import com.Jitter.Jitter.Backend.Models.NotificationActor;
+import com.Jitter.Jitter.Backend.Models.NotificationCounter;
+import com.Jitter.Jitter.Backend.Repository.NotificationRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Bounds the notification inbox. A TTL index on {@code createdAt} expires old
+ * notifications, and users who received notifications since the last run are trimmed
+ * to their newest {@code jitter.notifications.max-per-user}. A trimmed user's unread
+ * counter is recounted. TTL expiry removes notifications without touching counters, so
+ * every non-zero counter is also recounted on {@code jitter.notifications.recount-cron}.
+ */
+@Component
+public class NotificationRetentionJob {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationRetentionJob.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UnreadNotificationCounter unreadCounter;
+
+    @Value("${jitter.notifications.retention-days:90}")
+    private long retentionDays;
+
+    @Value("${jitter.notifications.max-per-user:500}")
+    private int maxPerUser;
+
+    @Value("${jitter.notifications.coalesce-window-ms:86400000}")
+    private long coalesceWindowMs;
+
+    private final Set<String> touchedUsers = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void ensureTtlIndex() {
+        try {
+            mongoTemplate.indexOps(Notification.class).ensureIndex(
+                new Index().on("createdAt", Sort.Direction.ASC).named("created_ttl").expire(Duration.ofDays(retentionDays)));
+        } catch (Exception e) {
+            logger.error("Failed to create notification TTL index", e);
+        }
+        // An actor row is written inside its aggregate's window, so it is no longer needed one window later.
+        try {
+            mongoTemplate.indexOps(NotificationActor.class).ensureIndex(
+                new Index().on("createdAt", Sort.Direction.ASC).named("created_ttl").expire(Duration.ofMillis(coalesceWindowMs)));
+        } catch (Exception e) {
+            logger.error("Failed to create notification actor TTL index", e);
+        }
+    }
+
+    public void touch(String userId) {
+        touchedUsers.add(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${jitter.notifications.trim-interval-ms:60000}")
+    public void trim() {
+        List<String> userIds = new ArrayList<>(touchedUsers);
+        touchedUsers.removeAll(userIds);
+        for (String userId : userIds) {
+            try {
+                trimUser(userId);
+            } catch (Exception e) {
+                logger.warn("Failed to trim notifications of user {}", userId, e);
+                touchedUsers.add(userId);
+            }
+        }
+    }
+
+    private void trimUser(String userId) {
+        Query oldestKept = Query.query(Criteria.where("userId").is(userId))
+            .with(Sort.by(Sort.Direction.DESC, "createdAt", "_id"))
+            .skip(maxPerUser - 1L)
+            .limit(1);
+        oldestKept.fields().include("_id").include("createdAt");
+        Notification boundary = mongoTemplate.findOne(oldestKept, Notification.class);
+        if (boundary == null) {
+            return;
+        }
+        Query older = Query.query(Criteria.where("userId").is(userId).orOperator(
+            Criteria.where("createdAt").lt(boundary.getCreatedAt()),
+            Criteria.where("createdAt").is(boundary.getCreatedAt()).and("_id").lt(boundary.getId())));
+        long removed = mongoTemplate.remove(older, Notification.class).getDeletedCount();
+        if (removed > 0) {
+            unreadCounter.recount(userId, () -> notificationRepository.countByUserIdAndReadFalse(userId));
+            logger.debug("Trimmed {} notifications of user {}", removed, userId);
+        }
+    }
+
+    // A counter at zero cannot include an expired notification, so only non-zero counters are checked.
+    @Scheduled(cron = "${jitter.notifications.recount-cron:0 15 4 * * *}")
+    public void recountExpired() {
+        Query counted = Query.query(Criteria.where("unread").gt(0));
+        long corrected = 0;
+        try (Stream<NotificationCounter> counters = mongoTemplate.stream(counted, NotificationCounter.class)) {
+            for (NotificationCounter counter : (Iterable<NotificationCounter>) counters::iterator) {
+                try {
+                    // Compared with the live in-memory count, which may be ahead of the stored one.
+                    if (unreadCounter.recount(counter.getId(), () -> notificationRepository.countByUserIdAndReadFalse(counter.getId()))) {
+                        corrected++;
+                    }
+                } catch (Exception e) {
+                    logger.warn("Failed to recount notifications of user {}", counter.getId(), e);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Failed to recount unread notification counters", e);
+        }
+        if (corrected > 0) {
+            logger.info("Corrected {} unread notification counters", corrected);
+        }
+    }
+}
@@ -1,26 +1,76 @@
 package com.Jitter.Jitter.Backend.Service;
 
+import com.Jitter.Jitter.Backend.DTO.NotificationDTO;
+import com.Jitter.Jitter.Backend.DTO.NotificationEventDTO;
+import com.Jitter.Jitter.Backend.DTO.NotificationPageDTO;
+import com.Jitter.Jitter.Backend.DTO.PostSnippetDTO;
+import com.Jitter.Jitter.Backend.DTO.UserSummaryDTO;
 import com.Jitter.Jitter.Backend.Models.Notification;
+import com.Jitter.Jitter.Backend.Models.NotificationActor;
+import com.Jitter.Jitter.Backend.Models.Post;
+import com.Jitter.Jitter.Backend.Models.SyncChange;
 import com.Jitter.Jitter.Backend.Repository.NotificationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class NotificationService {
     private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
+    private static final int RECENT_ACTORS = 3;
+    private static final int MAX_PAGE_SIZE = 100;
     
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private UnreadNotificationCounter unreadCounter;
+
+    @Autowired
+    private UserDeliveryService userDeliveryService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private NotificationRetentionJob retentionJob;
+
+    @Autowired
+    private UserSummaryCache userSummaryCache;
+
+    @Value("${jitter.notifications.coalesce-types:LIKE}")
+    private Set<String> coalescedTypes;
+
+    @Value("${jitter.notifications.coalesce-window-ms:86400000}")
+    private long coalesceWindowMs;
+
     public Notification createNotification(String userId, String type, String sourceUserId, String postId, String commentId, String content) {
+        if (postId != null && coalescedTypes.contains(type)) {
+            return coalesceNotification(userId, type, sourceUserId, postId);
+        }
         Notification notification = new Notification();
         notification.setUserId(userId);
         notification.setType(type);
@@ -29,28 +79,163 @@ public class NotificationService {
         notification.setCommentId(commentId);
         notification.setContent(content);
         notification.setRead(false);
+        notification.setActorCount(1);
+        notification.setRecentActorIds(List.of(sourceUserId));
         notification.setCreatedAt(new Date());
-        return notificationRepository.save(notification);
+        // Load the counter first so a first-time count cannot already include this notification.
+        unreadCounter.get(userId);
+        Notification saved = notificationRepository.save(notification);
+        syncService.record(List.of(userId), new SyncChange(SyncChange.Type.NOTIFICATION, null, saved.getId(), sourceUserId, null));
+        long unread = unreadCounter.add(userId, 1);
+        userDeliveryService.deliver(userId, "/queue/notifications", NotificationEventDTO.created(saved, unread));
+        retentionJob.touch(userId);
+        return saved;
     }
 
-    public List<Notification> getUserNotifications(String userId) {
+    // Folds the event into the recipient's open aggregate for this post, creating it if needed. The unique openKey
+    // allows one open aggregate at a time and the unique notification_actors row admits each actor once, so neither
+    // two first likes arriving together nor a repeated like is counted twice.
+    private Notification coalesceNotification(String userId, String type, String sourceUserId, String postId) {
+        unreadCounter.get(userId);
+        String openKey = userId + ":" + type + ":" + postId;
+        while (true) {
+            Date now = new Date();
+            Date windowCutoff = new Date(now.getTime() - coalesceWindowMs);
+            Notification open = mongoTemplate.findOne(Query.query(Criteria.where("openKey").is(openKey)), Notification.class);
+            if (open == null) {
+                Notification created = createAggregate(userId, type, sourceUserId, postId, openKey, now);
+                if (created != null) {
+                    return publishCoalesced(created, sourceUserId, unreadCounter.add(userId, 1));
+                }
+                continue;
+            }
+            if (open.isRead() || open.getWindowStart().before(windowCutoff)) {
+                // Read or past its window, so the next actor starts a new aggregate.
+                mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(open.getId()).and("openKey").is(openKey)),
+                        new Update().unset("openKey"), Notification.class);
+                continue;
+            }
+            if (!addActor(open.getId(), sourceUserId, now)) {
+                return open;
+            }
+
+            Query stillOpen = Query.query(Criteria.where("_id").is(open.getId())
+                    .and("openKey").is(openKey)
+                    .and("read").is(false)
+                    .and("windowStart").gte(windowCutoff));
+            Update fold = new Update()
+                    .inc("actorCount", 1)
+                    .push("recentActorIds").atPosition(0).slice(RECENT_ACTORS).each(sourceUserId)
+                    .set("sourceUserId", sourceUserId)
+                    .set("createdAt", now);
+            Notification folded = mongoTemplate.findAndModify(stillOpen, fold,
+                    FindAndModifyOptions.options().returnNew(true), Notification.class);
+            if (folded != null) {
+                return publishCoalesced(folded, sourceUserId, unreadCounter.get(userId));
+            }
+            // The aggregate was read or its window ended after it was looked up; the actor goes into the next one.
+        }
+    }
+
+    // Returns null when another event created the open aggregate first.
+    private Notification createAggregate(String userId, String type, String sourceUserId, String postId, String openKey, Date now) {
+        Notification notification = new Notification();
+        notification.setUserId(userId);
+        notification.setType(type);
+        notification.setSourceUserId(sourceUserId);
+        notification.setPostId(postId);
+        notification.setRead(false);
+        notification.setActorCount(1);
+        notification.setRecentActorIds(List.of(sourceUserId));
+        notification.setOpenKey(openKey);
+        notification.setWindowStart(now);
+        notification.setCreatedAt(now);
+        Notification saved;
         try {
-            logger.info("Service: Fetching notifications for userId: {}", userId);
-            List<Notification> notifications = notificationRepository.findByUserIdOrderByCreatedAtDesc(userId);
-            logger.info("Service: Found {} notifications for userId: {}", notifications != null ? notifications.size() : 0, userId);
-            return notifications != null ? notifications : java.util.Collections.emptyList();
-        } catch (Exception e) {
-            logger.error("Service: Error fetching notifications for userId: {}", userId, e);
-            throw e;
+            saved = mongoTemplate.insert(notification);
+        } catch (DuplicateKeyException e) {
+            return null;
         }
+        addActor(saved.getId(), sourceUserId, now);
+        return saved;
+    }
+
+    private boolean addActor(String notificationId, String actorId, Date now) {
+        try {
+            mongoTemplate.insert(new NotificationActor(null, notificationId, actorId, now));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private Notification publishCoalesced(Notification saved, String sourceUserId, long unread) {
+        syncService.record(List.of(saved.getUserId()), new SyncChange(SyncChange.Type.NOTIFICATION, null, saved.getId(), sourceUserId, null));
+        userDeliveryService.deliver(saved.getUserId(), "/queue/notifications", NotificationEventDTO.created(saved, unread));
+        retentionJob.touch(saved.getUserId());
+        return saved;
+    }
+
+    public NotificationPageDTO getUserNotifications(String userId, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (cursor != null && !cursor.isBlank()) {
+            int separator = cursor.indexOf('_');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Date createdAt = new Date(Long.parseLong(cursor.substring(0, separator), 36));
+            String id = cursor.substring(separator + 1);
+            criteria.orOperator(
+                Criteria.where("createdAt").lt(createdAt),
+                Criteria.where("createdAt").is(createdAt).and("_id").lt(id));
+        }
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "createdAt", "_id"))
+                .limit(limit + 1);
+        List<Notification> notifications = mongoTemplate.find(query, Notification.class);
+        String nextCursor = null;
+        if (notifications.size() > limit) {
+            notifications = notifications.subList(0, limit);
+            Notification last = notifications.get(limit - 1);
+            nextCursor = Long.toString(last.getCreatedAt().getTime(), 36) + "_" + last.getId();
+        }
+        return new NotificationPageDTO(hydrate(notifications), nextCursor);
+    }
+
+    // Resolves the actors and posts of a page with one lookup per entity type.
+    private List<NotificationDTO> hydrate(List<Notification> notifications) {
+        Set<String> userIds = new HashSet<>();
+        Set<String> postIds = new HashSet<>();
+        for (Notification notification : notifications) {
+            userIds.add(notification.getSourceUserId());
+            if (notification.getPostId() != null) {
+                postIds.add(notification.getPostId());
+            }
+        }
+        Map<String, UserSummaryDTO> users = userSummaryCache.getAll(userIds);
+        Map<String, PostSnippetDTO> posts = new HashMap<>();
+        if (!postIds.isEmpty()) {
+            Query postQuery = Query.query(Criteria.where("_id").in(postIds));
+            postQuery.fields().include("_id").include("userId").include("content");
+            mongoTemplate.find(postQuery, Post.class).forEach(post -> posts.put(post.getId(), new PostSnippetDTO(post)));
+        }
+
+        List<NotificationDTO> hydrated = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            UserSummaryDTO sourceUser = users.get(notification.getSourceUserId());
+            hydrated.add(new NotificationDTO(notification,
+                    sourceUser != null ? sourceUser : UserSummaryDTO.unknown(notification.getSourceUserId()),
+                    notification.getPostId() != null ? posts.get(notification.getPostId()) : null));
+        }
+        return hydrated;
     }
 
     public Page<Notification> getUserNotificationsPaginated(String userId, int page, int size) {
         try {
-            logger.info("Service: Fetching paginated notifications for userId: {}, page: {}, size: {}", userId, page, size);
             Pageable pageable = PageRequest.of(page, size);
             Page<Notification> notifications = notificationRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
-            logger.info("Service: Found {} notifications on page {} for userId: {}", 
+            logger.debug("Found {} notifications on page {} for userId: {}", 
                 notifications.getNumberOfElements(), page, userId);
             return notifications;
         } catch (Exception e) {
@@ -60,39 +245,32 @@ public class NotificationService {
     }
 
     public long getUnreadNotificationCount(String userId) {
-        try {
-            logger.info("Service: Fetching unread count for userId: {}", userId);
-            long count = notificationRepository.countByUserIdAndReadFalse(userId);
-            logger.info("Service: Found {} unread notifications for userId: {}", count, userId);
-            return count;
-        } catch (Exception e) {
-            logger.error("Service: Error fetching unread count for userId: {}", userId, e);
-            throw e;
-        }
+        return unreadCounter.get(userId);
     }
 
     public void markNotificationAsRead(String notificationId) {
         notificationRepository.findById(notificationId).ifPresent(notification -> {
+            if (notification.isRead()) {
+                return;
+            }
             notification.setRead(true);
             notificationRepository.save(notification);
+            syncService.record(List.of(notification.getUserId()),
+                new SyncChange(SyncChange.Type.NOTIFICATION_READ, null, notificationId, notification.getUserId(), null));
+            long unread = unreadCounter.add(notification.getUserId(), -1);
+            userDeliveryService.deliver(notification.getUserId(), "/queue/notifications", NotificationEventDTO.unread(unread));
         });
     }
 
     public void markAllNotificationsAsRead(String userId) {
-        List<Notification> notifications = notificationRepository.findByUserIdAndReadFalse(userId);
-        notifications.forEach(notification -> notification.setRead(true));
-        notificationRepository.saveAll(notifications);
+        mongoTemplate.updateMulti(Query.query(Criteria.where("userId").is(userId).and("read").is(false)),
+                new Update().set("read", true), Notification.class);
+        syncService.record(List.of(userId), new SyncChange(SyncChange.Type.NOTIFICATION_READ, null, null, userId, null));
+        unreadCounter.set(userId, 0);
+        userDeliveryService.deliver(userId, "/queue/notifications", NotificationEventDTO.unread(0));
     }
 
     public long getTotalNotificationCount() {
-        try {
-            logger.info("Service: Getting total notification count");
-            long count = notificationRepository.count();
-            logger.info("Service: Total notifications in database: {}", count);
-            return count;
-        } catch (Exception e) {
-            logger.error("Service: Error getting total count", e);
-            throw e;
-        }
+        return notificationRepository.count();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,179 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import com.Jitter.Jitter.Backend.Models.Post;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Like counts written behind to {@code posts.likeCount}. Likes and unlikes only add to
+ * a striped per-post {@link LongAdder}, so a trending post costs one {@code $inc} per
+ * flush interval instead of one write per like. Counts returned to callers are the
+ * persisted value plus whatever is still buffered or being flushed.
+ * <p>
+ * A batch that fails is put back and retried on the next flush; when the driver
+ * reports which updates failed, only those are retried. On shutdown the buffer is
+ * flushed synchronously, and deltas that still cannot be written are logged.
+ * <p>
+ * A flush only increments an existing {@code likeCount}. Posts that predate it get one
+ * from {@link LikeCountMigration}, which counts the likes themselves, so a delta for such
+ * a post is already part of that count and creating the field from the delta would
+ * make the migration skip the post.
+ */
+@Service
+@DependsOn("likeCountMigration")
+public class PostLikeCounter {
+    private static final Logger logger = LoggerFactory.getLogger(PostLikeCounter.class);
+
+    private static final int SHUTDOWN_ATTEMPTS = 3;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final Map<String, Delta> deltas = new ConcurrentHashMap<>();
+    private final long idleMs;
+
+    public PostLikeCounter(@Value("${jitter.likes.count-idle-seconds:60}") long idleSeconds) {
+        this.idleMs = idleSeconds * 1000;
+    }
+
+    public void add(String postId, long delta) {
+        while (delta != 0) {
+            Delta entry = deltas.computeIfAbsent(postId, id -> new Delta());
+            entry.adder.add(delta);
+            if (!entry.retired) {
+                return;
+            }
+            // The flusher retired this entry concurrently; move whatever it has not drained to a live one.
+            delta = entry.adder.sumThenReset();
+        }
+    }
+
+    public long pending(String postId) {
+        Delta entry = deltas.get(postId);
+        return entry != null ? entry.adder.sum() + entry.inFlight : 0;
+    }
+
+    public Post withPending(Post post) {
+        long persisted = post.getLikeCount() != null ? post.getLikeCount() : 0;
+        post.setLikeCount(Math.max(0, persisted + pending(post.getId())));
+        return post;
+    }
+
+    public List<Post> withPending(List<Post> posts) {
+        posts.forEach(this::withPending);
+        return posts;
+    }
+
+    public Map<String, Long> getCounts(Collection<String> postIds) {
+        Set<String> ids = new HashSet<>(postIds);
+        Map<String, Long> counts = new HashMap<>();
+        if (ids.isEmpty()) {
+            return counts;
+        }
+        Query query = Query.query(Criteria.where("_id").in(ids));
+        query.fields().include("_id").include("likeCount");
+        for (Post post : mongoTemplate.find(query, Post.class)) {
+            counts.put(post.getId(), withPending(post).getLikeCount());
+        }
+        return counts;
+    }
+
+    @Scheduled(fixedDelayString = "${jitter.likes.count-flush-ms:1000}")
+    public synchronized void flush() {
+        long now = System.currentTimeMillis();
+        List<String> postIds = new ArrayList<>();
+        List<Long> values = new ArrayList<>();
+        List<Delta> entries = new ArrayList<>();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class);
+        for (Map.Entry<String, Delta> e : deltas.entrySet()) {
+            Delta entry = e.getValue();
+            long value = entry.adder.sumThenReset();
+            if (value != 0) {
+                entry.inFlight = value;
+                entry.lastChange = now;
+                bulk.updateOne(Query.query(Criteria.where("_id").is(e.getKey()).and("likeCount").exists(true)),
+                    new Update().inc("likeCount", value));
+                postIds.add(e.getKey());
+                values.add(value);
+                entries.add(entry);
+            } else if (now - entry.lastChange > idleMs) {
+                retire(e.getKey(), entry);
+            }
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        Set<Integer> failed = new HashSet<>();
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            e.getErrors().stream().map(BulkWriteError::getIndex).forEach(failed::add);
+            logger.warn("Failed to persist like counts of {} of {} posts, retrying on next flush", failed.size(), entries.size(), e);
+        } catch (Exception e) {
+            logger.warn("Failed to persist like counts of {} posts, retrying on next flush", entries.size(), e);
+            for (int i = 0; i < entries.size(); i++) {
+                failed.add(i);
+            }
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            entries.get(i).inFlight = 0;
+            if (failed.contains(i)) {
+                add(postIds.get(i), values.get(i));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (int attempt = 0; attempt < SHUTDOWN_ATTEMPTS && hasPending(); attempt++) {
+            flush();
+        }
+        deltas.forEach((postId, entry) -> {
+            long value = entry.adder.sum();
+            if (value != 0) {
+                logger.error("Like count delta {} for post {} was not persisted before shutdown", value, postId);
+            }
+        });
+    }
+
+    private boolean hasPending() {
+        return deltas.values().stream().anyMatch(entry -> entry.adder.sum() != 0);
+    }
+
+    private void retire(String postId, Delta entry) {
+        entry.retired = true;
+        deltas.remove(postId, entry);
+        add(postId, entry.adder.sumThenReset());
+    }
+
+    private static final class Delta {
+        private final LongAdder adder = new LongAdder();
+        private volatile long inFlight;
+        private volatile boolean retired;
+        private long lastChange = System.currentTimeMillis();
+    }
+}
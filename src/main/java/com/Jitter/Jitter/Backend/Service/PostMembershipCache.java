@@ -0,0 +1,334 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import com.Jitter.Jitter.Backend.DTO.PostViewerStateDTO;
+import com.Jitter.Jitter.Backend.Models.BookMark;
+import com.Jitter.Jitter.Backend.Models.Like;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Which posts a user has liked and bookmarked, so a page of posts can be checked
+ * without touching {@code likes} or {@code bookmarks}. Each set is built on first
+ * access with one projected query per collection and stored as sorted 12-byte post
+ * ids behind a Bloom filter, which answers most "no" checks without a binary search.
+ * Toggles on this node update the sets in place, including toggles that happen while
+ * a set is being built; entries expire after {@code jitter.membership.ttl-seconds} so
+ * toggles made on other nodes show up. The least recently used users are dropped
+ * beyond {@code jitter.membership.max-users}.
+ */
+@Service
+public class PostMembershipCache {
+
+    private static final int ID_BYTES = 12;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final Map<String, Membership> memberships;
+    private final Map<String, PendingLoad> loading = new HashMap<>();
+    private final long ttlMs;
+
+    public PostMembershipCache(@Value("${jitter.membership.max-users:10000}") int maxUsers,
+                               @Value("${jitter.membership.ttl-seconds:300}") long ttlSeconds) {
+        this.ttlMs = ttlSeconds * 1000;
+        this.memberships = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Membership> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    public Map<String, PostViewerStateDTO> getStates(String userId, Collection<String> postIds) {
+        Membership membership = membership(userId);
+        Map<String, PostViewerStateDTO> states = new LinkedHashMap<>();
+        synchronized (membership) {
+            for (String postId : postIds) {
+                byte[] key = key(postId);
+                states.put(postId, new PostViewerStateDTO(
+                    key != null && membership.liked.contains(key),
+                    key != null && membership.bookmarked.contains(key)));
+            }
+        }
+        return states;
+    }
+
+    public void onLike(String userId, String postId, boolean liked) {
+        apply(userId, new Change(true, postId, liked));
+    }
+
+    public void onBookmark(String userId, String postId, boolean bookmarked) {
+        apply(userId, new Change(false, postId, bookmarked));
+    }
+
+    public synchronized void invalidate(String userId) {
+        memberships.remove(userId);
+        PendingLoad pending = loading.get(userId);
+        if (pending != null) {
+            pending.invalidated = true;
+        }
+    }
+
+    private void apply(String userId, Change change) {
+        Membership membership;
+        synchronized (this) {
+            PendingLoad pending = loading.get(userId);
+            if (pending != null) {
+                pending.changes.add(change);
+            }
+            membership = memberships.get(userId);
+        }
+        if (membership != null) {
+            synchronized (membership) {
+                change.applyTo(membership);
+            }
+        }
+    }
+
+    private Membership membership(String userId) {
+        PendingLoad pending;
+        synchronized (this) {
+            Membership cached = memberships.get(userId);
+            if (cached != null && cached.expiresAt > System.currentTimeMillis()) {
+                return cached;
+            }
+            pending = loading.computeIfAbsent(userId, id -> new PendingLoad());
+            pending.loaders++;
+        }
+        Membership loaded = null;
+        try {
+            loaded = load(userId);
+        } finally {
+            synchronized (this) {
+                if (--pending.loaders == 0) {
+                    loading.remove(userId);
+                }
+                if (loaded != null) {
+                    // Toggles that landed while loading may or may not be in the snapshot; replaying them is idempotent.
+                    for (Change change : pending.changes) {
+                        change.applyTo(loaded);
+                    }
+                    if (!pending.invalidated) {
+                        memberships.put(userId, loaded);
+                    }
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private Membership load(String userId) {
+        Query likes = Query.query(Criteria.where("userId").is(userId));
+        likes.fields().include("postId");
+        List<byte[]> liked = new ArrayList<>();
+        for (Like like : mongoTemplate.find(likes, Like.class)) {
+            addKey(liked, like.getPostId());
+        }
+
+        Query bookmarks = Query.query(Criteria.where("userId").is(userId));
+        bookmarks.fields().include("postId");
+        List<byte[]> bookmarked = new ArrayList<>();
+        for (BookMark bookmark : mongoTemplate.find(bookmarks, BookMark.class)) {
+            addKey(bookmarked, bookmark.getPostId());
+        }
+        return new Membership(new PostIdSet(liked), new PostIdSet(bookmarked), System.currentTimeMillis() + ttlMs);
+    }
+
+    private static void addKey(List<byte[]> keys, String postId) {
+        byte[] key = key(postId);
+        if (key != null) {
+            keys.add(key);
+        }
+    }
+
+    // Post ids are ObjectIds; anything else cannot name a post.
+    private static byte[] key(String postId) {
+        return postId != null && ObjectId.isValid(postId) ? new ObjectId(postId).toByteArray() : null;
+    }
+
+    private record Change(boolean like, String postId, boolean present) {
+        private void applyTo(Membership membership) {
+            byte[] key = key(postId);
+            if (key == null) {
+                return;
+            }
+            PostIdSet set = like ? membership.liked : membership.bookmarked;
+            if (present) {
+                set.add(key);
+            } else {
+                set.remove(key);
+            }
+        }
+    }
+
+    private static final class PendingLoad {
+        private final List<Change> changes = new ArrayList<>();
+        private int loaders;
+        private boolean invalidated;
+    }
+
+    private static final class Membership {
+        private final PostIdSet liked;
+        private final PostIdSet bookmarked;
+        private final long expiresAt;
+
+        private Membership(PostIdSet liked, PostIdSet bookmarked, long expiresAt) {
+            this.liked = liked;
+            this.bookmarked = bookmarked;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Sorted array of 12-byte ids with a Bloom filter sized at about ten bits per id
+     * (roughly 1% false positives). Removals cannot clear filter bits, so the filter
+     * is rebuilt once removals or growth make it stale.
+     */
+    private static final class PostIdSet {
+        private static final int BITS_PER_ID = 10;
+        private static final int HASHES = 7;
+
+        private byte[] ids;
+        private int size;
+        private long[] filter;
+        private int filterBits;
+        private int filterCapacity;
+        private int removals;
+
+        private PostIdSet(List<byte[]> keys) {
+            keys.sort(Arrays::compareUnsigned);
+            ids = new byte[Math.max(1, keys.size()) * ID_BYTES];
+            for (byte[] key : keys) {
+                if (size > 0 && compare(size - 1, key) == 0) {
+                    continue;
+                }
+                System.arraycopy(key, 0, ids, size * ID_BYTES, ID_BYTES);
+                size++;
+            }
+            rebuildFilter();
+        }
+
+        private boolean contains(byte[] key) {
+            return mightContain(key) && indexOf(key) >= 0;
+        }
+
+        private void add(byte[] key) {
+            int position = indexOf(key);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            if ((size + 1) * ID_BYTES > ids.length) {
+                ids = Arrays.copyOf(ids, (size + (size >> 1) + 1) * ID_BYTES);
+            }
+            System.arraycopy(ids, insertAt * ID_BYTES, ids, (insertAt + 1) * ID_BYTES, (size - insertAt) * ID_BYTES);
+            System.arraycopy(key, 0, ids, insertAt * ID_BYTES, ID_BYTES);
+            size++;
+            if (size > filterCapacity) {
+                rebuildFilter();
+            } else {
+                setBits(key);
+            }
+        }
+
+        private void remove(byte[] key) {
+            int position = indexOf(key);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(ids, (position + 1) * ID_BYTES, ids, position * ID_BYTES, (size - position - 1) * ID_BYTES);
+            size--;
+            if (++removals > filterCapacity / 2) {
+                rebuildFilter();
+            }
+        }
+
+        private int indexOf(byte[] key) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compare(mid, key);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private int compare(int index, byte[] key) {
+            int from = index * ID_BYTES;
+            return Arrays.compareUnsigned(ids, from, from + ID_BYTES, key, 0, ID_BYTES);
+        }
+
+        private void rebuildFilter() {
+            filterCapacity = Math.max(64, size * 2);
+            filterBits = filterCapacity * BITS_PER_ID;
+            filter = new long[(filterBits + 63) >>> 6];
+            removals = 0;
+            byte[] key = new byte[ID_BYTES];
+            for (int i = 0; i < size; i++) {
+                System.arraycopy(ids, i * ID_BYTES, key, 0, ID_BYTES);
+                setBits(key);
+            }
+        }
+
+        private void setBits(byte[] key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32) | 1;
+            for (int i = 0; i < HASHES; i++) {
+                int bit = Math.floorMod(h1 + i * h2, filterBits);
+                filter[bit >>> 6] |= 1L << bit;
+            }
+        }
+
+        private boolean mightContain(byte[] key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32) | 1;
+            for (int i = 0; i < HASHES; i++) {
+                int bit = Math.floorMod(h1 + i * h2, filterBits);
+                if ((filter[bit >>> 6] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long hash(byte[] key) {
+            long high = 0;
+            long low = 0;
+            for (int i = 0; i < 8; i++) {
+                high = (high << 8) | (key[i] & 0xff);
+            }
+            for (int i = 8; i < ID_BYTES; i++) {
+                low = (low << 8) | (key[i] & 0xff);
+            }
+            long h = high * 0x9E3779B97F4A7C15L ^ low;
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -4,6 +4,11 @@ import com.Jitter.Jitter.Backend.Models.Media;
 import com.Jitter.Jitter.Backend.Models.Post;
 import com.Jitter.Jitter.Backend.Repository.PostRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -13,27 +18,32 @@ import java.util.*;
 @Service
 public class PostService {
     private final PostRepository postRepository;
+    private final PostLikeCounter likeCounter;
+    private final MongoTemplate mongoTemplate;
 
     @Autowired
-    public PostService(PostRepository postRepository) {
+    public PostService(PostRepository postRepository, PostLikeCounter likeCounter, MongoTemplate mongoTemplate) {
         this.postRepository = postRepository;
+        this.likeCounter = likeCounter;
+        this.mongoTemplate = mongoTemplate;
     }
 
     public List<Post> getAll() {
-        return postRepository.findAll();
+        return likeCounter.withPending(postRepository.findAll());
     }
 
     public Optional<Post> getById(String id) {
-        return postRepository.findById(id);
+        return postRepository.findById(id).map(likeCounter::withPending);
     }
 
     public List<Post> getByUserId(String userId) {
-        return postRepository.findByUserId(userId);
+        return likeCounter.withPending(postRepository.findByUserId(userId));
     }
 
     public Post createPost(Post post, List<MultipartFile> images) throws IOException {
         post.setCreatedAt(new Date());
         post.setUpdatedAt(new Date());
+        post.setLikeCount(0L);
 
         if (images != null && !images.isEmpty()) {
             List<Media> mediaList = new ArrayList<>();
@@ -54,18 +64,14 @@ public class PostService {
     }
 
     public Optional<Post> updatePost(String id, Post updatedPost) {
-        return postRepository.findById(id)
-                .map(existingPost -> {
-                    updatedPost.setId(id);
-                    updatedPost.setUpdatedAt(new Date());
-                    if (updatedPost.getCreatedAt() == null) {
-                        updatedPost.setCreatedAt(existingPost.getCreatedAt());
-                    }
-                    if (updatedPost.getImage() == null) {
-                        updatedPost.setImage(existingPost.getImage());
-                    }
-                    return postRepository.save(updatedPost);
-                });
+        // Only the editable fields are set, so a like-count flush running concurrently is never overwritten.
+        Update update = new Update().set("content", updatedPost.getContent()).set("updatedAt", new Date());
+        if (updatedPost.getImage() != null) {
+            update.set("image", updatedPost.getImage());
+        }
+        Post saved = mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(id)), update,
+                FindAndModifyOptions.options().returnNew(true), Post.class);
+        return Optional.ofNullable(saved).map(likeCounter::withPending);
     }
 
     public void delete(String id) {
@@ -0,0 +1,186 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import com.Jitter.Jitter.Backend.Models.Post;
+import com.Jitter.Jitter.Backend.Models.PostViewStats;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Approximate unique viewers per post. Views are folded into an in-memory
+ * {@link HyperLogLog} per post and periodically merged into the post's sketch in
+ * {@code post_view_stats} with a version-checked write, so nodes flushing the same
+ * post concurrently retry instead of overwriting each other. Because merging is
+ * idempotent, a flush that fails or ends ambiguously is simply merged again later.
+ */
+@Service
+public class PostViewCounter {
+    private static final Logger logger = LoggerFactory.getLogger(PostViewCounter.class);
+
+    private static final int MAX_WRITE_ATTEMPTS = 5;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final Map<String, PendingSketch> pending = new ConcurrentHashMap<>();
+
+    public void record(String viewerId, Collection<String> postIds) {
+        long hash = HyperLogLog.hash(viewerId);
+        for (String postId : new HashSet<>(postIds)) {
+            while (true) {
+                PendingSketch entry = pending.computeIfAbsent(postId, id -> new PendingSketch());
+                synchronized (entry) {
+                    if (!entry.detached) {
+                        entry.sketch.offer(hash);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    public long getUniqueViewers(String postId) {
+        return getUniqueViewers(List.of(postId)).getOrDefault(postId, 0L);
+    }
+
+    public Map<String, Long> getUniqueViewers(Collection<String> postIds) {
+        Map<String, HyperLogLog> sketches = new HashMap<>();
+        for (PostViewStats stats : findStats(postIds)) {
+            sketches.put(stats.getId(), HyperLogLog.fromBytes(stats.getViewers()));
+        }
+        Map<String, Long> counts = new HashMap<>();
+        for (String postId : postIds) {
+            HyperLogLog sketch = sketches.computeIfAbsent(postId, id -> new HyperLogLog());
+            PendingSketch entry = pending.get(postId);
+            if (entry != null) {
+                synchronized (entry) {
+                    sketch.merge(entry.sketch);
+                }
+            }
+            counts.put(postId, sketch.estimate());
+        }
+        return counts;
+    }
+
+    @Scheduled(fixedDelayString = "${jitter.posts.views.flush-ms:10000}")
+    public synchronized void flush() {
+        Map<String, HyperLogLog> batch = new HashMap<>();
+        for (Map.Entry<String, PendingSketch> e : pending.entrySet()) {
+            PendingSketch entry = e.getValue();
+            pending.remove(e.getKey(), entry);
+            synchronized (entry) {
+                entry.detached = true;
+            }
+            batch.put(e.getKey(), entry.sketch);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<String, PostViewStats> stored = new HashMap<>();
+        try {
+            // Clients report whatever ids they rendered; views of unknown posts are dropped here.
+            Query posts = Query.query(Criteria.where("_id").in(batch.keySet()));
+            posts.fields().include("_id");
+            Set<String> existing = new HashSet<>();
+            mongoTemplate.find(posts, Post.class).forEach(post -> existing.add(post.getId()));
+            batch.keySet().retainAll(existing);
+            findStats(batch.keySet()).forEach(stats -> stored.put(stats.getId(), stats));
+        } catch (Exception e) {
+            logger.warn("Failed to load view stats for {} posts, retrying on next flush", batch.size(), e);
+            batch.forEach(this::requeue);
+            return;
+        }
+        int failed = 0;
+        for (Map.Entry<String, HyperLogLog> e : batch.entrySet()) {
+            try {
+                persist(e.getKey(), e.getValue(), stored.get(e.getKey()));
+            } catch (Exception ex) {
+                failed++;
+                requeue(e.getKey(), e.getValue());
+                logger.debug("Failed to persist view stats for post {}", e.getKey(), ex);
+            }
+        }
+        if (failed > 0) {
+            logger.warn("Failed to persist view stats for {} of {} posts, retrying on next flush", failed, batch.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        if (!pending.isEmpty()) {
+            logger.warn("Dropping unflushed view sketches for {} posts on shutdown", pending.size());
+        }
+    }
+
+    private void persist(String postId, HyperLogLog local, PostViewStats stats) {
+        for (int attempt = 0; attempt < MAX_WRITE_ATTEMPTS; attempt++) {
+            if (attempt > 0) {
+                stats = mongoTemplate.findById(postId, PostViewStats.class);
+            }
+            if (stats == null) {
+                try {
+                    mongoTemplate.insert(new PostViewStats(postId, local.toBytes(), 1, new Date()));
+                    return;
+                } catch (DuplicateKeyException e) {
+                    continue;
+                }
+            }
+            HyperLogLog merged = HyperLogLog.fromBytes(stats.getViewers());
+            merged.merge(local);
+            Query current = Query.query(Criteria.where("_id").is(postId).and("version").is(stats.getVersion()));
+            Update update = new Update()
+                .set("viewers", merged.toBytes())
+                .set("version", stats.getVersion() + 1)
+                .set("updatedAt", new Date());
+            if (mongoTemplate.updateFirst(current, update, PostViewStats.class).getMatchedCount() == 1) {
+                return;
+            }
+        }
+        throw new IllegalStateException("View stats of post " + postId + " changed on every attempt");
+    }
+
+    private void requeue(String postId, HyperLogLog sketch) {
+        while (true) {
+            PendingSketch entry = pending.computeIfAbsent(postId, id -> new PendingSketch());
+            synchronized (entry) {
+                if (!entry.detached) {
+                    entry.sketch.merge(sketch);
+                    return;
+                }
+            }
+        }
+    }
+
+    private List<PostViewStats> findStats(Collection<String> postIds) {
+        if (postIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<String> ids = new HashSet<>(postIds);
+        return mongoTemplate.find(Query.query(Criteria.where("_id").in(ids)), PostViewStats.class);
+    }
+
+    private static final class PendingSketch {
+        private final HyperLogLog sketch = new HyperLogLog();
+        private boolean detached;
+    }
+}
@@ -0,0 +1,395 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import com.Jitter.Jitter.Backend.DTO.PresenceDTO;
+import com.Jitter.Jitter.Backend.DTO.TypingDTO;
+import com.Jitter.Jitter.Backend.Models.Chat;
+import com.Jitter.Jitter.Backend.Security.UserSessionRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Tracks who is online and who is typing without touching the database.
+ * State lives in lock-striped maps and a heartbeat only moves a timestamp; expiry is
+ * checked lazily by a per-stripe timer wheel. Changed entries are collected and
+ * flushed on a short delay, so partners only hear about real transitions and a
+ * quick reconnect is never broadcast.
+ */
+@Service
+public class PresenceService {
+    private static final Logger logger = LoggerFactory.getLogger(PresenceService.class);
+
+    private static final int STRIPES = 64;
+    private static final int WHEEL_SLOTS = 128;
+    private static final long TICK_MS = 1000;
+
+    @Autowired
+    private UserSessionRegistry sessionRegistry;
+
+    @Autowired
+    private UserDeliveryService userDeliveryService;
+
+    @Autowired
+    private ChatMembershipCache chatMembershipCache;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final long presenceTimeoutMs;
+    private final long typingTimeoutMs;
+    private final long lastSeenRetentionMs;
+
+    public PresenceService(@Value("${jitter.presence.timeout-ms:90000}") long presenceTimeoutMs,
+                           @Value("${jitter.presence.typing-timeout-ms:6000}") long typingTimeoutMs,
+                           @Value("${jitter.presence.last-seen-retention-ms:3600000}") long lastSeenRetentionMs) {
+        this.presenceTimeoutMs = presenceTimeoutMs;
+        this.typingTimeoutMs = typingTimeoutMs;
+        this.lastSeenRetentionMs = lastSeenRetentionMs;
+        long tick = System.currentTimeMillis() / TICK_MS;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(tick);
+        }
+    }
+
+    @EventListener
+    public void onSessionConnected(SessionConnectedEvent event) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        String userId = sessionRegistry.getUserId(sessionId);
+        if (userId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Stripe stripe = stripeFor(userId);
+        synchronized (stripe) {
+            Entry entry = stripe.entries.computeIfAbsent(userId, Entry::new);
+            entry.sessions++;
+            entry.lastSeen = now;
+            stripe.markDirty(entry);
+            stripe.schedule(entry, now + presenceTimeoutMs);
+        }
+    }
+
+    // Must run before UserSessionRegistry forgets the session, otherwise the user id is gone.
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        String userId = sessionRegistry.getUserId(event.getSessionId());
+        if (userId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Stripe stripe = stripeFor(userId);
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(userId);
+            if (entry == null) {
+                return;
+            }
+            entry.sessions = Math.max(0, entry.sessions - 1);
+            entry.lastSeen = now;
+            if (entry.sessions == 0) {
+                entry.typingChatId = null;
+                stripe.schedule(entry, now + lastSeenRetentionMs);
+            }
+            stripe.markDirty(entry);
+        }
+    }
+
+    public void heartbeat(String userId) {
+        if (userId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Stripe stripe = stripeFor(userId);
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(userId);
+            if (entry == null || entry.sessions == 0) {
+                return;
+            }
+            touch(stripe, entry, now);
+        }
+    }
+
+    public void typing(String userId, String chatId, boolean typing) {
+        if (userId == null || chatId == null || !chatMembershipCache.isParticipant(chatId, userId)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Stripe stripe = stripeFor(userId);
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(userId);
+            if (entry == null || entry.sessions == 0) {
+                return;
+            }
+            touch(stripe, entry, now);
+            if (typing) {
+                entry.typingUntil = now + typingTimeoutMs;
+                if (!chatId.equals(entry.typingChatId)) {
+                    entry.typingChatId = chatId;
+                    stripe.markDirty(entry);
+                }
+                stripe.schedule(entry, entry.typingUntil);
+            } else if (chatId.equals(entry.typingChatId)) {
+                entry.typingChatId = null;
+                stripe.markDirty(entry);
+            }
+        }
+    }
+
+    public boolean isOnline(String userId) {
+        if (userId == null) {
+            return false;
+        }
+        Stripe stripe = stripeFor(userId);
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(userId);
+            return entry != null && isOnline(entry, System.currentTimeMillis());
+        }
+    }
+
+    public Map<String, PresenceDTO> getPresence(Collection<String> userIds) {
+        long now = System.currentTimeMillis();
+        Map<String, PresenceDTO> presence = new LinkedHashMap<>();
+        for (String userId : userIds) {
+            Stripe stripe = stripeFor(userId);
+            synchronized (stripe) {
+                Entry entry = stripe.entries.get(userId);
+                presence.put(userId, entry != null
+                    ? new PresenceDTO(userId, isOnline(entry, now), toLocalDateTime(entry.lastSeen))
+                    : new PresenceDTO(userId, false, null));
+            }
+        }
+        return presence;
+    }
+
+    public void forgetPartners(Collection<String> userIds) {
+        for (String userId : userIds) {
+            Stripe stripe = stripeFor(userId);
+            synchronized (stripe) {
+                Entry entry = stripe.entries.get(userId);
+                if (entry != null) {
+                    entry.partners = null;
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedRate = TICK_MS)
+    public void advanceWheel() {
+        long now = System.currentTimeMillis();
+        long nowTick = now / TICK_MS;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                while (stripe.processedTick < nowTick) {
+                    long tick = ++stripe.processedTick;
+                    ArrayDeque<Entry> slot = stripe.wheel[(int) (tick % WHEEL_SLOTS)];
+                    for (int i = slot.size(); i > 0; i--) {
+                        Entry entry = slot.pollFirst();
+                        if (entry.scheduledTick != tick) {
+                            continue;
+                        }
+                        entry.scheduledTick = 0;
+                        expire(stripe, entry, now);
+                    }
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jitter.presence.flush-ms:250}")
+    public void flushTransitions() {
+        List<PresenceChange> presenceChanges = new ArrayList<>();
+        List<TypingDTO> typingChanges = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (Entry entry : stripe.dirty) {
+                    entry.dirty = false;
+                    boolean online = isOnline(entry, now);
+                    if (online != entry.broadcastOnline) {
+                        entry.broadcastOnline = online;
+                        presenceChanges.add(new PresenceChange(entry,
+                            new PresenceDTO(entry.userId, online, toLocalDateTime(entry.lastSeen))));
+                    }
+                    String typingChatId = online ? entry.typingChatId : null;
+                    if (!Objects.equals(typingChatId, entry.broadcastTypingChatId)) {
+                        if (entry.broadcastTypingChatId != null) {
+                            typingChanges.add(new TypingDTO(entry.broadcastTypingChatId, entry.userId, false));
+                        }
+                        if (typingChatId != null) {
+                            typingChanges.add(new TypingDTO(typingChatId, entry.userId, true));
+                        }
+                        entry.broadcastTypingChatId = typingChatId;
+                    }
+                }
+                stripe.dirty.clear();
+            }
+        }
+
+        for (PresenceChange change : presenceChanges) {
+            try {
+                userDeliveryService.deliver(partnersOf(change.entry()), "/queue/presence", change.event());
+            } catch (Exception e) {
+                logger.warn("Failed to broadcast presence for user {}", change.entry().userId, e);
+            }
+        }
+        for (TypingDTO change : typingChanges) {
+            List<String> participants = chatMembershipCache.getParticipants(change.getChatId());
+            if (participants != null) {
+                userDeliveryService.deliver(participants.stream()
+                    .filter(participantId -> !participantId.equals(change.getUserId()))
+                    .toList(), "/queue/typing", change);
+            }
+        }
+    }
+
+    private void touch(Stripe stripe, Entry entry, long now) {
+        entry.lastSeen = now;
+        if (!entry.broadcastOnline) {
+            stripe.markDirty(entry);
+        }
+        if (entry.scheduledTick == 0) {
+            stripe.schedule(entry, now + presenceTimeoutMs);
+        }
+    }
+
+    private void expire(Stripe stripe, Entry entry, long now) {
+        if (entry.typingChatId != null && entry.typingUntil <= now) {
+            entry.typingChatId = null;
+            stripe.markDirty(entry);
+        }
+
+        long presenceDeadline = entry.lastSeen + presenceTimeoutMs;
+        if (entry.sessions > 0) {
+            if (presenceDeadline <= now) {
+                if (entry.broadcastOnline) {
+                    stripe.markDirty(entry);
+                }
+            } else {
+                stripe.schedule(entry, presenceDeadline);
+            }
+        } else {
+            long retainUntil = entry.lastSeen + lastSeenRetentionMs;
+            if (retainUntil <= now && !entry.dirty && !entry.broadcastOnline) {
+                stripe.entries.remove(entry.userId);
+                return;
+            }
+            stripe.schedule(entry, Math.max(retainUntil, now + TICK_MS));
+        }
+
+        if (entry.typingChatId != null) {
+            stripe.schedule(entry, entry.typingUntil);
+        }
+    }
+
+    private List<String> partnersOf(Entry entry) {
+        List<String> partners = entry.partners;
+        if (partners != null) {
+            return partners;
+        }
+        Query query = Query.query(Criteria.where("participantIds").is(entry.userId));
+        query.fields().include("participantIds");
+        Set<String> ids = new HashSet<>();
+        for (Chat chat : mongoTemplate.find(query, Chat.class)) {
+            chatMembershipCache.put(chat);
+            ids.addAll(chat.getParticipantIds());
+        }
+        ids.remove(entry.userId);
+        partners = List.copyOf(ids);
+        entry.partners = partners;
+        return partners;
+    }
+
+    private boolean isOnline(Entry entry, long now) {
+        return entry.sessions > 0 && now - entry.lastSeen < presenceTimeoutMs;
+    }
+
+    private Stripe stripeFor(String userId) {
+        return stripes[(userId.hashCode() & 0x7fffffff) % STRIPES];
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private record PresenceChange(Entry entry, PresenceDTO event) {
+    }
+
+    private static final class Stripe {
+        private final Map<String, Entry> entries = new HashMap<>();
+        private final List<Entry> dirty = new ArrayList<>();
+        private final ArrayDeque<Entry>[] wheel;
+        private long processedTick;
+
+        @SuppressWarnings("unchecked")
+        Stripe(long tick) {
+            this.processedTick = tick;
+            this.wheel = new ArrayDeque[WHEEL_SLOTS];
+            for (int i = 0; i < WHEEL_SLOTS; i++) {
+                wheel[i] = new ArrayDeque<>();
+            }
+        }
+
+        void markDirty(Entry entry) {
+            if (!entry.dirty) {
+                entry.dirty = true;
+                dirty.add(entry);
+            }
+        }
+
+        // An entry already due earlier stays where it is and is re-checked then;
+        // an earlier deadline re-queues it and leaves a stale copy that is skipped.
+        void schedule(Entry entry, long deadlineMs) {
+            long tick = Math.max(deadlineMs / TICK_MS + 1, processedTick + 1);
+            tick = Math.min(tick, processedTick + WHEEL_SLOTS);
+            if (entry.scheduledTick != 0 && entry.scheduledTick <= tick) {
+                return;
+            }
+            entry.scheduledTick = tick;
+            wheel[(int) (tick % WHEEL_SLOTS)].addLast(entry);
+        }
+    }
+
+    private static final class Entry {
+        private final String userId;
+        private int sessions;
+        private long lastSeen;
+        private String typingChatId;
+        private long typingUntil;
+        private long scheduledTick;
+        private boolean dirty;
+        private boolean broadcastOnline;
+        private String broadcastTypingChatId;
+        private volatile List<String> partners;
+
+        Entry(String userId) {
+            this.userId = userId;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import com.Jitter.Jitter.Backend.DTO.FanoutEnvelope;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.messaging.tcp.reactor.ReactorNettyTcpStompClient;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Relays deliveries through an external STOMP broker (RabbitMQ, ActiveMQ, ...).
+ * Every node publishes to and subscribes on one broker topic and ignores its own
+ * envelopes. While the broker is unreachable, envelopes for other nodes are dropped
+ * and the connection is retried in the background.
+ */
+@Service
+@ConditionalOnProperty(name = "jitter.fanout.transport", havingValue = "stomp-relay")
+public class StompRelayFanoutTransport extends StompSessionHandlerAdapter implements FanoutTransport {
+    private static final Logger logger = LoggerFactory.getLogger(StompRelayFanoutTransport.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<Consumer<FanoutEnvelope>> listeners = new CopyOnWriteArrayList<>();
+    private final ReactorNettyTcpStompClient stompClient;
+    private final StompHeaders connectHeaders = new StompHeaders();
+    private final String destination;
+    private final long reconnectDelayMs;
+    private final AtomicBoolean reconnectPending = new AtomicBoolean();
+
+    private volatile StompSession session;
+    private volatile boolean running;
+
+    public StompRelayFanoutTransport(ObjectMapper objectMapper,
+                                     @Value("${jitter.fanout.relay.host:localhost}") String host,
+                                     @Value("${jitter.fanout.relay.port:61613}") int port,
+                                     @Value("${jitter.fanout.relay.login:guest}") String login,
+                                     @Value("${jitter.fanout.relay.passcode:guest}") String passcode,
+                                     @Value("${jitter.fanout.relay.destination:/topic/jitter.fanout}") String destination,
+                                     @Value("${jitter.fanout.relay.reconnect-delay-ms:5000}") long reconnectDelayMs) {
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        this.stompClient = new ReactorNettyTcpStompClient(host, port);
+        this.stompClient.setMessageConverter(converter);
+        this.connectHeaders.setLogin(login);
+        this.connectHeaders.setPasscode(passcode);
+        this.destination = destination;
+        this.reconnectDelayMs = reconnectDelayMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        connect();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        StompSession current = session;
+        if (current != null && current.isConnected()) {
+            current.disconnect();
+        }
+        stompClient.shutdown();
+    }
+
+    @Override
+    public void publish(FanoutEnvelope envelope) {
+        envelope.setNodeId(nodeId);
+        StompSession current = session;
+        if (current == null || !current.isConnected()) {
+            logger.debug("Fan-out relay not connected, dropping delivery to {}", envelope.getDestination());
+            return;
+        }
+        try {
+            current.send(destination, envelope);
+        } catch (Exception e) {
+            logger.warn("Failed to relay delivery to {}", envelope.getDestination(), e);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<FanoutEnvelope> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+        this.session = session;
+        session.subscribe(destination, this);
+        logger.info("Fan-out relay connected as node {}", nodeId);
+    }
+
+    @Override
+    public Type getPayloadType(StompHeaders headers) {
+        return FanoutEnvelope.class;
+    }
+
+    @Override
+    public void handleFrame(StompHeaders headers, Object payload) {
+        FanoutEnvelope envelope = (FanoutEnvelope) payload;
+        if (envelope == null || nodeId.equals(envelope.getNodeId())) {
+            return;
+        }
+        for (Consumer<FanoutEnvelope> listener : listeners) {
+            try {
+                listener.accept(envelope);
+            } catch (Exception e) {
+                logger.warn("Failed to handle relayed delivery to {}", envelope.getDestination(), e);
+            }
+        }
+    }
+
+    @Override
+    public void handleException(StompSession session, StompCommand command, StompHeaders headers,
+                                byte[] payload, Throwable exception) {
+        logger.warn("Fan-out relay error on {}", command, exception);
+    }
+
+    @Override
+    public void handleTransportError(StompSession session, Throwable exception) {
+        if (!session.isConnected()) {
+            logger.warn("Fan-out relay connection lost: {}", exception.getMessage());
+            this.session = null;
+            scheduleReconnect();
+        }
+    }
+
+    private void connect() {
+        if (!running) {
+            return;
+        }
+        stompClient.connectAsync(connectHeaders, this).exceptionally(ex -> {
+            logger.warn("Could not connect fan-out relay: {}", ex.getMessage());
+            scheduleReconnect();
+            return null;
+        });
+    }
+
+    private void scheduleReconnect() {
+        if (running && reconnectPending.compareAndSet(false, true)) {
+            CompletableFuture.runAsync(() -> {
+                reconnectPending.set(false);
+                connect();
+            }, CompletableFuture.delayedExecutor(reconnectDelayMs, TimeUnit.MILLISECONDS));
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import com.Jitter.Jitter.Backend.DTO.ReadReceiptDTO;
+import com.Jitter.Jitter.Backend.DTO.SyncDeletionDTO;
+import com.Jitter.Jitter.Backend.DTO.SyncResponseDTO;
+import com.Jitter.Jitter.Backend.Models.Message;
+import com.Jitter.Jitter.Backend.Models.Notification;
+import com.Jitter.Jitter.Backend.Models.SyncChange;
+import com.Jitter.Jitter.Backend.Models.SyncState;
+import com.Jitter.Jitter.Backend.Repository.MessageStore;
+import com.Jitter.Jitter.Backend.Repository.NotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps a per-user change sequence. Recording takes the next sequence numbers from the
+ * user's {@code sync_state} counter and stores each change as its own small document in
+ * {@code sync_changes}, trimmed to roughly the last {@code jitter.sync.max-changes}, so
+ * a write costs the same however many changes are retained. Sync tokens are the sequence
+ * in base 36; a token further behind than the retained window asks the client to reload.
+ * <p>
+ * A sequence is handed out before its change is stored, so a sync can see a change while
+ * an earlier one is still being written. A sync stops before such a gap and leaves the
+ * rest to the next one, so no change is skipped past; a gap followed by changes older
+ * than {@link #GAP_GRACE} is a write that failed and is passed over.
+ */
+@Service
+public class SyncService {
+    private static final Logger logger = LoggerFactory.getLogger(SyncService.class);
+    private static final Duration GAP_GRACE = Duration.ofSeconds(30);
+    private static final int TRIM_EVERY = 100;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MessageStore messageStore;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Value("${jitter.sync.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jitter.sync.max-changes:500}")
+    private int maxChanges;
+
+    public void record(Collection<String> userIds, SyncChange change) {
+        if (!enabled) {
+            return;
+        }
+        Map<String, List<SyncChange>> changesByUser = new LinkedHashMap<>();
+        for (String userId : userIds) {
+            changesByUser.put(userId, List.of(change));
+        }
+        recordAll(changesByUser);
+    }
+
+    public void recordAll(Map<String, List<SyncChange>> changesByUser) {
+        if (!enabled || changesByUser.isEmpty()) {
+            return;
+        }
+        try {
+            List<SyncChange> entries = new ArrayList<>();
+            Map<String, Long> trimThrough = new LinkedHashMap<>();
+            for (Map.Entry<String, List<SyncChange>> entry : changesByUser.entrySet()) {
+                String userId = entry.getKey();
+                List<SyncChange> changes = entry.getValue();
+                long last = allocate(userId, changes.size());
+                long seq = last - changes.size();
+                for (SyncChange change : changes) {
+                    entries.add(new SyncChange(null, userId, ++seq, change.getType(), change.getChatId(),
+                        change.getEntityId(), change.getActorId(), change.getReadSeq(), change.getAt()));
+                }
+                // Trimming every TRIM_EVERY sequences keeps it off most writes.
+                if (last / TRIM_EVERY != (last - changes.size()) / TRIM_EVERY) {
+                    trimThrough.put(userId, last - maxChanges);
+                }
+            }
+            if (!entries.isEmpty()) {
+                mongoTemplate.insert(entries, SyncChange.class);
+            }
+            if (!trimThrough.isEmpty()) {
+                BulkOperations trim = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SyncChange.class);
+                trimThrough.forEach((userId, seq) ->
+                    trim.remove(Query.query(Criteria.where("userId").is(userId).and("seq").lte(seq))));
+                trim.execute();
+            }
+        } catch (Exception e) {
+            logger.error("Failed to record sync changes for {} users", changesByUser.size(), e);
+        }
+    }
+
+    public SyncResponseDTO sync(String userId, String token) {
+        if (!enabled) {
+            return SyncResponseDTO.reset(formatToken(0));
+        }
+        Long since = parseToken(token);
+        SyncState state = mongoTemplate.findById(userId, SyncState.class);
+        long current = state != null ? state.getSeq() : 0L;
+        if (since == null || since > current || current - since > maxChanges) {
+            return SyncResponseDTO.reset(formatToken(current));
+        }
+
+        List<SyncChange> changes = List.of();
+        if (since < current) {
+            Query query = Query.query(Criteria.where("userId").is(userId).and("seq").gt(since).lte(current))
+                .with(Sort.by(Sort.Direction.ASC, "seq"));
+            changes = mongoTemplate.find(query, SyncChange.class);
+        }
+
+        SyncResponseDTO response = new SyncResponseDTO();
+        Set<String> messageIds = new LinkedHashSet<>();
+        Set<String> notificationIds = new LinkedHashSet<>();
+        Map<String, ReadReceiptDTO> receipts = new LinkedHashMap<>();
+        LocalDateTime settled = LocalDateTime.now().minus(GAP_GRACE);
+        long synced = since;
+        for (SyncChange change : changes) {
+            if (change.getSeq() > synced + 1 && change.getAt() != null && change.getAt().isAfter(settled)) {
+                break;
+            }
+            synced = change.getSeq();
+            switch (change.getType()) {
+                case MESSAGE -> messageIds.add(change.getEntityId());
+                case MESSAGE_DELETED -> {
+                    messageIds.remove(change.getEntityId());
+                    response.getDeleted().add(new SyncDeletionDTO("message", change.getEntityId(), change.getChatId()));
+                }
+                case READ -> receipts.put(change.getChatId() + ":" + change.getActorId(), new ReadReceiptDTO(
+                    change.getChatId(), change.getActorId(),
+                    change.getReadSeq() != null ? change.getReadSeq() : 0L, change.getAt(), null));
+                case NOTIFICATION -> notificationIds.add(change.getEntityId());
+                case NOTIFICATION_READ -> {
+                    if (change.getEntityId() == null) {
+                        response.setAllNotificationsRead(true);
+                    } else {
+                        response.getReadNotificationIds().add(change.getEntityId());
+                    }
+                }
+            }
+        }
+        response.setToken(formatToken(synced));
+
+        if (!messageIds.isEmpty()) {
+            Map<String, Message> messages = new LinkedHashMap<>();
+            messageIds.forEach(id -> messages.put(id, null));
+            messageStore.findAllById(messageIds).forEach(message -> messages.put(message.getId(), message));
+            messages.values().stream().filter(message -> message != null).forEach(response.getMessages()::add);
+        }
+        if (!notificationIds.isEmpty()) {
+            List<Notification> notifications = new ArrayList<>();
+            notificationRepository.findAllById(notificationIds).forEach(notifications::add);
+            response.setNotifications(notifications);
+        }
+        response.getReadReceipts().addAll(receipts.values());
+        return response;
+    }
+
+    public static String formatToken(long seq) {
+        return Long.toString(seq, 36);
+    }
+
+    private static Long parseToken(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            long seq = Long.parseLong(token, 36);
+            return seq >= 0 ? seq : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Returns the last of the count sequences taken.
+    private long allocate(String userId, int count) {
+        SyncState state = mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(userId)),
+            new Update().inc("seq", count), FindAndModifyOptions.options().upsert(true).returnNew(true), SyncState.class);
+        return state.getSeq();
+    }
+}
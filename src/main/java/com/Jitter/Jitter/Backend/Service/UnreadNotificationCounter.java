@@ -0,0 +1,186 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import com.Jitter.Jitter.Backend.Models.NotificationCounter;
+import com.Jitter.Jitter.Backend.Repository.NotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Unread notification counts kept in memory and written behind to
+ * {@code notification_counters}. A user's count is loaded once, from the counter
+ * document or, the first time, by counting unread notifications; after that every
+ * change is applied in memory and the accumulated delta is flushed as one bulk
+ * {@code $inc} per interval. Counters of idle users are dropped once flushed.
+ */
+@Service
+public class UnreadNotificationCounter {
+    private static final Logger logger = LoggerFactory.getLogger(UnreadNotificationCounter.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final long idleMs;
+
+    public UnreadNotificationCounter(@Value("${jitter.notifications.counter-idle-minutes:10}") long idleMinutes) {
+        this.idleMs = idleMinutes * 60 * 1000;
+    }
+
+    public long get(String userId) {
+        return add(userId, 0);
+    }
+
+    public long add(String userId, long delta) {
+        while (true) {
+            Counter counter = counter(userId);
+            synchronized (counter) {
+                if (counter.removed) {
+                    continue;
+                }
+                // Only the change that was actually applied is flushed, so the stored count is clamped the same way.
+                long value = Math.max(0, counter.value + delta);
+                counter.pending += value - counter.value;
+                counter.value = value;
+                counter.lastAccess = System.currentTimeMillis();
+                return counter.value;
+            }
+        }
+    }
+
+    public void set(String userId, long value) {
+        while (true) {
+            Counter counter = counters.computeIfAbsent(userId, id -> new Counter(value, true));
+            synchronized (counter) {
+                if (counter.removed) {
+                    continue;
+                }
+                counter.value = value;
+                counter.pending = 0;
+                counter.absolute = true;
+                counter.lastAccess = System.currentTimeMillis();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Replaces the count with a fresh one. The count is taken under the counter's lock,
+     * so a change that arrives meanwhile waits and is applied on top instead of being
+     * overwritten, and the correction is flushed as a delta like any other change.
+     * Returns whether the count changed.
+     */
+    public boolean recount(String userId, LongSupplier unread) {
+        while (true) {
+            Counter counter = counter(userId);
+            synchronized (counter) {
+                if (counter.removed) {
+                    continue;
+                }
+                long value = Math.max(0, unread.getAsLong());
+                counter.lastAccess = System.currentTimeMillis();
+                if (value == counter.value) {
+                    return false;
+                }
+                counter.pending += value - counter.value;
+                counter.value = value;
+                return true;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jitter.notifications.counter-flush-ms:1000}")
+    public void flush() {
+        long idleBefore = System.currentTimeMillis() - idleMs;
+        List<Runnable> rollback = new ArrayList<>();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationCounter.class);
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            Counter counter = entry.getValue();
+            synchronized (counter) {
+                Query query = Query.query(Criteria.where("_id").is(entry.getKey()));
+                if (counter.absolute) {
+                    bulk.upsert(query, new Update().set("unread", counter.value));
+                    counter.absolute = false;
+                    counter.pending = 0;
+                    rollback.add(() -> {
+                        synchronized (counter) {
+                            counter.absolute = true;
+                        }
+                    });
+                } else if (counter.pending != 0) {
+                    long delta = counter.pending;
+                    bulk.upsert(query, new Update().inc("unread", delta));
+                    counter.pending = 0;
+                    rollback.add(() -> {
+                        synchronized (counter) {
+                            counter.pending += delta;
+                        }
+                    });
+                } else if (counter.lastAccess < idleBefore) {
+                    counter.removed = true;
+                    counters.remove(entry.getKey(), counter);
+                }
+            }
+        }
+        if (rollback.isEmpty()) {
+            return;
+        }
+        try {
+            bulk.execute();
+        } catch (Exception e) {
+            logger.warn("Failed to persist {} notification counters, retrying on next flush", rollback.size(), e);
+            rollback.forEach(Runnable::run);
+        }
+    }
+
+    // Loaded outside the map so the query does not run inside a ConcurrentHashMap compute; a racing load loses.
+    private Counter counter(String userId) {
+        Counter counter = counters.get(userId);
+        if (counter != null) {
+            return counter;
+        }
+        Counter loaded = load(userId);
+        Counter existing = counters.putIfAbsent(userId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private Counter load(String userId) {
+        NotificationCounter stored = mongoTemplate.findById(userId, NotificationCounter.class);
+        if (stored != null) {
+            return new Counter(Math.max(0, stored.getUnread()), false);
+        }
+        // A missing document reads as 0, so only a non-zero count needs writing; reads alone never create one.
+        long unread = notificationRepository.countByUserIdAndReadFalse(userId);
+        return new Counter(unread, unread != 0);
+    }
+
+    private static final class Counter {
+        private long value;
+        private long pending;
+        private boolean absolute;
+        private boolean removed;
+        private long lastAccess = System.currentTimeMillis();
+
+        private Counter(long value, boolean absolute) {
+            this.value = value;
+            this.absolute = absolute;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import com.Jitter.Jitter.Backend.DTO.FanoutEnvelope;
+import com.Jitter.Jitter.Backend.Security.UserSessionRegistry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Delivers a payload to every STOMP session of the given users. The payload is
+ * serialised once and the same bytes are sent to each local session's resolved
+ * user destination ({@code /queue/x-user{sessionId}}), so each session gets
+ * exactly one frame and no user lookup is needed. The serialised payload is also
+ * handed to the {@link FanoutTransport} so users connected to other nodes get it.
+ */
+@Service
+public class UserDeliveryService {
+    private static final Logger logger = LoggerFactory.getLogger(UserDeliveryService.class);
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private UserSessionRegistry sessionRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private FanoutTransport fanoutTransport;
+
+    @PostConstruct
+    public void init() {
+        fanoutTransport.subscribe(envelope ->
+            deliverLocally(envelope.getUserIds(), envelope.getDestination(), envelope.getPayload()));
+    }
+
+    public void deliver(Collection<String> userIds, String destination, Object payload) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not serialise payload of type {} for {}", payload.getClass().getSimpleName(), destination, e);
+            return;
+        }
+        deliverLocally(userIds, destination, json);
+        fanoutTransport.publish(new FanoutEnvelope(null, List.copyOf(userIds), destination, json));
+    }
+
+    public void deliver(String userId, String destination, Object payload) {
+        deliver(Set.of(userId), destination, payload);
+    }
+
+    private void deliverLocally(Collection<String> userIds, String destination, String json) {
+        if (userIds == null || destination == null || json == null) {
+            return;
+        }
+        Message<byte[]> message = null;
+        for (String userId : userIds) {
+            Set<String> sessions = sessionRegistry.getSessions(userId);
+            if (sessions.isEmpty()) {
+                continue;
+            }
+            if (message == null) {
+                message = MessageBuilder.withPayload(json.getBytes(StandardCharsets.UTF_8))
+                    .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
+                    .build();
+            }
+            for (String sessionId : sessions) {
+                try {
+                    messagingTemplate.send(destination + "-user" + sessionId, message);
+                } catch (Exception e) {
+                    logger.debug("Failed to deliver to session {}", sessionId, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import com.Jitter.Jitter.Backend.Models.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded id/username cache for callers that only know one of the two, such as the
+ * authentication principal, which carries the username. A miss is resolved with a
+ * single query matching either the id or the username, and concurrent misses for the
+ * same key wait for that one query. Unknown keys are not cached. Entries expire after
+ * {@code jitter.users.identity-cache.ttl-seconds}, so renames and deletes on other nodes
+ * show up without coordination; local changes invalidate immediately.
+ */
+@Service
+public class UserIdentityCache {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final Map<String, Entry> usernamesById;
+    private final Map<String, Entry> idsByUsername;
+    private final Map<String, CompletableFuture<User>> inFlight = new ConcurrentHashMap<>();
+    private final long ttlMs;
+    private long generation;
+
+    public UserIdentityCache(@Value("${jitter.users.identity-cache.max-entries:50000}") int maxEntries,
+                             @Value("${jitter.users.identity-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.ttlMs = ttlSeconds * 1000;
+        this.usernamesById = lruMap(maxEntries);
+        this.idsByUsername = lruMap(maxEntries);
+    }
+
+    public String resolveUserId(String idOrUsername) {
+        if (idOrUsername == null) {
+            return null;
+        }
+        synchronized (this) {
+            if (live(usernamesById, idOrUsername) != null) {
+                return idOrUsername;
+            }
+            String cached = live(idsByUsername, idOrUsername);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        User user = load(idOrUsername);
+        return user != null ? user.getId() : null;
+    }
+
+    public String getUserIdByUsername(String username) {
+        if (username == null) {
+            return null;
+        }
+        synchronized (this) {
+            String cached = live(idsByUsername, username);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return loadUserIdByUsername(username);
+    }
+
+    /**
+     * Like {@link #getUserIdByUsername} but always checked against the database, for
+     * callers such as binding a WebSocket session that must not act on a stale mapping.
+     */
+    public String getVerifiedUserIdByUsername(String username) {
+        return username != null ? loadUserIdByUsername(username) : null;
+    }
+
+    public String getUsername(String userId) {
+        if (userId == null) {
+            return null;
+        }
+        synchronized (this) {
+            String cached = live(usernamesById, userId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        User user = load(userId);
+        return user != null && userId.equals(user.getId()) ? user.getUsername() : null;
+    }
+
+    public synchronized void put(String userId, String username) {
+        if (userId == null || username == null) {
+            return;
+        }
+        long expiresAt = System.currentTimeMillis() + ttlMs;
+        Entry previous = usernamesById.put(userId, new Entry(username, expiresAt));
+        if (previous != null && !previous.value().equals(username)) {
+            idsByUsername.remove(previous.value());
+        }
+        idsByUsername.put(username, new Entry(userId, expiresAt));
+    }
+
+    public synchronized void invalidate(String userId) {
+        generation++;
+        Entry username = usernamesById.remove(userId);
+        if (username != null) {
+            idsByUsername.remove(username.value());
+        }
+        idsByUsername.values().removeIf(entry -> entry.value().equals(userId));
+    }
+
+    private String loadUserIdByUsername(String username) {
+        User user = load(username);
+        return user != null && username.equals(user.getUsername()) ? user.getId() : null;
+    }
+
+    private String live(Map<String, Entry> map, String key) {
+        Entry entry = map.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            map.remove(key);
+            return null;
+        }
+        return entry.value();
+    }
+
+    private User load(String key) {
+        CompletableFuture<User> pending = new CompletableFuture<>();
+        CompletableFuture<User> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        try {
+            long observedGeneration;
+            synchronized (this) {
+                observedGeneration = generation;
+            }
+            User user = query(key);
+            if (user != null) {
+                synchronized (this) {
+                    // A rename or delete while querying may have made this result stale.
+                    if (generation == observedGeneration) {
+                        put(user.getId(), user.getUsername());
+                    }
+                }
+            }
+            pending.complete(user);
+            return user;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, pending);
+        }
+    }
+
+    // One round trip for either form; an id match wins over a username match.
+    private User query(String key) {
+        Query query = Query.query(new Criteria().orOperator(
+            Criteria.where("_id").is(key),
+            Criteria.where("username").is(key)));
+        query.fields().include("_id").include("username");
+        query.limit(2);
+        List<User> users = mongoTemplate.find(query, User.class);
+        return users.stream()
+            .filter(user -> key.equals(user.getId()))
+            .findFirst()
+            .orElse(users.isEmpty() ? null : users.get(0));
+    }
+
+    private static Map<String, Entry> lruMap(int maxEntries) {
+        return new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    private record Entry(String value, long expiresAt) {
+    }
+}
@@ -3,6 +3,7 @@ package com.Jitter.Jitter.Backend.Service;
 import com.Jitter.Jitter.Backend.Models.Media;
 import com.Jitter.Jitter.Backend.Models.User;
 import com.Jitter.Jitter.Backend.Repository.UserRepository;
+import com.Jitter.Jitter.Backend.Security.AuthorizationEngine;
 import com.Jitter.Jitter.Backend.Service.FollowService;
 import com.Jitter.Jitter.Backend.Models.Follow;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,11 +20,18 @@ import org.springframework.util.StringUtils;
 public class UserService {
     private final UserRepository userRepository;
     private final FollowService followService;
+    private final AuthorizationEngine authorizationEngine;
+    private final UserSummaryCache userSummaryCache;
+    private final UserIdentityCache userIdentityCache;
 
     @Autowired
-    public UserService(UserRepository userRepository, FollowService followService) {
+    public UserService(UserRepository userRepository, FollowService followService, AuthorizationEngine authorizationEngine,
+                       UserSummaryCache userSummaryCache, UserIdentityCache userIdentityCache) {
         this.userRepository = userRepository;
         this.followService = followService;
+        this.authorizationEngine = authorizationEngine;
+        this.userSummaryCache = userSummaryCache;
+        this.userIdentityCache = userIdentityCache;
     }
 
     public List<User> getAll() {
@@ -79,7 +87,10 @@ public class UserService {
                     if (updatedUser.getProfilePicture() == null) {
                         updatedUser.setProfilePicture(existingUser.getProfilePicture());
                     }
-                    return userRepository.save(updatedUser);
+                    User saved = userRepository.save(updatedUser);
+                    userIdentityCache.invalidate(id);
+                    userSummaryCache.invalidate(id);
+                    return saved;
                 });
     }
 
@@ -94,7 +105,9 @@ public class UserService {
                         media.setCreatedAt(new Date());
                         user.setProfilePicture(media);
                         user.setUpdatedAt(new Date());
-                        return userRepository.save(user);
+                        User saved = userRepository.save(user);
+                        userSummaryCache.invalidate(id);
+                        return saved;
                     } catch (IOException e) {
                         throw new RuntimeException("Failed to process profile picture", e);
                     }
@@ -121,12 +134,20 @@ public class UserService {
                             throw new IllegalArgumentException("Invalid field: " + field);
                     }
                     user.setUpdatedAt(new Date());
-                    return userRepository.save(user);
+                    User saved = userRepository.save(user);
+                    if ("username".equalsIgnoreCase(field)) {
+                        userIdentityCache.invalidate(id);
+                        userSummaryCache.invalidate(id);
+                    }
+                    return saved;
                 });
     }
 
     public void delete(String id) {
         userRepository.deleteById(id);
+        authorizationEngine.invalidate(id);
+        userIdentityCache.invalidate(id);
+        userSummaryCache.invalidate(id);
     }
 
     public List<User> getFollowing(String userId) {
@@ -0,0 +1,103 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import com.Jitter.Jitter.Backend.DTO.UserSummaryDTO;
+import com.Jitter.Jitter.Backend.Models.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Short-lived, bounded cache of user summaries (id, username, avatar URL) for endpoints
+ * that render many users at once. Misses for a whole batch are resolved with one
+ * projected {@code $in} query that never loads profile picture bytes. Entries expire
+ * after {@code jitter.users.summary-cache.ttl-seconds}, so renames and new avatars on
+ * other nodes show up without coordination; local changes invalidate immediately.
+ */
+@Service
+public class UserSummaryCache {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final Map<String, Entry> entries;
+    private final long ttlMs;
+    private long generation;
+
+    public UserSummaryCache(@Value("${jitter.users.summary-cache.max-entries:20000}") int maxEntries,
+                            @Value("${jitter.users.summary-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.ttlMs = ttlSeconds * 1000;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public UserSummaryDTO get(String userId) {
+        return getAll(List.of(userId)).get(userId);
+    }
+
+    /** Summaries for the given ids; ids of users that do not exist are absent from the result. */
+    public Map<String, UserSummaryDTO> getAll(Collection<String> userIds) {
+        Map<String, UserSummaryDTO> result = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        long now = System.currentTimeMillis();
+        long observedGeneration;
+        synchronized (this) {
+            observedGeneration = generation;
+            for (String userId : userIds) {
+                if (userId == null) {
+                    continue;
+                }
+                Entry entry = entries.get(userId);
+                if (entry != null && entry.expiresAt > now) {
+                    result.put(userId, entry.summary);
+                } else {
+                    missing.add(userId);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        Query query = Query.query(Criteria.where("_id").in(missing));
+        query.fields().include("_id").include("username").include("profilePicture.type");
+        List<UserSummaryDTO> loaded = new ArrayList<>();
+        for (User user : mongoTemplate.find(query, User.class)) {
+            loaded.add(new UserSummaryDTO(user));
+        }
+        synchronized (this) {
+            // An invalidation while querying may have made these results stale; serve them but do not keep them.
+            boolean cacheable = generation == observedGeneration;
+            for (UserSummaryDTO summary : loaded) {
+                result.put(summary.getId(), summary);
+                if (cacheable) {
+                    entries.put(summary.getId(), new Entry(summary, now + ttlMs));
+                }
+            }
+        }
+        return result;
+    }
+
+    public synchronized void invalidate(String userId) {
+        generation++;
+        entries.remove(userId);
+    }
+
+    private record Entry(UserSummaryDTO summary, long expiresAt) {
+    }
+}
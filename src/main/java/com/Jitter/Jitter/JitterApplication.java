@@ -8,11 +8,11 @@ import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
-import java.util.Optional;
-
 @SpringBootApplication
+@EnableScheduling
 public class JitterApplication {
 
 	@Autowired
@@ -31,9 +31,7 @@ public class JitterApplication {
 	@PostConstruct
 	public void createDefaultAdmin() {
 		try {
-			boolean adminExists = userRepository.findAll().stream()
-				.anyMatch(user -> roleRepository.findByUserId(user.getId()).stream()
-					.anyMatch(role -> "ADMIN".equals(role.getType())));
+			boolean adminExists = roleRepository.existsByType("ADMIN");
 
 			if (!adminExists) {
 				User adminUser = new User();
@@ -0,0 +1,277 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import com.Jitter.Jitter.Backend.Models.Chat;
+import com.Jitter.Jitter.Backend.Models.Message;
+import com.Jitter.Jitter.Backend.Repository.MessageArchive;
+import com.Jitter.Jitter.Backend.Repository.MessageStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Searches over an in-memory message store; no chat here has archived messages.
+ */
+class ChatSearchServiceTest {
+
+    private static final String CHAT_ID = "chat-1";
+
+    private InMemoryMessageStore store;
+    private ChatSearchService search;
+    private Chat chat;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryMessageStore();
+        search = new ChatSearchService(64, 30);
+        ReflectionTestUtils.setField(search, "messageStore", store);
+        ReflectionTestUtils.setField(search, "messageArchive", new MessageArchive(new ObjectMapper(), "unused-archive"));
+        chat = new Chat();
+        chat.setId(CHAT_ID);
+    }
+
+    @Test
+    void matchesTheLastTermAsPrefix() {
+        send("see you tomorrow");
+        send("tomato soup");
+        send("nothing here");
+
+        assertEquals(List.of(2L, 1L), seqs(search.search(chat, "to", null, 10)));
+        assertEquals(List.of(1L), seqs(search.search(chat, "tomor", null, 10)));
+    }
+
+    @Test
+    void requiresEveryEarlierTermExactly() {
+        send("lunch at noon");
+        send("lunchtime at the park");
+        send("noon lunch");
+
+        assertEquals(List.of(3L, 1L), seqs(search.search(chat, "lunch noon", null, 10)));
+        assertEquals(List.of(), seqs(search.search(chat, "lunchtime noon", null, 10)));
+    }
+
+    @Test
+    void ignoresCaseAndPunctuation() {
+        send("Meeting: MOVED to Friday!");
+
+        assertEquals(List.of(1L), seqs(search.search(chat, "moved, FRI", null, 10)));
+        assertEquals(List.of(), search.search(chat, " ?! ", null, 10));
+    }
+
+    @Test
+    void returnsNewestFirstBelowTheCursorUpToTheLimit() {
+        for (int i = 0; i < 25; i++) {
+            send("ping " + i);
+        }
+
+        assertEquals(List.of(25L, 24L, 23L), seqs(search.search(chat, "ping", null, 3)));
+        assertEquals(List.of(22L, 21L, 20L), seqs(search.search(chat, "ping", 23L, 3)));
+        assertEquals(List.of(2L, 1L), seqs(search.search(chat, "ping", 3L, 10)));
+    }
+
+    @Test
+    void indexesMessagesSentAfterTheFirstSearch() {
+        send("first hello");
+        assertEquals(List.of(1L), seqs(search.search(chat, "hello", null, 10)));
+
+        search.onMessage(send("second hello"));
+
+        assertEquals(List.of(2L, 1L), seqs(search.search(chat, "hello", null, 10)));
+    }
+
+    @Test
+    void catchesUpOnMessagesTheIndexMissed() {
+        send("hello one");
+        search.search(chat, "hello", null, 10);
+
+        // Sent without notifying the index, as a send on another node would be.
+        send("hello two");
+        send("hello three");
+
+        assertEquals(List.of(3L, 2L, 1L), seqs(search.search(chat, "hello", null, 10)));
+    }
+
+    @Test
+    void skipsDeletedMessages() {
+        send("keep this");
+        Message deleted = send("drop this");
+        search.search(chat, "this", null, 10);
+
+        store.delete(deleted);
+        search.onDelete(deleted);
+
+        assertEquals(List.of(1L), seqs(search.search(chat, "this", null, 10)));
+    }
+
+    @Test
+    void rechecksEditedMessagesAgainstStoredContent() {
+        send("old wording");
+        send("unrelated");
+        search.search(chat, "old", null, 10);
+
+        Message edited = store.edit(store.bySeq(1), "new wording");
+        search.onEdit(edited);
+
+        assertEquals(List.of(), seqs(search.search(chat, "old", null, 10)));
+        assertEquals(List.of(1L), seqs(search.search(chat, "new", null, 10)));
+        assertEquals(List.of(1L), seqs(search.search(chat, "wording", null, 10)));
+    }
+
+    @Test
+    void buildsTheIndexInBatches() {
+        for (int i = 0; i < 2500; i++) {
+            send(i % 1000 == 0 ? "needle " + i : "hay " + i);
+        }
+
+        assertEquals(List.of(2001L, 1001L, 1L), seqs(search.search(chat, "needle", null, 10)));
+        assertTrue(store.findAfterCalls >= 3);
+    }
+
+    @Test
+    void doesNotBlockSendsWhileBuildingTheIndex() {
+        for (int i = 0; i < 1500; i++) {
+            send("hay " + i);
+        }
+        store.duringNextFindAfter = () -> {
+            Thread sender = new Thread(() -> search.onMessage(send("needle")));
+            sender.start();
+            try {
+                sender.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            assertFalse(sender.isAlive());
+        };
+
+        assertEquals(List.of(1501L), seqs(search.search(chat, "needle", null, 10)));
+    }
+
+    @Test
+    void appliesEditsMadeWhileTheIndexIsBuilt() {
+        for (int i = 0; i < 1500; i++) {
+            send("hay " + i);
+        }
+        // The first batch has already been read with the old content when the edit lands.
+        store.duringNextFindAfter = () -> search.onEdit(store.edit(store.bySeq(500), "needle"));
+
+        assertEquals(List.of(500L), seqs(search.search(chat, "needle", null, 10)));
+        assertEquals(List.of(), seqs(search.search(chat, "hay 499", null, 10)));
+    }
+
+    private Message send(String content) {
+        Message message = new Message(CHAT_ID, "alice", "alice", content, Message.MessageType.TEXT);
+        store.insertAll(List.of(message));
+        return message;
+    }
+
+    private static List<Long> seqs(List<Message> messages) {
+        return messages.stream().map(Message::getSeq).toList();
+    }
+
+    private static final class InMemoryMessageStore implements MessageStore {
+        private final TreeMap<Long, Message> messages = new TreeMap<>();
+        private int findAfterCalls;
+        private Runnable duringNextFindAfter;
+
+        private Message bySeq(long seq) {
+            return messages.get(seq);
+        }
+
+        @Override
+        public void insertAll(List<Message> batch) {
+            for (Message message : batch) {
+                long seq = messages.isEmpty() ? 1 : messages.lastKey() + 1;
+                message.setId("m" + seq);
+                message.setSeq(seq);
+                messages.put(seq, message);
+            }
+        }
+
+        @Override
+        public Optional<Message> findById(String messageId) {
+            return messages.values().stream().filter(m -> m.getId().equals(messageId)).findFirst();
+        }
+
+        @Override
+        public List<Message> findAllById(Collection<String> messageIds) {
+            return messages.values().stream().filter(m -> messageIds.contains(m.getId())).toList();
+        }
+
+        @Override
+        public Slice<Message> findLatest(String chatId, int page, int size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Slice<Message> findBefore(String chatId, long seq, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Slice<Message> findAfter(String chatId, long seq, int limit) {
+            findAfterCalls++;
+            // Copies, as a real read would return, so later edits do not show through.
+            List<Message> page = new ArrayList<>();
+            for (Message stored : messages.tailMap(seq, false).values()) {
+                Message copy = new Message(chatId, stored.getSenderId(), stored.getSenderUsername(), stored.getContent(), stored.getType());
+                copy.setId(stored.getId());
+                copy.setSeq(stored.getSeq());
+                page.add(copy);
+            }
+            Runnable hook = duringNextFindAfter;
+            duringNextFindAfter = null;
+            if (hook != null) {
+                hook.run();
+            }
+            boolean hasNext = page.size() > limit;
+            return new SliceImpl<>(hasNext ? page.subList(0, limit) : page, PageRequest.of(0, limit), hasNext);
+        }
+
+        @Override
+        public List<Message> findBySeqs(String chatId, Collection<Long> seqs) {
+            List<Message> found = new ArrayList<>();
+            for (Long seq : seqs) {
+                Message message = messages.get(seq);
+                if (message != null) {
+                    found.add(message);
+                }
+            }
+            return found;
+        }
+
+        @Override
+        public void delete(Message message) {
+            messages.remove(message.getSeq());
+        }
+
+        @Override
+        public Message edit(Message message, String content) {
+            message.setContent(content);
+            message.setEdited(true);
+            return message;
+        }
+
+        @Override
+        public long count(String chatId) {
+            return messages.size();
+        }
+
+        @Override
+        public void deleteThrough(String chatId, long seq) {
+            messages.headMap(seq, true).clear();
+        }
+    }
+}
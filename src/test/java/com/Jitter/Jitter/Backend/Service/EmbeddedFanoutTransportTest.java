@@ -0,0 +1,96 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import com.Jitter.Jitter.Backend.Security.UserSessionRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two delivery stacks joined through the embedded hub, standing in for two nodes.
+ */
+class EmbeddedFanoutTransportTest {
+
+    private Node nodeA;
+    private Node nodeB;
+
+    @BeforeEach
+    void startNodes() {
+        nodeA = new Node();
+        nodeB = new Node();
+    }
+
+    @AfterEach
+    void stopNodes() {
+        nodeA.transport.leave();
+        nodeB.transport.leave();
+    }
+
+    @Test
+    void deliversOnceToAUserConnectedToAnotherNode() {
+        nodeB.sessions.register("b-session", "bob");
+
+        nodeA.delivery.deliver("bob", "/queue/messages", Map.of("content", "hi"));
+
+        assertTrue(nodeA.sent.isEmpty());
+        assertEquals(1, nodeB.sent.size());
+        assertEquals("/queue/messages-userb-session", destinationOf(nodeB.sent.get(0)));
+        assertEquals("{\"content\":\"hi\"}", new String((byte[]) nodeB.sent.get(0).getPayload(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void deliversOnceToAUserConnectedToTheSendingNode() {
+        nodeA.sessions.register("a-session", "alice");
+
+        nodeA.delivery.deliver("alice", "/queue/messages", Map.of("content", "hi"));
+
+        assertEquals(1, nodeA.sent.size());
+        assertEquals("/queue/messages-usera-session", destinationOf(nodeA.sent.get(0)));
+        assertTrue(nodeB.sent.isEmpty());
+    }
+
+    @Test
+    void deliversOnceToEachSessionOfAUserConnectedToBothNodes() {
+        nodeA.sessions.register("a-session", "carol");
+        nodeB.sessions.register("b-session", "carol");
+
+        nodeA.delivery.deliver(List.of("carol"), "/queue/messages", Map.of("content", "hi"));
+
+        assertEquals(1, nodeA.sent.size());
+        assertEquals(1, nodeB.sent.size());
+    }
+
+    private static String destinationOf(Message<?> message) {
+        return SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+    }
+
+    private static final class Node {
+        private final List<Message<?>> sent = new CopyOnWriteArrayList<>();
+        private final UserSessionRegistry sessions = new UserSessionRegistry();
+        private final EmbeddedFanoutTransport transport = new EmbeddedFanoutTransport();
+        private final UserDeliveryService delivery = new UserDeliveryService();
+
+        private Node() {
+            MessageChannel channel = (message, timeout) -> sent.add(message);
+            ReflectionTestUtils.setField(delivery, "messagingTemplate", new SimpMessagingTemplate(channel));
+            ReflectionTestUtils.setField(delivery, "sessionRegistry", sessions);
+            ReflectionTestUtils.setField(delivery, "objectMapper", new ObjectMapper());
+            ReflectionTestUtils.setField(delivery, "fanoutTransport", transport);
+            transport.join();
+            delivery.init();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTest {
+
+    // Three standard errors of a 2^13-register sketch.
+    private static final double MAX_RELATIVE_ERROR = 3 * 0.0115;
+
+    @Test
+    void estimatesOneThousandDistinctValues() {
+        assertWithinError(1_000);
+    }
+
+    @Test
+    void estimatesOneHundredThousandDistinctValues() {
+        assertWithinError(100_000);
+    }
+
+    @Test
+    void estimatesOneMillionDistinctValues() {
+        assertWithinError(1_000_000);
+    }
+
+    @Test
+    void ignoresRepeatedValues() {
+        HyperLogLog once = sketch(0, 5_000);
+        HyperLogLog repeated = sketch(0, 5_000);
+        for (int i = 0; i < 5_000; i++) {
+            repeated.offer(HyperLogLog.hash("viewer-" + i));
+        }
+        assertArrayEquals(once.toBytes(), repeated.toBytes());
+    }
+
+    @Test
+    void emptySketchEstimatesZero() {
+        assertEquals(0, new HyperLogLog().estimate());
+        assertEquals(0, HyperLogLog.fromBytes(null).estimate());
+        assertEquals(0, HyperLogLog.fromBytes(new byte[0]).estimate());
+    }
+
+    @Test
+    void mergeIsIdempotent() {
+        HyperLogLog merged = sketch(0, 50_000);
+        HyperLogLog other = sketch(25_000, 75_000);
+        merged.merge(other);
+        byte[] once = merged.toBytes();
+        merged.merge(other);
+        merged.merge(merged);
+        assertArrayEquals(once, merged.toBytes());
+    }
+
+    @Test
+    void mergeIsCommutativeForEveryEncoding() {
+        int[][] ranges = {{0, 100}, {50, 300}, {0, 40_000}, {20_000, 90_000}};
+        for (int[] first : ranges) {
+            for (int[] second : ranges) {
+                HyperLogLog left = sketch(first[0], first[1]);
+                left.merge(sketch(second[0], second[1]));
+                HyperLogLog right = sketch(second[0], second[1]);
+                right.merge(sketch(first[0], first[1]));
+                assertArrayEquals(left.toBytes(), right.toBytes());
+            }
+        }
+    }
+
+    @Test
+    void mergeOfPartsMatchesSketchOfWhole() {
+        HyperLogLog merged = sketch(0, 30_000);
+        merged.merge(sketch(30_000, 60_000));
+        merged.merge(sketch(60_000, 100_000));
+        assertArrayEquals(sketch(0, 100_000).toBytes(), merged.toBytes());
+    }
+
+    @Test
+    void roundTripsSparseEncoding() {
+        HyperLogLog sketch = sketch(0, 500);
+        byte[] bytes = sketch.toBytes();
+        assertEquals(1, bytes[0]);
+        assertTrue(bytes.length < 1 + 8192 * 6 / 8);
+
+        HyperLogLog restored = HyperLogLog.fromBytes(bytes);
+        assertArrayEquals(bytes, restored.toBytes());
+        assertEquals(sketch.estimate(), restored.estimate());
+    }
+
+    @Test
+    void roundTripsDenseEncoding() {
+        HyperLogLog sketch = sketch(0, 200_000);
+        byte[] bytes = sketch.toBytes();
+        assertEquals(2, bytes[0]);
+        assertEquals(1 + 8192 * 6 / 8, bytes.length);
+
+        HyperLogLog restored = HyperLogLog.fromBytes(bytes);
+        assertArrayEquals(bytes, restored.toBytes());
+        assertEquals(sketch.estimate(), restored.estimate());
+    }
+
+    @Test
+    void restoredSketchKeepsCounting() {
+        HyperLogLog restored = HyperLogLog.fromBytes(sketch(0, 1_000).toBytes());
+        for (int i = 1_000; i < 100_000; i++) {
+            restored.offer(HyperLogLog.hash("viewer-" + i));
+        }
+        assertArrayEquals(sketch(0, 100_000).toBytes(), restored.toBytes());
+    }
+
+    @Test
+    void rejectsUnknownEncoding() {
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[] {7, 1, 2, 3}));
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[] {2, 0, 0}));
+    }
+
+    private static void assertWithinError(int distinct) {
+        long estimate = sketch(0, distinct).estimate();
+        double error = Math.abs(estimate - distinct) / (double) distinct;
+        assertTrue(error <= MAX_RELATIVE_ERROR,
+            "Estimated " + estimate + " for " + distinct + " distinct values (error " + error + ")");
+    }
+
+    private static HyperLogLog sketch(int from, int to) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = from; i < to; i++) {
+            sketch.offer(HyperLogLog.hash("viewer-" + i));
+        }
+        return sketch;
+    }
+}
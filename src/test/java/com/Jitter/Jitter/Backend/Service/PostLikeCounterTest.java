@@ -0,0 +1,216 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import com.Jitter.Jitter.Backend.Models.Post;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PostLikeCounterTest {
+
+    private MongoTemplate mongoTemplate;
+    private BulkOperations bulk;
+    private PostLikeCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class)).thenReturn(bulk);
+        counter = new PostLikeCounter(60);
+        ReflectionTestUtils.setField(counter, "mongoTemplate", mongoTemplate);
+    }
+
+    @Test
+    void sumsLikesAndUnlikesUntilFlushed() {
+        counter.add("p1", 1);
+        counter.add("p1", 1);
+        counter.add("p1", -1);
+        counter.add("p2", 1);
+
+        assertEquals(1, counter.pending("p1"));
+        assertEquals(1, counter.pending("p2"));
+        assertEquals(0, counter.pending("p3"));
+    }
+
+    @Test
+    void addsPendingToThePersistedCountAndNeverGoesNegative() {
+        counter.add("p1", 2);
+        counter.add("p2", -3);
+
+        assertEquals(7, counter.withPending(post("p1", 5L)).getLikeCount());
+        assertEquals(2, counter.withPending(post("p1", null)).getLikeCount());
+        assertEquals(0, counter.withPending(post("p2", 1L)).getLikeCount());
+    }
+
+    @Test
+    void getCountsIncludesPendingDeltas() {
+        counter.add("p1", 1);
+        when(mongoTemplate.find(any(Query.class), eq(Post.class))).thenReturn(List.of(post("p1", 4L), post("p2", 9L)));
+
+        Map<String, Long> counts = counter.getCounts(List.of("p1", "p2", "p1"));
+
+        assertEquals(Map.of("p1", 5L, "p2", 9L), counts);
+    }
+
+    @Test
+    void flushIncrementsEachChangedPostOnceAndClearsPending() {
+        counter.add("p1", 1);
+        counter.add("p1", 1);
+        counter.add("p2", -1);
+        counter.add("p3", 1);
+        counter.add("p3", -1);
+
+        counter.flush();
+
+        assertEquals(Map.of("p1", 2L, "p2", -1L), flushedIncrements());
+        verify(bulk).execute();
+        assertEquals(0, counter.pending("p1"));
+        assertEquals(0, counter.pending("p2"));
+    }
+
+    @Test
+    void flushOnlyIncrementsPostsThatAlreadyHaveACount() {
+        counter.add("p1", 1);
+
+        counter.flush();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(bulk).updateOne(query.capture(), any(Update.class));
+        Document filter = query.getValue().getQueryObject();
+        assertEquals("p1", filter.get("_id"));
+        assertEquals(new Document("$exists", true), filter.get("likeCount"));
+    }
+
+    @Test
+    void flushWithNothingPendingWritesNothing() {
+        counter.flush();
+        counter.add("p1", 1);
+        counter.add("p1", -1);
+        counter.flush();
+
+        verify(bulk, never()).updateOne(any(Query.class), any(Update.class));
+        verify(bulk, never()).execute();
+    }
+
+    @Test
+    void countsDeltasBeingFlushedAsPending() {
+        counter.add("p1", 3);
+        when(bulk.execute()).thenAnswer(invocation -> {
+            assertEquals(3, counter.pending("p1"));
+            counter.add("p1", 1);
+            assertEquals(4, counter.pending("p1"));
+            return null;
+        });
+
+        counter.flush();
+
+        assertEquals(1, counter.pending("p1"));
+    }
+
+    @Test
+    void requeuesEveryDeltaWhenTheBatchFails() {
+        counter.add("p1", 2);
+        counter.add("p2", -1);
+        when(bulk.execute()).thenThrow(new IllegalStateException("unreachable")).thenReturn(null);
+
+        counter.flush();
+
+        assertEquals(2, counter.pending("p1"));
+        assertEquals(-1, counter.pending("p2"));
+
+        clearInvocations(bulk);
+        counter.flush();
+
+        assertEquals(Map.of("p1", 2L, "p2", -1L), flushedIncrements());
+        assertEquals(0, counter.pending("p1"));
+        assertEquals(0, counter.pending("p2"));
+    }
+
+    @Test
+    void requeuesOnlyTheUpdatesTheDriverReportsAsFailed() {
+        counter.add("p1", 2);
+        counter.add("p2", 5);
+        when(bulk.execute()).thenThrow(new BulkOperationException("partial failure", new MongoBulkWriteException(
+            BulkWriteResult.unacknowledged(),
+            List.of(new BulkWriteError(50, "timed out", new BsonDocument(), 1)),
+            null, new ServerAddress(), Set.of())));
+
+        counter.flush();
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(bulk, times(2)).updateOne(queries.capture(), any(Update.class));
+        String failed = (String) queries.getAllValues().get(1).getQueryObject().get("_id");
+        String written = (String) queries.getAllValues().get(0).getQueryObject().get("_id");
+        assertEquals(failed.equals("p1") ? 2 : 5, counter.pending(failed));
+        assertEquals(0, counter.pending(written));
+    }
+
+    @Test
+    void shutdownFlushesWhatIsPending() {
+        counter.add("p1", 1);
+
+        counter.shutdown();
+
+        verify(bulk).execute();
+        assertEquals(0, counter.pending("p1"));
+    }
+
+    @Test
+    void shutdownGivesUpAfterRepeatedFailures() {
+        counter.add("p1", 1);
+        when(bulk.execute()).thenThrow(new IllegalStateException("unreachable"));
+
+        counter.shutdown();
+
+        verify(bulk, times(3)).execute();
+        assertEquals(1, counter.pending("p1"));
+    }
+
+    private Map<String, Long> flushedIncrements() {
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, atLeastOnce()).updateOne(queries.capture(), updates.capture());
+        Map<String, Long> increments = new HashMap<>();
+        for (int i = 0; i < queries.getAllValues().size(); i++) {
+            String postId = (String) queries.getAllValues().get(i).getQueryObject().get("_id");
+            Document inc = (Document) updates.getAllValues().get(i).getUpdateObject().get("$inc");
+            increments.put(postId, ((Number) inc.get("likeCount")).longValue());
+        }
+        return increments;
+    }
+
+    private static Post post(String id, Long likeCount) {
+        Post post = new Post();
+        post.setId(id);
+        post.setLikeCount(likeCount);
+        return post;
+    }
+}
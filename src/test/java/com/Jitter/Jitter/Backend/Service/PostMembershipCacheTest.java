@@ -0,0 +1,247 @@
+package com.Jitter.Jitter.Backend.Service;
+
+import com.Jitter.Jitter.Backend.DTO.PostViewerStateDTO;
+import com.Jitter.Jitter.Backend.Models.BookMark;
+import com.Jitter.Jitter.Backend.Models.Like;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PostMembershipCacheTest {
+
+    private final List<Like> likes = new ArrayList<>();
+    private final List<BookMark> bookmarks = new ArrayList<>();
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.find(any(Query.class), eq(Like.class))).thenAnswer(invocation -> {
+            Object userId = invocation.<Query>getArgument(0).getQueryObject().get("userId");
+            return likes.stream().filter(like -> like.getUserId().equals(userId)).toList();
+        });
+        when(mongoTemplate.find(any(Query.class), eq(BookMark.class))).thenAnswer(invocation -> {
+            Object userId = invocation.<Query>getArgument(0).getQueryObject().get("userId");
+            return bookmarks.stream().filter(bookmark -> bookmark.getUserId().equals(userId)).toList();
+        });
+    }
+
+    @Test
+    void reportsLikesAndBookmarksOfTheUser() {
+        String liked = id();
+        String bookmarked = id();
+        String both = id();
+        String neither = id();
+        like("alice", liked);
+        like("alice", both);
+        bookmark("alice", bookmarked);
+        bookmark("alice", both);
+        like("bob", neither);
+
+        Map<String, PostViewerStateDTO> states = cache(100, 300).getStates("alice", List.of(liked, bookmarked, both, neither));
+
+        assertEquals(new PostViewerStateDTO(true, false), states.get(liked));
+        assertEquals(new PostViewerStateDTO(false, true), states.get(bookmarked));
+        assertEquals(new PostViewerStateDTO(true, true), states.get(both));
+        assertEquals(new PostViewerStateDTO(false, false), states.get(neither));
+        assertEquals(List.of(liked, bookmarked, both, neither), new ArrayList<>(states.keySet()));
+    }
+
+    @Test
+    void loadsEachUserOnce() {
+        PostMembershipCache cache = cache(100, 300);
+        String postId = id();
+        like("alice", postId);
+
+        cache.getStates("alice", List.of(postId));
+        cache.getStates("alice", List.of(postId, id()));
+
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(Like.class));
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(BookMark.class));
+    }
+
+    @Test
+    void appliesTogglesWithoutReloading() {
+        PostMembershipCache cache = cache(100, 300);
+        String first = id();
+        String second = id();
+        like("alice", first);
+        cache.getStates("alice", List.of(first));
+
+        cache.onLike("alice", first, false);
+        cache.onLike("alice", second, true);
+        cache.onBookmark("alice", first, true);
+
+        Map<String, PostViewerStateDTO> states = cache.getStates("alice", List.of(first, second));
+        assertEquals(new PostViewerStateDTO(false, true), states.get(first));
+        assertEquals(new PostViewerStateDTO(true, false), states.get(second));
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(Like.class));
+    }
+
+    @Test
+    void togglesOfUncachedUsersAreLeftToTheNextLoad() {
+        PostMembershipCache cache = cache(100, 300);
+        String postId = id();
+
+        cache.onLike("alice", postId, true);
+
+        assertFalse(cache.getStates("alice", List.of(postId)).get(postId).isLiked());
+    }
+
+    @Test
+    void replaysTogglesThatLandDuringALoad() {
+        PostMembershipCache cache = cache(100, 300);
+        String liked = id();
+        String unliked = id();
+        like("alice", unliked);
+        doAnswer(invocation -> {
+            List<Like> snapshot = new ArrayList<>(likes);
+            cache.onLike("alice", liked, true);
+            cache.onLike("alice", unliked, false);
+            return snapshot;
+        }).when(mongoTemplate).find(any(Query.class), eq(Like.class));
+
+        Map<String, PostViewerStateDTO> states = cache.getStates("alice", List.of(liked, unliked));
+
+        assertTrue(states.get(liked).isLiked());
+        assertFalse(states.get(unliked).isLiked());
+    }
+
+    @Test
+    void treatsIdsThatAreNotObjectIdsAsAbsent() {
+        like("alice", "not-a-post");
+        Map<String, PostViewerStateDTO> states = cache(100, 300).getStates("alice", List.of("not-a-post", ""));
+
+        assertEquals(new PostViewerStateDTO(false, false), states.get("not-a-post"));
+        assertEquals(new PostViewerStateDTO(false, false), states.get(""));
+    }
+
+    @Test
+    void reloadsAfterInvalidate() {
+        PostMembershipCache cache = cache(100, 300);
+        String postId = id();
+        cache.getStates("alice", List.of(postId));
+        like("alice", postId);
+
+        cache.invalidate("alice");
+
+        assertTrue(cache.getStates("alice", List.of(postId)).get(postId).isLiked());
+        verify(mongoTemplate, times(2)).find(any(Query.class), eq(Like.class));
+    }
+
+    @Test
+    void doesNotCacheALoadInvalidatedWhileRunning() {
+        PostMembershipCache cache = cache(100, 300);
+        String postId = id();
+        doAnswer(invocation -> {
+            cache.invalidate("alice");
+            return List.of();
+        }).when(mongoTemplate).find(any(Query.class), eq(BookMark.class));
+
+        cache.getStates("alice", List.of(postId));
+        cache.getStates("alice", List.of(postId));
+
+        verify(mongoTemplate, times(2)).find(any(Query.class), eq(Like.class));
+    }
+
+    @Test
+    void reloadsExpiredEntries() {
+        PostMembershipCache cache = cache(100, 0);
+        String postId = id();
+        cache.getStates("alice", List.of(postId));
+        like("alice", postId);
+
+        assertTrue(cache.getStates("alice", List.of(postId)).get(postId).isLiked());
+        verify(mongoTemplate, times(2)).find(any(Query.class), eq(Like.class));
+    }
+
+    @Test
+    void dropsTheLeastRecentlyUsedUsers() {
+        PostMembershipCache cache = cache(2, 300);
+        String postId = id();
+        cache.getStates("alice", List.of(postId));
+        cache.getStates("bob", List.of(postId));
+        cache.getStates("alice", List.of(postId));
+        cache.getStates("carol", List.of(postId));
+
+        cache.getStates("alice", List.of(postId));
+        cache.getStates("bob", List.of(postId));
+
+        verify(mongoTemplate, times(4)).find(any(Query.class), eq(Like.class));
+    }
+
+    @Test
+    void answersExactlyForLargeSets() {
+        PostMembershipCache cache = cache(100, 300);
+        List<String> liked = new ArrayList<>();
+        List<String> others = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            liked.add(id());
+            others.add(id());
+            like("alice", liked.get(i));
+        }
+
+        assertStates(cache, liked, true);
+        assertStates(cache, others, false);
+
+        // Removals leave stale filter bits behind; the additions outgrow the filter and rebuild it.
+        for (int i = 0; i < 4_000; i++) {
+            cache.onLike("alice", liked.get(i), false);
+        }
+        for (int i = 0; i < 20_000; i++) {
+            String postId = id();
+            others.add(postId);
+            cache.onLike("alice", postId, i % 2 == 0);
+        }
+
+        assertStates(cache, liked.subList(0, 4_000), false);
+        assertStates(cache, liked.subList(4_000, 5_000), true);
+        for (int i = 0; i < 20_000; i++) {
+            String postId = others.get(5_000 + i);
+            assertEquals(i % 2 == 0, cache.getStates("alice", List.of(postId)).get(postId).isLiked());
+        }
+        assertStates(cache, others.subList(0, 5_000), false);
+    }
+
+    private void assertStates(PostMembershipCache cache, List<String> postIds, boolean liked) {
+        for (PostViewerStateDTO state : cache.getStates("alice", postIds).values()) {
+            assertEquals(liked, state.isLiked());
+        }
+    }
+
+    private PostMembershipCache cache(int maxUsers, long ttlSeconds) {
+        PostMembershipCache cache = new PostMembershipCache(maxUsers, ttlSeconds);
+        ReflectionTestUtils.setField(cache, "mongoTemplate", mongoTemplate);
+        return cache;
+    }
+
+    private void like(String userId, String postId) {
+        likes.add(new Like(null, userId, postId, null));
+    }
+
+    private void bookmark(String userId, String postId) {
+        bookmarks.add(new BookMark(null, userId, postId, null));
+    }
+
+    private static String id() {
+        return new ObjectId().toHexString();
+    }
+}